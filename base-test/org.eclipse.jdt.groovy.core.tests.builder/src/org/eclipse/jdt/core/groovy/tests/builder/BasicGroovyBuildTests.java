@@ -313,6 +313,53 @@ public final class BasicGroovyBuildTests extends BuilderTests {
         expectingCompiledClasses("A");
     }
 
+    public void testJDTClassNodeMethodsOnDemand() throws Exception {
+        IPath projectPath = env.addProject("Project","1.6");
+        env.addExternalJars(projectPath, Util.getJavaClassLibs());
+        env.addGroovyJars(projectPath);
+        fullBuild(projectPath);
+        // remove old package fragment root so that names don't collide
+        env.removePackageFragmentRoot(projectPath, "");
+
+        IPath root = env.addPackageFragmentRoot(projectPath, "src");
+        env.setOutputFolder(projectPath, "bin");
+
+        try {
+            JDTResolver.recordInstances = true;
+
+            env.addGroovyClass(root, "", "Foo",
+                    "class Foo {\n" +
+                    "  String trimmed(String s) { s.trim() }\n" +
+                    "}\n");
+
+            incrementalBuild(projectPath);
+            expectingNoProblems();
+
+            JDTClassNode jcn = JDTResolver.getCachedNode("java.lang.String");
+            assertNotNull(jcn);
+
+            // methods of one name can be requested before the rest...
+            assertEquals(1, jcn.getDeclaredMethods("trim").size());
+            assertEquals(1, jcn.getDeclaredMethods("trim").size());
+            assertTrue(jcn.getDeclaredMethods("noSuchMethod").isEmpty());
+
+            // ...without being duplicated when all of them are
+            int trims = 0;
+            for (MethodNode mn : jcn.getMethods()) {
+                assertFalse("Constructor in method list", mn.getName().equals("<init>"));
+                if (mn.getName().equals("trim")) {
+                    trims += 1;
+                }
+            }
+            assertEquals(1, trims);
+            assertEquals(1, jcn.getDeclaredMethods("trim").size());
+            assertTrue(jcn.getMethods().size() > 50);
+            assertNotNull(jcn.getDeclaredConstructor(new Parameter[0]));
+        } finally {
+            JDTResolver.recordInstances = false;
+        }
+    }
+
     public void _testCompileStatic_1505() throws Exception {
         try {
             if (GroovyUtils.GROOVY_LEVEL < 20) {
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.jdt.core.groovy.tests.compiler;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.codehaus.jdt.groovy.internal.compiler.BuildGroups;
+import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+
+/**
+ * Tests the scanning and grouping of the files of a full build.
+ */
+public class BuildGroupsTests extends TestCase {
+
+    public void testScanDeclarations() {
+        BuildGroups.Names names = scan(
+            "package p\n" +
+            "import java.util.List\n" +
+            "class A extends B {}\n" +
+            "interface I {}\n" +
+            "enum E {}\n" +
+            "trait T {}\n" +
+            "// class X\n" +
+            "/* class Y */\n" +
+            "def s = 'class Z'\n" +
+            "def t = x.class\n", "Script");
+
+        assertDeclared(names, "Script", "A", "I", "E", "T");
+        assertReferenced(names, "List", "B", "X", "Y", "Z", "x");
+    }
+
+    public void testScanQuotesInStrings() {
+        assertDeclared(scan("def s = \"it's\"\nclass A {}\n", null), "A");
+        assertDeclared(scan("def s = '''it\"s\n'''\nclass A {}\n", null), "A");
+        assertDeclared(scan("def s = 'it\\'s'\nclass A {}\n", null), "A");
+    }
+
+    public void testScanSlashyString() {
+        assertDeclared(scan("def re = /it's/\nclass A {}\n", null), "A");
+        assertDeclared(scan("def re = /it\\/s \"\"\"/\nclass A {}\n", null), "A");
+        assertDeclared(scan("def m = s =~ /it's/\nclass A {}\n", null), "A");
+        assertDeclared(scan("def f() { return /it's/ }\nclass A {}\n", null), "A");
+        assertDeclared(scan("switch (s) { case /it's/: break }\nclass A {}\n", null), "A");
+    }
+
+    public void testScanDollarSlashyString() {
+        assertDeclared(scan("def s = $/it's \"\"\" /$\nclass A {}\n", null), "A");
+        assertDeclared(scan("def s = $/it''' $/$ $$/$\nclass A {}\n", null), "A");
+        assertDeclared(scan("def s = x + $/it's/$\nclass A {}\n", null), "A");
+    }
+
+    public void testScanDivision() {
+        assertDeclared(scan("def x = a / 2\ndef y = 'it'\nclass A {}\n", null), "A");
+        assertDeclared(scan("def x = (a) / 2\ndef y = 'it'\nclass A {}\n", null), "A");
+        assertDeclared(scan("def x = a[0] / 2\ndef y = 'it'\nclass A {}\n", null), "A");
+        assertDeclared(scan("def x = 10 / 2\ndef y = 'it'\nclass A {}\n", null), "A");
+        assertDeclared(scan("def x = 'a' / 2\ndef y = 'it'\nclass A {}\n", null), "A");
+    }
+
+    public void testDependencies() {
+        BuildGroups.Names[] names = {
+            scan("class A { B b }", "A"),
+            scan("class B { C c }", "B"),
+            scan("class C { C c }", "C"),
+            scan("class D { A a; C c }", "D"),
+        };
+        int[][] dependencies = BuildGroups.dependencies(names);
+
+        assertEquals(4, dependencies.length);
+        assertEquals("[1]", sorted(dependencies[0]));
+        assertEquals("[2]", sorted(dependencies[1]));
+        assertEquals("[]", sorted(dependencies[2]));
+        assertEquals("[0, 2]", sorted(dependencies[3]));
+    }
+
+    public void testComponents() {
+        int[][] dependencies = {{1}, {2}, {}, {0, 2}};
+        assertEquals("[[2], [1], [0], [3]]", toString(BuildGroups.components(dependencies)));
+    }
+
+    public void testComponentsWithCycle() {
+        int[][] dependencies = {{1}, {0, 2}, {}, {0}, {3, 4}};
+        int[][] components = BuildGroups.components(dependencies);
+        assertEquals("[[2], [0, 1], [3], [4]]", toString(components));
+        assertDependenciesFirst(dependencies, components);
+    }
+
+    public void testComponentsOfLongChain() {
+        // deep enough to overflow the stack of a recursive implementation
+        int n = 100000;
+        int[][] dependencies = new int[n][];
+        for (int i = 0; i < n; i += 1) {
+            dependencies[i] = (i + 1 < n ? new int[] {i + 1} : new int[0]);
+        }
+        int[][] components = BuildGroups.components(dependencies);
+        assertEquals(n, components.length);
+        assertDependenciesFirst(dependencies, components);
+    }
+
+    public void testGroup() {
+        ICompilationUnit[] units = {
+            unit("A", "class A { B b }"),
+            unit("B", "class B { C c }"),
+            unit("C", "class C {}"),
+            unit("D", "class D {}"),
+            unit("E", "class E { A a }"),
+        };
+        assertEquals("[[2, 1], [0, 3], [4]]", toString(BuildGroups.group(units, 2, null)));
+    }
+
+    public void testGroupKeepsCycleTogether() {
+        ICompilationUnit[] units = {
+            unit("A", "class A { B b }"),
+            unit("B", "class B { A a }"),
+            unit("C", "class C {}"),
+        };
+        assertEquals("[[0, 1], [2]]", toString(BuildGroups.group(units, 1, null)));
+    }
+
+    public void testGroupAllAtOnce() {
+        ICompilationUnit[] units = {
+            unit("A", "class A { B b }"),
+            unit("B", "class B {}"),
+        };
+        assertNull(BuildGroups.group(units, 0, null));
+        assertNull(BuildGroups.group(units, 2, null));
+        // one component is one group
+        units[1] = unit("B", "class B { A a }");
+        assertNull(BuildGroups.group(units, 1, null));
+    }
+
+    //--------------------------------------------------------------------------
+
+    private static BuildGroups.Names scan(String contents, String mainTypeName) {
+        return BuildGroups.scan(contents.toCharArray(), mainTypeName == null ? null : mainTypeName.toCharArray());
+    }
+
+    private static ICompilationUnit unit(String name, String contents) {
+        return new CompilationUnit(contents.toCharArray(), name + ".groovy", null);
+    }
+
+    private static void assertDeclared(BuildGroups.Names names, String... expected) {
+        assertEquals(sorted(hashes(expected)), sorted(names.declared));
+    }
+
+    private static void assertReferenced(BuildGroups.Names names, String... expected) {
+        for (String name : expected) {
+            int hash = name.hashCode();
+            boolean found = false;
+            for (int h : names.referenced) {
+                found |= (h == hash);
+            }
+            assertTrue("Expected reference to " + name, found);
+        }
+    }
+
+    private static void assertDependenciesFirst(int[][] dependencies, int[][] components) {
+        int[] position = new int[dependencies.length];
+        for (int c = 0; c < components.length; c += 1) {
+            for (int u : components[c]) {
+                position[u] = c;
+            }
+        }
+        for (int u = 0; u < dependencies.length; u += 1) {
+            for (int d : dependencies[u]) {
+                assertTrue(u + " is before its dependency " + d, position[d] <= position[u]);
+            }
+        }
+    }
+
+    private static int[] hashes(String[] names) {
+        int[] hashes = new int[names.length];
+        for (int i = 0; i < names.length; i += 1) {
+            hashes[i] = names[i].hashCode();
+        }
+        return hashes;
+    }
+
+    private static String sorted(int[] array) {
+        int[] copy = array.clone();
+        Arrays.sort(copy);
+        return Arrays.toString(copy);
+    }
+
+    private static String toString(int[][] arrays) {
+        return Arrays.deepToString(arrays);
+    }
+}
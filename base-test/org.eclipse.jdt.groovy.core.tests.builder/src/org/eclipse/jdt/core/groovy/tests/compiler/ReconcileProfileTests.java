@@ -0,0 +1,111 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.jdt.core.groovy.tests.compiler;
+
+import static org.eclipse.jdt.core.tests.util.GroovyUtils.isAtLeastGroovy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import junit.framework.Test;
+
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ProjectScope;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.jdt.core.tests.builder.BuilderTests;
+import org.eclipse.jdt.groovy.core.Activator;
+import org.eclipse.jdt.groovy.core.util.ReconcileProfile;
+
+/**
+ * Tests the reading of a project's reconcile profile from its Groovy preferences.
+ */
+public class ReconcileProfileTests extends BuilderTests {
+
+    public ReconcileProfileTests(String name) {
+        super(name);
+    }
+
+    public static Test suite() {
+        return buildTestSuite(ReconcileProfileTests.class);
+    }
+
+    public void testNoPreferences() throws Exception {
+        IProject project = createProject();
+        assertSame(ReconcileProfile.DEFAULT, ReconcileProfile.forProject(project));
+        assertSame(ReconcileProfile.DEFAULT, ReconcileProfile.forProject(null));
+
+        assertEquals("fallback", ReconcileProfile.DEFAULT.getLocalTransforms("fallback"));
+        assertTrue(ReconcileProfile.DEFAULT.getDisabledGlobalTransforms().isEmpty());
+    }
+
+    public void testProjectPreferences() throws Exception {
+        IProject project = createProject();
+        setProjectPreferences(project, " groovy.transform.ToString ", " p.GlobalA, ,p.GlobalB,p.GlobalA ");
+
+        ReconcileProfile profile = ReconcileProfile.forProject(project);
+        assertEquals("groovy.transform.ToString", profile.getLocalTransforms("fallback"));
+        assertEquals(Arrays.asList("p.GlobalA", "p.GlobalB"), Arrays.asList(profile.getDisabledGlobalTransforms().toArray()));
+    }
+
+    public void testOnlyDisabledGlobalTransforms() throws Exception {
+        IProject project = createProject();
+        setProjectPreferences(project, "", "p.GlobalA");
+
+        ReconcileProfile profile = ReconcileProfile.forProject(project);
+        assertNotSame(ReconcileProfile.DEFAULT, profile);
+        assertEquals("fallback", profile.getLocalTransforms("fallback"));
+        assertEquals(Collections.singleton("p.GlobalA"), profile.getDisabledGlobalTransforms());
+    }
+
+    public void testApplyTo() throws Exception {
+        if (!isAtLeastGroovy(20)) {
+            return; // disabled global transforms need Groovy 2.0
+        }
+        IProject project = createProject();
+        setProjectPreferences(project, "", "p.GlobalA,p.GlobalB");
+
+        CompilerConfiguration configuration = new CompilerConfiguration();
+        configuration.setDisabledGlobalASTTransformations(Collections.singleton("p.GlobalC"));
+        ReconcileProfile.forProject(project).applyTo(configuration);
+
+        Set<String> expected = new LinkedHashSet<String>(Arrays.asList("p.GlobalA", "p.GlobalB", "p.GlobalC"));
+        assertEquals(expected, configuration.getDisabledGlobalASTTransformations());
+
+        // the default profile leaves the configuration as it is
+        configuration = new CompilerConfiguration();
+        ReconcileProfile.DEFAULT.applyTo(configuration);
+        Set<String> disabled = configuration.getDisabledGlobalASTTransformations();
+        assertTrue(disabled == null || disabled.isEmpty());
+    }
+
+    //--------------------------------------------------------------------------
+
+    private IProject createProject() throws Exception {
+        env.addProject("Project");
+        return env.getProject("Project");
+    }
+
+    private static void setProjectPreferences(IProject project, String localTransforms, String disabledGlobalTransforms) throws Exception {
+        IEclipsePreferences preferences = new ProjectScope(project).getNode(Activator.PLUGIN_ID);
+        preferences.putBoolean(Activator.USING_PROJECT_PROPERTIES, true);
+        preferences.put(Activator.GROOVY_RECONCILE_TRANSFORMS, localTransforms);
+        preferences.put(Activator.GROOVY_RECONCILE_DISABLED_GLOBAL_TRANSFORMS, disabledGlobalTransforms);
+        preferences.flush();
+    }
+}
@@ -183,6 +183,29 @@ public class ScriptFolderTests extends BuilderTests {
         assertExists("Project/bin/Script.class");
         assertNoExists("Project/bin/Script.groovy");
     }
+
+    public void testUnchangedScriptNotCopiedAgain() throws Exception {
+        Activator.getDefault().setPreference(null, Activator.GROOVY_SCRIPT_FILTERS_ENABLED, "true");
+        Activator.getDefault().setPreference(null, Activator.GROOVY_SCRIPT_FILTERS, Activator.DEFAULT_GROOVY_SCRIPT_FILTER);
+        CompilationUnit unit = createScriptInGroovyProject("Script", "def x", true);
+        IWorkspaceRoot root = env.getWorkspace().getRoot();
+        IFile copied = root.getFile(new Path("Project/bin/Script.groovy"));
+        assertExists("Project/bin/Script.groovy");
+        long stamp = copied.getModificationStamp();
+
+        // touch without changing contents; copy in output folder should be left alone
+        ((IFile) unit.getResource()).touch(null);
+        incrementalBuild(new Path("/Project"));
+        assertExists("Project/bin/Script.groovy");
+        assertEquals("Unchanged script should not have been copied again", stamp, copied.getModificationStamp());
+
+        // now change the contents; copy in output folder should be replaced
+        env.addGroovyClass(root.getFolder(new Path("Project/scripts")).getFullPath(), "Script", "def y");
+        incrementalBuild(new Path("/Project"));
+        assertExists("Project/bin/Script.groovy");
+        assertTrue("Changed script should have been copied again", stamp != copied.getModificationStamp());
+    }
+
     public void testSourceInProjectCompiled() throws Exception {
         Activator.getDefault().setPreference(null, Activator.GROOVY_SCRIPT_FILTERS_ENABLED, "true");
         Activator.getDefault().setPreference(null, Activator.GROOVY_SCRIPT_FILTERS, Activator.DEFAULT_GROOVY_SCRIPT_FILTER);
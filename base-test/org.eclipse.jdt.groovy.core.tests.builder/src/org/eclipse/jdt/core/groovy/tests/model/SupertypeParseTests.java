@@ -0,0 +1,184 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.jdt.core.groovy.tests.model;
+
+import java.lang.ref.SoftReference;
+import java.util.Map;
+
+import junit.framework.Test;
+
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.control.Phases;
+import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.jdt.groovy.internal.compiler.ast.GroovyParser;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IRegion;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.groovy.core.util.ReflectionUtils;
+
+/**
+ * Tests that the type hierarchy resolver parses closed groovy units ahead, in
+ * parallel and only as far as their supertypes, and reuses those parses while
+ * the files are unchanged.
+ */
+public class SupertypeParseTests extends AbstractGroovyTypeRootTests {
+
+    private static final int SUBTYPES = 20;
+
+    public SupertypeParseTests(String name) {
+        super(name);
+    }
+
+    public static Test suite() {
+        return buildTestSuite(SupertypeParseTests.class);
+    }
+
+    public void testParseAhead() throws Exception {
+        IType base = createHierarchy();
+        ITypeHierarchy hierarchy = base.newTypeHierarchy(null);
+        assertEquals(SUBTYPES, hierarchy.getAllSubtypes(base).length);
+
+        Map<?, ?> entries = getCacheEntries();
+        for (int i = 0; i < SUBTYPES; i += 1) {
+            assertTrue("Sub" + i + " was not parsed ahead", entries.containsKey(getSubtypeFile(i)));
+        }
+    }
+
+    public void testParseAheadExecutorIsShared() throws Exception {
+        IType base = createHierarchy();
+        base.newTypeHierarchy(null);
+        Object executor = ReflectionUtils.getPrivateField(GroovyParser.class, "parseAheadExecutor", null);
+
+        // edit every file so that all of them are parsed again
+        for (int i = 0; i < SUBTYPES; i += 1) {
+            env.addGroovyClass(getSourceRoot(), "p1", "Sub" + i, getSubtypeSource(i) + "// edited\n");
+        }
+        incrementalBuild();
+        env.waitForAutoBuild();
+        base.newTypeHierarchy(null);
+
+        // (both null when there is only one thread to parse with)
+        assertSame(executor, ReflectionUtils.getPrivateField(GroovyParser.class, "parseAheadExecutor", null));
+    }
+
+    public void testParseDepth() throws Exception {
+        IType base = createHierarchy();
+        base.newTypeHierarchy(null);
+
+        SourceUnit unit = getCachedUnit(getCacheEntries().get(getSubtypeFile(0)));
+        assertEquals("Should stop at conversion", Phases.CONVERSION, unit.getPhase());
+        ClassNode type = unit.getAST().getClasses().get(0);
+        assertEquals("p1.Sub0", type.getName());
+        // names are not resolved at conversion
+        assertEquals("Base", type.getUnresolvedSuperClass(false).getName());
+    }
+
+    public void testEditedFileParsedAgain() throws Exception {
+        IType base = createHierarchy();
+        base.newTypeHierarchy(null);
+        Map<?, ?> entries = getCacheEntries();
+        Object edited = entries.get(getSubtypeFile(0)), unchanged = entries.get(getSubtypeFile(1));
+        assertNotNull(edited);
+        assertNotNull(unchanged);
+
+        env.addGroovyClass(getSourceRoot(), "p1", "Sub0", "package p1\nclass Sub0 extends Base {\n  def x\n}\n");
+        incrementalBuild();
+        env.waitForAutoBuild();
+        ITypeHierarchy hierarchy = base.newTypeHierarchy(null);
+        assertEquals(SUBTYPES, hierarchy.getAllSubtypes(base).length);
+
+        entries = getCacheEntries();
+        assertNotSame(edited, entries.get(getSubtypeFile(0)));
+        assertNotNull(getCachedUnit(entries.get(getSubtypeFile(0))).getAST().getClasses().get(0).getField("x"));
+        assertSame(unchanged, entries.get(getSubtypeFile(1)));
+    }
+
+    public void testRegionHierarchyParsedAsUsual() throws Exception {
+        IType base = createHierarchy();
+        // the resolver may resolve every unit of a region, so none of them can be parsed to supertype depth only
+        IRegion region = JavaCore.newRegion();
+        region.add(base.getPackageFragment());
+        ITypeHierarchy hierarchy = JavaCore.create(env.getProject("Project")).newTypeHierarchy(region, null);
+        assertEquals(SUBTYPES, hierarchy.getAllSubtypes(base).length);
+
+        Object cache = getProjectCache();
+        if (cache != null) {
+            Map<?, ?> entries = (Map<?, ?>) ReflectionUtils.getPrivateField(cache.getClass(), "entries", cache);
+            for (int i = 0; i < SUBTYPES; i += 1) {
+                assertFalse("Sub" + i + " was parsed ahead", entries.containsKey(getSubtypeFile(i)));
+            }
+        }
+    }
+
+    public void testFullBuildDropsCache() throws Exception {
+        IType base = createHierarchy();
+        base.newTypeHierarchy(null);
+        assertFalse(getCacheEntries().isEmpty());
+
+        fullBuild();
+        assertNull(getProjectCache());
+    }
+
+    //--------------------------------------------------------------------------
+
+    private IType createHierarchy() throws Exception {
+        createSimpleGroovyProject();
+        env.addGroovyClass(getSourceRoot(), "p1", "Base", "package p1\nclass Base {}\n");
+        for (int i = 0; i < SUBTYPES; i += 1) {
+            env.addGroovyClass(getSourceRoot(), "p1", "Sub" + i, getSubtypeSource(i));
+        }
+        incrementalBuild();
+        env.waitForAutoBuild();
+        expectingNoProblems();
+
+        ICompilationUnit unit = JavaCore.createCompilationUnitFrom(getFile("Project/src/p1/Base.groovy"));
+        return unit.getType("Base");
+    }
+
+    private static String getSubtypeSource(int i) {
+        return "package p1\nclass Sub" + i + " extends Base {\n  def m() { [" + i + "].collect { it * 2 } }\n}\n";
+    }
+
+    private IPath getSourceRoot() {
+        return env.getProject("Project").getFullPath().append("src");
+    }
+
+    private IFile getSubtypeFile(int i) {
+        return getFile("Project/src/p1/Sub" + i + ".groovy");
+    }
+
+    private static Object getProjectCache() throws Exception {
+        Class<?> cacheClass = Class.forName("org.codehaus.jdt.groovy.internal.compiler.ast.SupertypeParseCache");
+        return ((Map<?, ?>) ReflectionUtils.getPrivateField(cacheClass, "projectCaches", null)).get("Project");
+    }
+
+    private static Map<?, ?> getCacheEntries() throws Exception {
+        Object cache = getProjectCache();
+        assertNotNull("No supertype parse cache for the project", cache);
+        return (Map<?, ?>) ReflectionUtils.getPrivateField(cache.getClass(), "entries", cache);
+    }
+
+    private static SourceUnit getCachedUnit(Object entry) {
+        assertNotNull(entry);
+        SourceUnit unit = (SourceUnit) ((SoftReference<?>) ReflectionUtils.getPrivateField(entry.getClass(), "unit", entry)).get();
+        assertNotNull(unit);
+        return unit;
+    }
+}
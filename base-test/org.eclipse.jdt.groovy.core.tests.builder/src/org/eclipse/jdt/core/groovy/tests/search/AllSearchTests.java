@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -42,6 +42,7 @@ public class AllSearchTests {
         suite.addTestSuite(StaticInferencingTests.class);
         suite.addTestSuite(SyntheticAccessorInferencingTests.class);
         suite.addTestSuite(TypeReferenceSearchTests.class);
+        suite.addTestSuite(VariableScopeTests.class);
         return suite;
     }
 }
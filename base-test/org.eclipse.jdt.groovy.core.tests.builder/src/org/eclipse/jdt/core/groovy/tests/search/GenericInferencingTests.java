@@ -82,6 +82,25 @@ public final class GenericInferencingTests extends AbstractInferencingTest {
         assertType(contents, start, end, "java.util.List<java.lang.String>");
     }
 
+    public void testRepeatedParameterization() {
+        // resolutions are cached per member and receiver type; receivers with other type arguments must not share them
+        String contents =
+                "List<String> strings = []\n" +
+                "List<Integer> numbers = []\n" +
+                "strings.get(0)\n" +
+                "strings.get(1)\n" +
+                "numbers.get(0)\n" +
+                "numbers.get(1)\n" +
+                "strings.get(2)\n";
+
+        int start = contents.indexOf("get(1)");
+        assertType(contents, start, start + "get".length(), "java.lang.String");
+        start = contents.indexOf("get", contents.indexOf("numbers.get(1)"));
+        assertType(contents, start, start + "get".length(), "java.lang.Integer");
+        start = contents.indexOf("get(2)");
+        assertType(contents, start, start + "get".length(), "java.lang.String");
+    }
+
     public void testList4() {
         String contents ="def x = [ 1 ]\nx";
         int start = contents.lastIndexOf("x");
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.jdt.core.groovy.tests.search;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import junit.framework.TestCase;
+
+import org.codehaus.groovy.ast.ClassHelper;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.stmt.BlockStatement;
+import org.eclipse.jdt.groovy.search.VariableScope;
+import org.eclipse.jdt.groovy.search.VariableScope.VariableInfo;
+
+/**
+ * Tests the declaration, lookup and update of variables in a chain of scopes.
+ */
+public class VariableScopeTests extends TestCase {
+
+    private final BlockStatement outerNode = new BlockStatement();
+    private final BlockStatement innerNode = new BlockStatement();
+    private final VariableScope outer = new VariableScope(null, outerNode, false);
+    private final VariableScope inner = new VariableScope(outer, innerNode, false);
+
+    public void testLookupInParentScope() {
+        outer.addVariable("a", ClassHelper.STRING_TYPE, null);
+        inner.addVariable("b", ClassHelper.Integer_TYPE, null);
+
+        VariableInfo a = inner.lookupName("a");
+        assertSame(ClassHelper.STRING_TYPE, a.type);
+        assertSame(VariableScope.OBJECT_CLASS_NODE, a.declaringType);
+        assertSame(outerNode, a.scopeNode);
+        assertSame(innerNode, inner.lookupName("b").scopeNode);
+
+        assertNull(inner.lookupNameInCurrentScope("a"));
+        assertNull(outer.lookupName("b"));
+        assertNull(inner.lookupName("c"));
+        assertTrue(inner.containsInThisScope("b"));
+        assertFalse(inner.containsInThisScope("a"));
+    }
+
+    public void testLookupIsNotCopied() {
+        inner.addVariable("a", ClassHelper.STRING_TYPE, null);
+        assertSame(inner.lookupName("a"), inner.lookupName("a"));
+        assertSame(inner.lookupName("a"), inner.lookupNameInCurrentScope("a"));
+    }
+
+    public void testShadowing() {
+        outer.addVariable("a", ClassHelper.STRING_TYPE, null);
+        inner.addVariable("a", ClassHelper.Integer_TYPE, null);
+
+        assertSame(ClassHelper.Integer_TYPE, inner.lookupName("a").type);
+        assertSame(ClassHelper.STRING_TYPE, outer.lookupName("a").type);
+    }
+
+    public void testAddReplaces() {
+        inner.addVariable("a", ClassHelper.STRING_TYPE, null);
+        inner.addVariable("b", ClassHelper.STRING_TYPE, null);
+        inner.addVariable("a", ClassHelper.Integer_TYPE, ClassHelper.STRING_TYPE);
+
+        assertSame(ClassHelper.Integer_TYPE, inner.lookupName("a").type);
+        assertSame(ClassHelper.STRING_TYPE, inner.lookupName("a").declaringType);
+        assertEquals("[a, b]", names(inner).toString());
+    }
+
+    public void testGrowth() {
+        // past the initial capacity and past the size at which names are indexed
+        int count = 40;
+        for (int i = 0; i < count; i += 1) {
+            inner.addVariable("v" + i, type(i), null);
+        }
+        for (int i = 0; i < count; i += 1) {
+            // names that are equal but not identical
+            String name = new StringBuilder("v").append(i).toString();
+            assertTrue(inner.containsInThisScope(name));
+            assertSame(type(i), inner.lookupName(name).type);
+            assertSame(innerNode, inner.lookupNameInCurrentScope(name).scopeNode);
+        }
+        assertNull(inner.lookupName("v" + count));
+
+        // replacing after growth keeps the position
+        inner.addVariable("v3", ClassHelper.STRING_TYPE, null);
+        inner.addVariable("v30", ClassHelper.STRING_TYPE, null);
+        assertSame(ClassHelper.STRING_TYPE, inner.lookupName("v3").type);
+        assertSame(ClassHelper.STRING_TYPE, inner.lookupName("v30").type);
+
+        List<String> names = names(inner);
+        assertEquals(count, names.size());
+        for (int i = 0; i < count; i += 1) {
+            assertEquals("v" + i, names.get(i));
+        }
+
+        // more after the index is built
+        inner.addVariable("last", ClassHelper.STRING_TYPE, null);
+        assertSame(ClassHelper.STRING_TYPE, inner.lookupName("last").type);
+        assertEquals("last", names(inner).get(count));
+    }
+
+    public void testUpdateVariable() {
+        outer.addVariable("a", ClassHelper.STRING_TYPE, ClassHelper.OBJECT_TYPE);
+
+        assertTrue(inner.updateVariable("a", ClassHelper.Integer_TYPE, null));
+        VariableInfo a = outer.lookupNameInCurrentScope("a");
+        assertSame(ClassHelper.Integer_TYPE, a.type);
+        assertSame("declaring type is kept", ClassHelper.OBJECT_TYPE, a.declaringType);
+        assertSame(outerNode, a.scopeNode);
+        assertFalse(inner.containsInThisScope("a"));
+
+        assertFalse(inner.updateVariable("b", ClassHelper.Integer_TYPE, null));
+        assertNull(inner.lookupName("b"));
+    }
+
+    public void testUpdateOrAddVariable() {
+        outer.addVariable("a", ClassHelper.STRING_TYPE, null);
+
+        inner.updateOrAddVariable("a", ClassHelper.Integer_TYPE, null);
+        inner.updateOrAddVariable("b", ClassHelper.Integer_TYPE, null);
+
+        assertSame(ClassHelper.Integer_TYPE, outer.lookupNameInCurrentScope("a").type);
+        assertFalse(inner.containsInThisScope("a"));
+        assertSame(ClassHelper.Integer_TYPE, inner.lookupNameInCurrentScope("b").type);
+        assertNull(outer.lookupName("b"));
+    }
+
+    public void testVariablesIterator() {
+        assertFalse(inner.variablesIterator().hasNext());
+
+        outer.addVariable("a", ClassHelper.STRING_TYPE, null);
+        outer.addVariable("b", ClassHelper.STRING_TYPE, null);
+        inner.addVariable("c", ClassHelper.Integer_TYPE, null);
+        // an empty scope in between is skipped
+        VariableScope innermost = new VariableScope(new VariableScope(inner, null, false), null, false);
+
+        assertEquals("[c, a, b]", names(innermost).toString());
+
+        Iterator<Map.Entry<String, VariableInfo>> iterator = innermost.variablesIterator();
+        Map.Entry<String, VariableInfo> entry = iterator.next();
+        assertSame(ClassHelper.Integer_TYPE, entry.getValue().type);
+        try {
+            entry.setValue(null);
+            fail("Entries should be read-only");
+        } catch (UnsupportedOperationException expected) {
+        }
+        iterator.next();
+        iterator.next();
+        assertFalse(iterator.hasNext());
+        try {
+            iterator.next();
+            fail("Iterator should be exhausted");
+        } catch (NoSuchElementException expected) {
+        }
+    }
+
+    //--------------------------------------------------------------------------
+
+    private static ClassNode type(int i) {
+        return (i % 2 == 0 ? ClassHelper.Integer_TYPE : ClassHelper.Long_TYPE);
+    }
+
+    private static List<String> names(VariableScope scope) {
+        List<String> names = new ArrayList<String>();
+        for (Iterator<Map.Entry<String, VariableInfo>> it = scope.variablesIterator(); it.hasNext();) {
+            names.add(it.next().getKey());
+        }
+        return names;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,10 +17,13 @@ package org.codehaus.jdt.groovy.control;
 
 import groovy.lang.GroovyClassLoader;
 
+import java.util.List;
+
 import org.codehaus.groovy.control.CompilationFailedException;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.ErrorCollector;
 import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.tools.GroovyClass;
 import org.codehaus.jdt.groovy.internal.compiler.ast.JDTResolver;
 import org.eclipse.core.resources.IFile;
 
@@ -35,6 +38,8 @@ public class EclipseSourceUnit extends SourceUnit {
 
     final private IFile file;
     final public JDTResolver resolver;
+    private List<GroovyClass> generatedClasses;
+    private int generatedClassesStamp = -1;
 
     public EclipseSourceUnit(IFile resource, String filepath, String string, CompilerConfiguration groovyCompilerConfig,
             GroovyClassLoader classLoader, ErrorCollector errorCollector, JDTResolver resolver) {
@@ -50,6 +55,19 @@ public class EclipseSourceUnit extends SourceUnit {
         return file;
     }
 
+    /**
+     * Returns the classes generated from this unit, or null if they have not been recorded since the compilation unit had
+     * {@code stamp} generated classes.
+     */
+    public List<GroovyClass> getGeneratedClasses(int stamp) {
+        return (stamp == generatedClassesStamp ? generatedClasses : null);
+    }
+
+    public void setGeneratedClasses(List<GroovyClass> classes, int stamp) {
+        generatedClasses = classes;
+        generatedClassesStamp = (classes != null ? stamp : -1);
+    }
+
     @Override
     public void convert() throws CompilationFailedException {
         super.convert();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import org.codehaus.groovy.control.SourceUnit;
 import org.codehaus.jdt.groovy.integration.EventHandler;
 import org.codehaus.jdt.groovy.integration.ISupplementalIndexer;
 import org.codehaus.jdt.groovy.integration.LanguageSupport;
+import org.codehaus.jdt.groovy.internal.compiler.BuildGroups;
 import org.codehaus.jdt.groovy.internal.compiler.ast.GroovyCompilationUnitDeclaration;
 import org.codehaus.jdt.groovy.internal.compiler.ast.GroovyErrorCollectorForJDT;
 import org.codehaus.jdt.groovy.internal.compiler.ast.GroovyTypeDeclaration;
@@ -71,6 +72,7 @@ import org.eclipse.jdt.internal.core.ClassFile;
 import org.eclipse.jdt.internal.core.CompilationUnit;
 import org.eclipse.jdt.internal.core.JavaElement;
 import org.eclipse.jdt.internal.core.JavaModelManager;
+import org.eclipse.jdt.internal.core.Openable;
 import org.eclipse.jdt.internal.core.PackageFragment;
 import org.eclipse.jdt.internal.core.search.indexing.IndexingParser;
 import org.eclipse.jdt.internal.core.search.matching.ImportMatchLocatorParser;
@@ -279,4 +281,14 @@ public class GroovyLanguageSupport implements LanguageSupport {
     public ISupplementalIndexer getSupplementalIndexer() {
         return new BinaryGroovySupplementalIndexer();
     }
+
+    public void parseAhead(Parser parser, Openable[] openables, IProgressMonitor monitor) {
+        if (parser instanceof MultiplexingParser) {
+            ((MultiplexingParser) parser).parseAhead(openables, monitor);
+        }
+    }
+
+    public int[][] groupUnits(ICompilationUnit[] units, IProgressMonitor monitor) {
+        return BuildGroups.group(units, monitor);
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -44,6 +44,7 @@ public class MultiplexingIndexingParser extends IndexingParser {
     SourceElementNotifier notifier;
     boolean groovyReportReferenceInfo;
     ISourceElementRequestor requestor;
+    GroovyParser groovyParser;
 
     public MultiplexingIndexingParser(ISourceElementRequestor requestor, IProblemFactory problemFactory, CompilerOptions options,
             boolean reportLocalDeclarations, boolean optimizeStringLiterals, boolean useSourceJavadocParser) {
@@ -70,11 +71,13 @@ public class MultiplexingIndexingParser extends IndexingParser {
 
             CompilationResult compilationResult = new CompilationResult(unit, 0, 0, this.options.maxProblemsPerUnit);
 
-            // FIXASC Is it ok to use a new parser here everytime? If we don't we sometimes recurse back into the first one
-            GroovyCompilationUnitDeclaration cud = (GroovyCompilationUnitDeclaration) new GroovyParser(this.options,
-                    problemReporter, false, true).dietParse(unit, compilationResult);
+            // indexParse never adds the unit to the parser's groovy compilation unit, so one parser (and its configuration, class
+            // loader and global transform scan) serves every file this indexer sees
+            if (groovyParser == null) {
+                groovyParser = new GroovyParser(this.options, problemReporter, false, true);
+            }
+            GroovyCompilationUnitDeclaration cud = (GroovyCompilationUnitDeclaration) groovyParser.indexParse(unit, compilationResult);
 
-            // CompilationUnitDeclaration cud groovyParser.dietParse(sourceUnit, compilationResult);
             HashtableOfObjectToInt sourceEnds = createSourceEnds(cud);
             GroovyIndexingVisitor visitor = new GroovyIndexingVisitor(requestor);
             visitor.doVisit(cud.getModuleNode(), cud.currentPackage);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,10 @@
 package org.codehaus.jdt.groovy.integration.internal;
 
 import org.codehaus.jdt.groovy.internal.compiler.ast.GroovyParser;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.groovy.core.util.ContentTypeUtils;
 import org.eclipse.jdt.internal.compiler.CompilationResult;
 import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
@@ -23,6 +27,8 @@ import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
 import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.jdt.internal.compiler.parser.Parser;
 import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
+import org.eclipse.jdt.internal.core.Openable;
+import org.eclipse.jdt.internal.core.hierarchy.HierarchyResolver;
 
 /**
  * The multiplexing parser can delegate file parsing to multiple parsers. In this scenario it subtypes 'Parser' (which is the Java
@@ -36,6 +42,11 @@ public class MultiplexingParser extends Parser {
     private CompilerOptions compilerOptions;
     private GroovyParser groovyParser;
 
+    /**
+     * The groovy files that the hierarchy resolver will ask for, by the index of their openable (and so their unit index).
+     */
+    private IFile[] hierarchyFiles;
+
     public MultiplexingParser(Object requestor, CompilerOptions compilerOptions, ProblemReporter problemReporter,
             boolean optimizeStringLiterals) {
         // The superclass that is extended is in charge of parsing .java files
@@ -47,17 +58,68 @@ public class MultiplexingParser extends Parser {
     @Override
     public CompilationUnitDeclaration dietParse(ICompilationUnit sourceUnit, CompilationResult compilationResult) {
         if (ContentTypeUtils.isGroovyLikeFileName(sourceUnit.getFileName())) {
-            if (groovyParser == null) {
-                groovyParser = new GroovyParser(this.requestor, this.compilerOptions, this.problemReporter, true, false);
+            GroovyParser parser = getGroovyParser();
+            // take the contents from the read-ahead buffer (if any) so that it stays in step with the compiler's unit order
+            char[] contents = (this.readManager != null ? this.readManager.getContents(sourceUnit) : sourceUnit.getContents());
+            IFile file = getHierarchyFile(sourceUnit, compilationResult);
+            if (file != null) {
+                return parser.hierarchyParse(file, contents, compilationResult);
             }
-            return groovyParser.dietParse(sourceUnit, compilationResult);
+            return parser.dietParse(contents, sourceUnit, compilationResult);
         } else {
             return super.dietParse(sourceUnit, compilationResult);
         }
     }
 
+    /**
+     * Called by the hierarchy resolver before it parses the units of the given openables that are not open. The groovy ones are
+     * parsed (in parallel) only as deep as their supertypes; when the resolver then asks for them they are served from those
+     * parses instead of being added to the groovy compilation unit and driven through its phases one at a time. Units that the
+     * resolver may resolve are passed as null and parsed as usual, since only units in the groovy compilation unit resolve.
+     */
+    public void parseAhead(Openable[] openables, IProgressMonitor monitor) {
+        if (!(this.requestor instanceof HierarchyResolver)) {
+            return;
+        }
+        IFile[] files = new IFile[openables.length];
+        boolean any = false;
+        for (int i = 0, n = openables.length; i < n; i += 1) {
+            if (openables[i] instanceof org.eclipse.jdt.core.ICompilationUnit && !openables[i].isOpen()) {
+                IResource resource = openables[i].getResource();
+                if (resource instanceof IFile && ContentTypeUtils.isGroovyLikeFileName(resource.getName())) {
+                    files[i] = (IFile) resource;
+                    any = true;
+                }
+            }
+        }
+        this.hierarchyFiles = (any ? files : null);
+        if (any) {
+            getGroovyParser().parseAhead(files, monitor);
+        }
+    }
+
+    private IFile getHierarchyFile(ICompilationUnit sourceUnit, CompilationResult compilationResult) {
+        int index = compilationResult.unitIndex;
+        if (hierarchyFiles != null && index >= 0 && index < hierarchyFiles.length) {
+            IFile file = hierarchyFiles[index];
+            // the resolver's source units are named for their files, which confirms the match
+            if (file != null && CharOperation.equals(sourceUnit.getFileName(), file.getName().toCharArray())) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    private GroovyParser getGroovyParser() {
+        if (groovyParser == null) {
+            groovyParser = new GroovyParser(this.requestor, this.compilerOptions, this.problemReporter, true, false);
+        }
+        return groovyParser;
+    }
+
     @Override
     public void reset() {
         groovyParser = null;
+        hierarchyFiles = null;
     }
 }
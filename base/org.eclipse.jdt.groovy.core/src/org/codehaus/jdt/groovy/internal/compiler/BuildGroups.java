@@ -0,0 +1,549 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.jdt.groovy.internal.compiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.codehaus.groovy.eclipse.GroovyLogManager;
+import org.codehaus.groovy.eclipse.TraceCategory;
+import org.codehaus.jdt.groovy.integration.LanguageSupport;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+
+/**
+ * Divides the source files of a full build into groups that the builder compiles
+ * one after the other (see {@link LanguageSupport#groupUnits}). The groovy state
+ * of a build (module nodes, class node graphs and resolver caches) is then only
+ * held for one group at a time, rather than for every file of the project until
+ * the end of the build.
+ * <p>
+ * The groups follow the references between files. Each file is scanned for the
+ * names of the types it declares and for all the identifiers it contains, and a
+ * file is taken to depend on every file that declares a type named like one of
+ * its identifiers. This over-approximates the real references, so a group never
+ * needs a file of a later group. The strongly connected components of these
+ * dependencies come out of Tarjan's algorithm after the components they depend
+ * on, and are packed in that order into groups; a component is never split.
+ * <p>
+ * Files are scanned on several threads. Full builds of more files than
+ * <code>-Dgreclipse.build.groupSize=N</code> are compiled in groups of about that
+ * many files; 0, the default, compiles all the files at once.
+ */
+public final class BuildGroups {
+
+    private static final int GROUP_SIZE = Integer.getInteger("greclipse.build.groupSize", 0);
+
+    private static final int SCAN_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    private BuildGroups() {}
+
+    /**
+     * @return the indexes into units of each group, in the order to compile them, or
+     *         null if the units should be compiled all at once
+     */
+    public static int[][] group(ICompilationUnit[] units, IProgressMonitor monitor) {
+        return group(units, GROUP_SIZE, monitor);
+    }
+
+    public static int[][] group(final ICompilationUnit[] units, int groupSize, final IProgressMonitor monitor) {
+        if (groupSize <= 0 || units.length <= groupSize) {
+            return null;
+        }
+        long start = System.currentTimeMillis();
+
+        Names[] names = scan(units, monitor);
+        if (names == null) {
+            return null;
+        }
+        int[][] dependencies = dependencies(names);
+        int[][] components = components(dependencies);
+
+        List<int[]> groups = new ArrayList<int[]>();
+        int[] group = new int[groupSize];
+        int size = 0;
+        for (int[] component : components) {
+            if (size > 0 && size + component.length > groupSize) {
+                groups.add(copy(group, 0, size));
+                size = 0;
+            }
+            if (component.length > group.length) {
+                group = copy(group, 0, component.length);
+            }
+            System.arraycopy(component, 0, group, size, component.length);
+            size += component.length;
+        }
+        if (size > 0) {
+            groups.add(copy(group, 0, size));
+        }
+
+        if (GroovyLogManager.manager.hasLoggers()) {
+            int largest = 0;
+            for (int[] g : groups) {
+                largest = Math.max(largest, g.length);
+            }
+            GroovyLogManager.manager.log(TraceCategory.COMPILER, "Grouped " + units.length + " units into " + groups.size() +
+                " groups (largest " + largest + ") in " + (System.currentTimeMillis() - start) + "ms");
+        }
+        return groups.size() > 1 ? groups.toArray(new int[groups.size()][]) : null;
+    }
+
+    //--------------------------------------------------------------------------
+
+    /**
+     * The names found in a file, by their hash codes: the hash of a name is that of
+     * its string. Names with the same hash are not told apart, which only adds
+     * dependencies.
+     */
+    public static final class Names {
+        /** the hashes of the type names the file declares */
+        public final int[] declared;
+        /** the distinct hashes of all the identifiers in the file */
+        public final int[] referenced;
+
+        Names(int[] declared, int[] referenced) {
+            this.declared = declared;
+            this.referenced = referenced;
+        }
+    }
+
+    /**
+     * @return the names of each unit, or null if the build was cancelled or a unit could not be read
+     */
+    private static Names[] scan(final ICompilationUnit[] units, final IProgressMonitor monitor) {
+        final Names[] names = new Names[units.length];
+        int threads = Math.min(SCAN_THREADS, units.length);
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(threads);
+        for (int t = 0; t < threads; t += 1) {
+            final int first = t, step = threads;
+            tasks.add(new Callable<Object>() {
+                public Object call() {
+                    for (int i = first; i < units.length; i += step) {
+                        if (monitor != null && monitor.isCanceled()) {
+                            break;
+                        }
+                        names[i] = scan(units[i].getContents(), units[i].getMainTypeName());
+                    }
+                    return null;
+                }
+            });
+        }
+        try {
+            if (threads <= 1) {
+                tasks.get(0).call();
+            } else {
+                ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "Groovy build grouping");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+                try {
+                    for (Future<Object> future : executor.invokeAll(tasks)) {
+                        future.get();
+                    }
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            // a unit that cannot be read is left for the compiler to report
+            return null;
+        }
+        for (Names n : names) {
+            if (n == null) {
+                return null;
+            }
+        }
+        return names;
+    }
+
+    private static final int CODE = 0, LINE_COMMENT = 1, BLOCK_COMMENT = 2, STRING = 3, SLASHY = 4, DOLLAR_SLASHY = 5;
+
+    /**
+     * Collects the identifiers of the given source, and the type names that follow
+     * <code>class</code>, <code>interface</code>, <code>enum</code> or
+     * <code>trait</code> in code (outside comments and strings, and not after a dot).
+     * <p>
+     * A slash starts a slashy string where an operand is expected, that is not
+     * after an identifier, a number, a string or a closing parenthesis or bracket
+     * (but after <code>return</code>, <code>case</code>, <code>assert</code> and
+     * <code>in</code>).
+     */
+    public static Names scan(char[] contents, char[] mainTypeName) {
+        IntSet declared = new IntSet();
+        IntSet referenced = new IntSet();
+        if (mainTypeName != null) {
+            declared.add(hash(mainTypeName, 0, mainTypeName.length));
+        }
+
+        int state = CODE;
+        char quote = 0;
+        boolean tripleQuote = false;
+        boolean declaration = false;
+        char previous = 0; // the last character of code that is not whitespace
+        boolean operand = false; // whether the code so far ends with an operand
+        for (int i = 0, n = contents.length; i < n;) {
+            char c = contents[i];
+            if (c == '$' && i + 1 < n) {
+                // before identifiers, since a dollar starts one
+                if (state == CODE && contents[i + 1] == '/') {
+                    state = DOLLAR_SLASHY;
+                    i += 2;
+                    declaration = false;
+                    previous = '/';
+                    operand = true;
+                    continue;
+                } else if (state == DOLLAR_SLASHY && (contents[i + 1] == '/' || contents[i + 1] == '$')) {
+                    i += 2;
+                    continue;
+                }
+            }
+            if (Character.isJavaIdentifierStart(c)) {
+                int end = i + 1;
+                while (end < n && Character.isJavaIdentifierPart(contents[end])) {
+                    end += 1;
+                }
+                int hash = hash(contents, i, end);
+                referenced.add(hash);
+                if (state == CODE) {
+                    if (declaration) {
+                        declared.add(hash);
+                        declaration = false;
+                    } else if (previous != '.' && isTypeKeyword(contents, i, end)) {
+                        declaration = true;
+                    }
+                    previous = contents[end - 1];
+                    operand = !isOperatorKeyword(contents, i, end);
+                }
+                i = end;
+                continue;
+            }
+
+            switch (state) {
+            case CODE:
+                if (c == '/' && i + 1 < n && contents[i + 1] == '/') {
+                    state = LINE_COMMENT;
+                    i += 2;
+                    continue;
+                } else if (c == '/' && i + 1 < n && contents[i + 1] == '*') {
+                    state = BLOCK_COMMENT;
+                    i += 2;
+                    continue;
+                } else if (c == '"' || c == '\'') {
+                    state = STRING;
+                    quote = c;
+                    tripleQuote = (i + 2 < n && contents[i + 1] == c && contents[i + 2] == c);
+                    i += (tripleQuote ? 3 : 1);
+                    declaration = false;
+                    previous = c;
+                    operand = true;
+                    continue;
+                } else if (c == '/' && !operand) {
+                    state = SLASHY;
+                    i += 1;
+                    declaration = false;
+                    previous = c;
+                    operand = true;
+                    continue;
+                }
+                if (!Character.isWhitespace(c)) {
+                    declaration = false;
+                    previous = c;
+                    operand = (Character.isJavaIdentifierPart(c) || c == ')' || c == ']');
+                }
+                break;
+            case LINE_COMMENT:
+                if (c == '\n' || c == '\r') {
+                    state = CODE;
+                }
+                break;
+            case BLOCK_COMMENT:
+                if (c == '*' && i + 1 < n && contents[i + 1] == '/') {
+                    state = CODE;
+                    i += 2;
+                    continue;
+                }
+                break;
+            case STRING:
+                if (c == '\\') {
+                    i += 2;
+                    continue;
+                } else if (c == quote) {
+                    if (!tripleQuote) {
+                        state = CODE;
+                    } else if (i + 2 < n && contents[i + 1] == c && contents[i + 2] == c) {
+                        state = CODE;
+                        i += 3;
+                        continue;
+                    }
+                } else if (!tripleQuote && (c == '\n' || c == '\r')) {
+                    state = CODE;
+                }
+                break;
+            case SLASHY:
+                if (c == '\\' && i + 1 < n && contents[i + 1] == '/') {
+                    i += 2;
+                    continue;
+                } else if (c == '/') {
+                    state = CODE;
+                }
+                break;
+            case DOLLAR_SLASHY:
+                if (c == '/' && i + 1 < n && contents[i + 1] == '$') {
+                    state = CODE;
+                    i += 2;
+                    continue;
+                }
+                break;
+            }
+            i += 1;
+        }
+        return new Names(declared.toArray(), referenced.toArray());
+    }
+
+    private static boolean isTypeKeyword(char[] contents, int start, int end) {
+        switch (end - start) {
+        case 4:
+            return matches(contents, start, "enum");
+        case 5:
+            return matches(contents, start, "class") || matches(contents, start, "trait");
+        case 9:
+            return matches(contents, start, "interface");
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the identifier is a keyword that may be followed by an operand
+     */
+    private static boolean isOperatorKeyword(char[] contents, int start, int end) {
+        switch (end - start) {
+        case 2:
+            return matches(contents, start, "in");
+        case 4:
+            return matches(contents, start, "case");
+        case 6:
+            return matches(contents, start, "return") || matches(contents, start, "assert");
+        }
+        return false;
+    }
+
+    private static boolean matches(char[] contents, int start, String keyword) {
+        for (int i = 0, n = keyword.length(); i < n; i += 1) {
+            if (contents[start + i] != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the hash code of the string of the given characters
+     */
+    private static int hash(char[] chars, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i += 1) {
+            hash = 31 * hash + chars[i];
+        }
+        return hash;
+    }
+
+    /**
+     * @return for each unit, the units that declare a type named like one of its identifiers
+     */
+    public static int[][] dependencies(Names[] names) {
+        Map<Integer, int[]> declaringUnits = new HashMap<Integer, int[]>();
+        for (int u = 0; u < names.length; u += 1) {
+            for (int hash : names[u].declared) {
+                int[] declaring = declaringUnits.get(hash);
+                if (declaring == null) {
+                    declaring = new int[] {u};
+                } else if (declaring[declaring.length - 1] != u) {
+                    declaring = copy(declaring, 0, declaring.length + 1);
+                    declaring[declaring.length - 1] = u;
+                }
+                declaringUnits.put(hash, declaring);
+            }
+        }
+
+        int[][] dependencies = new int[names.length][];
+        IntSet targets = new IntSet();
+        for (int u = 0; u < names.length; u += 1) {
+            targets.clear();
+            for (int hash : names[u].referenced) {
+                int[] declaring = declaringUnits.get(hash);
+                if (declaring != null) {
+                    for (int d : declaring) {
+                        if (d != u) {
+                            targets.add(d);
+                        }
+                    }
+                }
+            }
+            dependencies[u] = targets.toArray();
+        }
+        return dependencies;
+    }
+
+    /**
+     * Finds the strongly connected components of the given graph with Tarjan's
+     * algorithm, without recursion.
+     *
+     * @return the components, each after all the components it depends on
+     */
+    public static int[][] components(int[][] dependencies) {
+        int n = dependencies.length;
+        int[] index = new int[n], lowLink = new int[n];
+        Arrays.fill(index, -1);
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];
+        int stackSize = 0;
+        int[] callStack = new int[n], edgeStack = new int[n];
+        int nextIndex = 0;
+        List<int[]> components = new ArrayList<int[]>();
+
+        for (int root = 0; root < n; root += 1) {
+            if (index[root] != -1) {
+                continue;
+            }
+            int depth = 0;
+            callStack[0] = root;
+            edgeStack[0] = 0;
+            index[root] = lowLink[root] = nextIndex++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth >= 0) {
+                int v = callStack[depth];
+                if (edgeStack[depth] < dependencies[v].length) {
+                    int w = dependencies[v][edgeStack[depth]++];
+                    if (index[w] == -1) {
+                        index[w] = lowLink[w] = nextIndex++;
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                        depth += 1;
+                        callStack[depth] = w;
+                        edgeStack[depth] = 0;
+                    } else if (onStack[w]) {
+                        lowLink[v] = Math.min(lowLink[v], index[w]);
+                    }
+                } else {
+                    if (lowLink[v] == index[v]) {
+                        int end = stackSize;
+                        int w;
+                        do {
+                            w = stack[--stackSize];
+                            onStack[w] = false;
+                        } while (w != v);
+                        int[] component = copy(stack, stackSize, end);
+                        Arrays.sort(component);
+                        components.add(component);
+                    }
+                    depth -= 1;
+                    if (depth >= 0) {
+                        int u = callStack[depth];
+                        lowLink[u] = Math.min(lowLink[u], lowLink[v]);
+                    }
+                }
+            }
+        }
+        return components.toArray(new int[components.size()][]);
+    }
+
+    /**
+     * @return the given range of the array, padded with zeros beyond its end
+     */
+    private static int[] copy(int[] array, int from, int to) {
+        int[] copy = new int[to - from];
+        System.arraycopy(array, from, copy, 0, Math.min(array.length, to) - from);
+        return copy;
+    }
+
+    //--------------------------------------------------------------------------
+
+    /**
+     * Open-addressed set of ints.
+     */
+    private static final class IntSet {
+        private int[] slots = new int[64];
+        private boolean[] used = new boolean[64];
+        private int size;
+
+        void add(int value) {
+            if (size * 2 >= slots.length) {
+                grow();
+            }
+            int mask = slots.length - 1;
+            for (int i = mix(value) & mask;; i = (i + 1) & mask) {
+                if (!used[i]) {
+                    used[i] = true;
+                    slots[i] = value;
+                    size += 1;
+                    return;
+                }
+                if (slots[i] == value) {
+                    return;
+                }
+            }
+        }
+
+        void clear() {
+            Arrays.fill(used, false);
+            size = 0;
+        }
+
+        int[] toArray() {
+            int[] values = new int[size];
+            for (int i = 0, j = 0; i < slots.length; i += 1) {
+                if (used[i]) {
+                    values[j++] = slots[i];
+                }
+            }
+            return values;
+        }
+
+        private void grow() {
+            int[] oldSlots = slots;
+            boolean[] oldUsed = used;
+            slots = new int[oldSlots.length * 2];
+            used = new boolean[oldSlots.length * 2];
+            size = 0;
+            for (int i = 0; i < oldSlots.length; i += 1) {
+                if (oldUsed[i]) {
+                    add(oldSlots[i]);
+                }
+            }
+        }
+
+        private static int mix(int value) {
+            int h = value * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
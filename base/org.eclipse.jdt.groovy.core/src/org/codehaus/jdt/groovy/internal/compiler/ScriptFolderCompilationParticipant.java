@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,7 +15,16 @@
  */
 package org.codehaus.jdt.groovy.internal.compiler;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
@@ -28,11 +37,18 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.ResourceAttributes;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
@@ -40,6 +56,7 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.compiler.BuildContext;
 import org.eclipse.jdt.core.compiler.CategorizedProblem;
 import org.eclipse.jdt.core.compiler.CompilationParticipant;
+import org.eclipse.jdt.groovy.core.Activator;
 import org.eclipse.jdt.groovy.core.util.ScriptFolderSelector;
 import org.eclipse.jdt.groovy.core.util.ScriptFolderSelector.FileKind;
 import org.eclipse.jdt.internal.compiler.problem.DefaultProblem;
@@ -85,6 +102,138 @@ public class ScriptFolderCompilationParticipant extends CompilationParticipant {
 
     private static final PathLengthComparator comparator = new PathLengthComparator();
 
+    /**
+     * Build state that is kept for a project between builds.  Holds on to the script selector and the source to output folder
+     * mapping until the preferences or classpath that they were computed from change, and a manifest per output folder that
+     * records the modification stamp and content hash of each script that has been copied there.
+     */
+    static class ProjectState {
+        private String selectorKey;
+        private ScriptFolderSelector selector;
+
+        private IClasspathEntry[] rawClasspath;
+        private IPath outputLocation;
+        private Map<IContainer, IContainer> sourceToOut;
+
+        /** output folder -> (full path of copied script -> entry) */
+        private final Map<IContainer, Map<IPath, ManifestEntry>> manifests = new HashMap<IContainer, Map<IPath, ManifestEntry>>();
+
+        synchronized ScriptFolderSelector getSelector(IProject project) {
+            String key = computeSelectorKey(project);
+            if (selector == null || !key.equals(selectorKey)) {
+                selector = new ScriptFolderSelector(project);
+                selectorKey = key;
+            }
+            return selector;
+        }
+
+        synchronized Map<IContainer, IContainer> getSourceToOut(IJavaProject project) throws JavaModelException {
+            IClasspathEntry[] cp = project.getRawClasspath();
+            IPath out = project.getOutputLocation();
+            if (sourceToOut == null || !Arrays.equals(cp, rawClasspath) || !out.equals(outputLocation)) {
+                sourceToOut = generateSourceToOut(project);
+                rawClasspath = cp;
+                outputLocation = out;
+                // output folders may have moved; previously copied scripts can no longer be trusted
+                manifests.clear();
+            }
+            return sourceToOut;
+        }
+
+        synchronized ManifestEntry getManifestEntry(IContainer outputFolder, IPath copiedScript) {
+            Map<IPath, ManifestEntry> manifest = manifests.get(outputFolder);
+            return manifest != null ? manifest.get(copiedScript) : null;
+        }
+
+        synchronized void putManifestEntry(IContainer outputFolder, IPath copiedScript, ManifestEntry entry) {
+            Map<IPath, ManifestEntry> manifest = manifests.get(outputFolder);
+            if (manifest == null) {
+                manifest = new HashMap<IPath, ManifestEntry>();
+                manifests.put(outputFolder, manifest);
+            }
+            manifest.put(copiedScript, entry);
+        }
+
+        synchronized void clearManifests() {
+            manifests.clear();
+        }
+
+        private static String computeSelectorKey(IProject project) {
+            Activator activator = Activator.getDefault();
+            if (activator == null) {
+                return "";
+            }
+            IEclipsePreferences preferences = activator.getProjectOrWorkspacePreferences(project);
+            return preferences.absolutePath() + '|' + preferences.getBoolean(Activator.GROOVY_SCRIPT_FILTERS_ENABLED, false) + '|' +
+                preferences.get(Activator.GROOVY_SCRIPT_FILTERS, Activator.DEFAULT_GROOVY_SCRIPT_FILTER);
+        }
+    }
+
+    static class ManifestEntry {
+        final long modificationStamp;
+        final byte[] contentHash;
+
+        ManifestEntry(long modificationStamp, byte[] contentHash) {
+            this.modificationStamp = modificationStamp;
+            this.contentHash = contentHash;
+        }
+    }
+
+    /**
+     * A script that needs to be copied into an output folder.
+     */
+    private static class ScriptCopy {
+        final IFile source;
+        final IPath packagePath;
+        final IContainer outputFolder;
+        final ManifestEntry entry;
+
+        ScriptCopy(IFile source, IPath packagePath, IContainer outputFolder, ManifestEntry entry) {
+            this.source = source;
+            this.packagePath = packagePath;
+            this.outputFolder = outputFolder;
+            this.entry = entry;
+        }
+    }
+
+    private static final Map<IProject, ProjectState> projectStates = Collections.synchronizedMap(new HashMap<IProject, ProjectState>());
+
+    private static IResourceChangeListener projectListener;
+
+    private static ProjectState getProjectState(IProject project) {
+        synchronized (projectStates) {
+            ensureListening();
+            ProjectState state = projectStates.get(project);
+            if (state == null) {
+                state = new ProjectState();
+                projectStates.put(project, state);
+            }
+            return state;
+        }
+    }
+
+    /**
+     * Forgets the state of projects as they are closed or deleted.
+     */
+    private static void ensureListening() {
+        if (projectListener == null) {
+            projectListener = new IResourceChangeListener() {
+                public void resourceChanged(IResourceChangeEvent event) {
+                    if (event.getResource() instanceof IProject) {
+                        projectStates.remove(event.getResource());
+                    }
+                }
+            };
+            try {
+                ResourcesPlugin.getWorkspace().addResourceChangeListener(projectListener,
+                    IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE);
+            } catch (IllegalStateException e) {
+                // workspace is closed
+                projectListener = null;
+            }
+        }
+    }
+
     private IJavaProject project;
 
     /**
@@ -113,8 +262,15 @@ public class ScriptFolderCompilationParticipant extends CompilationParticipant {
                 return;
             }
 
-            ScriptFolderSelector selector = new ScriptFolderSelector(iproject);
-            Map<IContainer, IContainer> sourceToOut = generateSourceToOut(project);
+            ProjectState state = getProjectState(iproject);
+            ScriptFolderSelector selector = state.getSelector(iproject);
+            Map<IContainer, IContainer> sourceToOut = state.getSourceToOut(project);
+            if (isBatch) {
+                // output folders are scrubbed by a full build
+                state.clearManifests();
+            }
+
+            final List<ScriptCopy> copies = new ArrayList<ScriptCopy>();
             for (BuildContext compiledFile : compiledFiles) {
                 IFile file = compiledFile.getFile();
                 if (selector.getFileKind(file) == FileKind.SCRIPT) {
@@ -125,15 +281,83 @@ public class ScriptFolderCompilationParticipant extends CompilationParticipant {
                     if (containingSourceFolder != null) {
                         IPath packagePath = findPackagePath(filePath, containingSourceFolder);
                         IContainer out = sourceToOut.get(containingSourceFolder);
-                        copyFile(file, packagePath, out);
+                        ManifestEntry entry = checkManifest(state, file, packagePath, out);
+                        if (entry != null) {
+                            copies.add(new ScriptCopy(file, packagePath, out, entry));
+                        }
                     }
                 }
             }
+
+            if (!copies.isEmpty()) {
+                final ProjectState finalState = state;
+                ResourcesPlugin.getWorkspace().run(new IWorkspaceRunnable() {
+                    public void run(IProgressMonitor monitor) throws CoreException {
+                        for (ScriptCopy copy : copies) {
+                            IFile toFile = copyFile(copy.source, copy.packagePath, copy.outputFolder);
+                            finalState.putManifestEntry(copy.outputFolder, toFile.getFullPath(), copy.entry);
+                        }
+                    }
+                }, null, IWorkspace.AVOID_UPDATE, null);
+            }
         } catch (CoreException e) {
             Util.log(e, "Error when copying scripts to output folder");
         }
     }
 
+    /**
+     * Determines if the script needs to be copied into the output folder.
+     *
+     * @return the manifest entry to record once the script is copied, or null if the copy in the output folder is up to date
+     */
+    private ManifestEntry checkManifest(ProjectState state, IFile file, IPath packagePath, IContainer out) {
+        IFile toFile = out.getFile(packagePath.append(file.getName()));
+        ManifestEntry previous = state.getManifestEntry(out, toFile.getFullPath());
+        long stamp = file.getModificationStamp();
+        if (previous != null && previous.modificationStamp == stamp && toFile.exists()) {
+            return null;
+        }
+        byte[] hash = computeContentHash(file);
+        if (previous != null && hash != null && Arrays.equals(hash, previous.contentHash) && toFile.exists()) {
+            // touched but not changed; remember the new stamp so the file is not hashed again next time
+            state.putManifestEntry(out, toFile.getFullPath(), new ManifestEntry(stamp, hash));
+            return null;
+        }
+        return new ManifestEntry(stamp, hash);
+    }
+
+    /**
+     * @return MD5 hash of the file's contents, or null if it could not be computed
+     */
+    private static byte[] computeContentHash(IFile file) {
+        InputStream in = null;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            in = file.getContents(true);
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            Util.log(e, "Error computing script hash");
+        } catch (CoreException e) {
+            Util.log(e, "Error computing script hash");
+        } catch (IOException e) {
+            Util.log(e, "Error computing script hash");
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Some simple checks that we can do to ensure that the builder is set up properly
      *
@@ -181,6 +405,11 @@ public class ScriptFolderCompilationParticipant extends CompilationParticipant {
         return new CategorizedProblem[] { problem };
     }
 
+    @Override
+    public void cleanStarting(IJavaProject project) {
+        projectStates.remove(project.getProject());
+    }
+
     @Override
     public void buildFinished(IJavaProject project) {
         // try {
@@ -234,7 +463,7 @@ public class ScriptFolderCompilationParticipant extends CompilationParticipant {
         return null;
     }
 
-    private void copyFile(IFile file, IPath packagePath, IContainer outputFolder) throws CoreException {
+    private IFile copyFile(IFile file, IPath packagePath, IContainer outputFolder) throws CoreException {
         IContainer createdFolder = createFolder(packagePath, outputFolder, true);
         IFile toFile = createdFolder.getFile(new Path(file.getName()));
         if (toFile.exists()) {
@@ -247,6 +476,7 @@ public class ScriptFolderCompilationParticipant extends CompilationParticipant {
         toFile.setResourceAttributes(newAttrs);
         toFile.setDerived(true, null);
         toFile.refreshLocal(IResource.DEPTH_ZERO, null);
+        return toFile;
     }
 
     /**
@@ -270,7 +500,7 @@ public class ScriptFolderCompilationParticipant extends CompilationParticipant {
         return folder;
     }
 
-    private Map<IContainer, IContainer> generateSourceToOut(IJavaProject project) throws JavaModelException {
+    private static Map<IContainer, IContainer> generateSourceToOut(IJavaProject project) throws JavaModelException {
         IProject p = project.getProject();
         IWorkspaceRoot root = (IWorkspaceRoot) p.getParent();
         IClasspathEntry[] cp = project.getRawClasspath();
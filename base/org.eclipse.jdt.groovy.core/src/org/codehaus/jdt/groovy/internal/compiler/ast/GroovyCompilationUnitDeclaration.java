@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -60,6 +61,7 @@ import org.codehaus.groovy.control.ErrorCollector;
 import org.codehaus.groovy.control.Janitor;
 import org.codehaus.groovy.control.MultipleCompilationErrorsException;
 import org.codehaus.groovy.control.Phases;
+import org.codehaus.groovy.control.ProcessingUnit;
 import org.codehaus.groovy.control.SourceUnit;
 import org.codehaus.groovy.control.io.ReaderSource;
 import org.codehaus.groovy.control.messages.ExceptionMessage;
@@ -67,6 +69,8 @@ import org.codehaus.groovy.control.messages.LocatedMessage;
 import org.codehaus.groovy.control.messages.Message;
 import org.codehaus.groovy.control.messages.SimpleMessage;
 import org.codehaus.groovy.control.messages.SyntaxErrorMessage;
+import org.codehaus.groovy.eclipse.GroovyLogManager;
+import org.codehaus.groovy.eclipse.TraceCategory;
 import org.codehaus.groovy.syntax.CSTNode;
 import org.codehaus.groovy.syntax.PreciseSyntaxException;
 import org.codehaus.groovy.syntax.RuntimeParserException;
@@ -192,6 +196,14 @@ public class GroovyCompilationUnitDeclaration extends CompilationUnitDeclaration
      * @return true if clean processing, false otherwise
      */
     public boolean processToPhase(int phase) {
+        // the groovy compilation unit is shared by every groovy file of the build; when the compiler runs with worker threads
+        // (see ProcessTaskManager) it must still only be driven by one thread at a time
+        synchronized (groovyCompilationUnit) {
+            return internalProcessToPhase(phase);
+        }
+    }
+
+    private boolean internalProcessToPhase(int phase) {
         // GRECLIPSE-1776 start
         // Try to discard cached class loaders for traits
         if (phase == Phases.CANONICALIZATION) {
@@ -209,11 +221,19 @@ public class GroovyCompilationUnitDeclaration extends CompilationUnitDeclaration
         // Our replacement error collector doesn't cause an exception, instead they are checked for post 'compile'
         try {
             ClassLoader cl = Thread.currentThread().getContextClassLoader();
+            PhaseTimer timer = null;
+            if (groovyCompilationUnit.isReconcile && GroovyLogManager.manager.hasLoggers()) {
+                timer = new PhaseTimer(groovySourceUnit.getName());
+                groovyCompilationUnit.setProgressCallback(timer);
+            }
             try {
                 Thread.currentThread().setContextClassLoader(groovyCompilationUnit.getTransformLoader());
                 groovyCompilationUnit.compile(phase);
             } finally {
                 Thread.currentThread().setContextClassLoader(cl);
+                if (timer != null) {
+                    groovyCompilationUnit.setProgressCallback(null);
+                }
             }
             if (groovySourceUnit.getErrorCollector().hasErrors()) {
                 recordProblems(groovySourceUnit.getErrorCollector().getErrors());
@@ -271,6 +291,31 @@ public class GroovyCompilationUnitDeclaration extends CompilationUnitDeclaration
         return false;
     }
 
+    /**
+     * Reports the time spent in each phase of a reconcile to the trace, so it can be seen which phase (and, combined with the
+     * per-transform trace entries, which transform) dominates reconcile latency.
+     */
+    private static class PhaseTimer extends CompilationUnit.ProgressCallback {
+        private final String name;
+        private long start = System.nanoTime();
+
+        PhaseTimer(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void call(ProcessingUnit context, int phase) {
+            if (context instanceof SourceUnit) {
+                // the conversion of each source unit reports too; the phase is logged once it is complete
+                return;
+            }
+            long now = System.nanoTime();
+            GroovyLogManager.manager.log(TraceCategory.COMPILER,
+                    "Reconcile phase " + Phases.getDescription(phase) + " for " + name + " = " + ((now - start) / 1000000) + "ms");
+            start = now;
+        }
+    }
+
     private void fixGroovyRuntimeException(MultipleCompilationErrorsException problems) {
         List<?> errors = problems.getErrorCollector().getErrors();
         List<ExceptionMessage> toBeFixed = new ArrayList<ExceptionMessage>();
@@ -347,8 +392,8 @@ public class GroovyCompilationUnitDeclaration extends CompilationUnitDeclaration
             // we have to do very little hunting for the binding and don't have to mess around with strings (chopping off
             // packages, etc).
 
-            // This returns all of them, for all source files
-            List<GroovyClass> classes = groovyCompilationUnit.getClasses();
+            // Only those that came from this source file
+            List<GroovyClass> classes = getGeneratedClasses();
 
             if (DEBUG) {
                 log("Processing sourceUnit " + groovySourceUnit.getName());
@@ -424,6 +469,51 @@ public class GroovyCompilationUnitDeclaration extends CompilationUnitDeclaration
         }
     }
 
+    /**
+     * Returns the classes generated from this unit's source. Class generation happens for all groovy files at once, so the
+     * classes are grouped by source unit once and recorded on every source unit of the shared compilation unit; without this
+     * each file would have to look through every class of the build to find its own.
+     */
+    private List<GroovyClass> getGeneratedClasses() {
+        synchronized (groovyCompilationUnit) {
+            List<GroovyClass> classes = groovyCompilationUnit.getClasses();
+            if (!(groovySourceUnit instanceof EclipseSourceUnit)) {
+                List<GroovyClass> mine = new ArrayList<GroovyClass>();
+                for (GroovyClass clazz : classes) {
+                    if (clazz.getSourceUnit() == groovySourceUnit) {
+                        mine.add(clazz);
+                    }
+                }
+                return mine;
+            }
+            int stamp = classes.size();
+            List<GroovyClass> mine = ((EclipseSourceUnit) groovySourceUnit).getGeneratedClasses(stamp);
+            if (mine == null) {
+                Map<SourceUnit, List<GroovyClass>> bySource = new IdentityHashMap<SourceUnit, List<GroovyClass>>();
+                for (GroovyClass clazz : classes) {
+                    List<GroovyClass> list = bySource.get(clazz.getSourceUnit());
+                    if (list == null) {
+                        list = new ArrayList<GroovyClass>();
+                        bySource.put(clazz.getSourceUnit(), list);
+                    }
+                    list.add(clazz);
+                }
+                for (Iterator<SourceUnit> it = groovyCompilationUnit.iterator(); it.hasNext();) {
+                    SourceUnit unit = it.next();
+                    if (unit instanceof EclipseSourceUnit) {
+                        List<GroovyClass> list = bySource.get(unit);
+                        ((EclipseSourceUnit) unit).setGeneratedClasses(list != null ? list : Collections.<GroovyClass> emptyList(), stamp);
+                    }
+                }
+                mine = bySource.get(groovySourceUnit);
+                if (mine == null) {
+                    mine = Collections.<GroovyClass> emptyList();
+                }
+            }
+            return mine;
+        }
+    }
+
     private static void log(String message) {
         System.out.println(message);
     }
@@ -720,7 +810,14 @@ public class GroovyCompilationUnitDeclaration extends CompilationUnitDeclaration
     public void cleanUp() {
         super.cleanUp();
         if (groovySourceUnit instanceof EclipseSourceUnit) {
-            ((EclipseSourceUnit) groovySourceUnit).resolver.cleanUp();
+            EclipseSourceUnit eclipseSourceUnit = (EclipseSourceUnit) groovySourceUnit;
+            synchronized (groovyCompilationUnit) {
+                eclipseSourceUnit.setGeneratedClasses(null, -1);
+                // source units that were only converted (see GroovyParser#hierarchyParse) have no resolver
+                if (eclipseSourceUnit.resolver != null) {
+                    eclipseSourceUnit.resolver.cleanUp();
+                }
+            }
         }
     }
 
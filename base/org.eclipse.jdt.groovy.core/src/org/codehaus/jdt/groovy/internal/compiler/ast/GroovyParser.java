@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,21 +16,32 @@
 package org.codehaus.jdt.groovy.internal.compiler.ast;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.jar.JarFile;
 
 import groovy.lang.GroovyClassLoader;
 
 import org.apache.xbean.classloader.NonLockingJarFileClassLoader;
+import org.codehaus.groovy.GroovyBugError;
 import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.CompileUnit;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.control.CompilationFailedException;
 import org.codehaus.groovy.control.CompilationUnit;
 import org.codehaus.groovy.control.CompilationUnit.PrimaryClassNodeOperation;
 import org.codehaus.groovy.control.CompilationUnit.ProgressListener;
@@ -43,12 +54,16 @@ import org.codehaus.groovy.eclipse.GroovyLogManager;
 import org.codehaus.groovy.eclipse.TraceCategory;
 import org.codehaus.jdt.groovy.control.EclipseSourceUnit;
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.core.util.CompilerUtils;
 import org.eclipse.jdt.groovy.core.util.GroovyUtils;
+import org.eclipse.jdt.groovy.core.util.ReconcileProfile;
 import org.eclipse.jdt.groovy.core.util.ScriptFolderSelector;
 import org.eclipse.jdt.internal.compiler.CompilationResult;
 import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
@@ -62,6 +77,7 @@ import org.eclipse.jdt.internal.compiler.lookup.LookupEnvironment;
 import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
 import org.eclipse.jdt.internal.core.builder.BatchImageBuilder;
 import org.eclipse.jdt.internal.core.builder.BuildNotifier;
+import org.eclipse.jdt.internal.core.util.Util;
 
 /**
  * The mapping layer between the groovy parser and the JDT. This class communicates with the groovy parser and translates results
@@ -95,13 +111,89 @@ public class GroovyParser {
     private static Map<String, PathLoaderPair> projectToLoaderCache = new ConcurrentHashMap<String, PathLoaderPair>();
     private static Map<String, ScriptFolderSelector> scriptFolderSelectorCache = new ConcurrentHashMap<String, ScriptFolderSelector>();
 
+    /**
+     * Number of threads that {@link #parseAhead} uses; set with <code>-Dgreclipse.hierarchy.parseThreads=N</code>.
+     */
+    private static final int PARSE_AHEAD_THREADS = Integer.getInteger("greclipse.hierarchy.parseThreads",
+            Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * Daemon threads for {@link #parseAhead}, shared by all parsers and created on first use.
+     */
+    private static ExecutorService parseAheadExecutor;
+
+    private static synchronized ExecutorService getParseAheadExecutor() {
+        if (parseAheadExecutor == null) {
+            parseAheadExecutor = Executors.newFixedThreadPool(PARSE_AHEAD_THREADS, new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "Groovy supertype parser");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return parseAheadExecutor;
+    }
+
+    /*
+     * The cached loader also serves as the template for the project's compilation units: the parts of their setup that depend
+     * only on the transform classpath (the global transform service scan and the customizer classes) are worked out once per
+     * loader and reused by every parser, for the build and for each reconcile. Phase operations and customizer instances are
+     * bound to their compilation unit, so they are still created for each one.
+     */
     static class PathLoaderPair {
         String classpath;
         GroovyClassLoader groovyClassLoader;
 
+        /** customizer classes by the comma-separated list of their names */
+        private final Map<String, List<Class<?>>> customizerClasses = new ConcurrentHashMap<String, List<Class<?>>>();
+
         PathLoaderPair(String classpath) {
             this.classpath = classpath;
-            this.groovyClassLoader = new GroovyClassLoader(createConfigureLoader(classpath));
+            this.groovyClassLoader = new TransformLoader(createConfigureLoader(classpath));
+        }
+
+        List<Class<?>> getCustomizerClasses(String classnames) {
+            List<Class<?>> classes = customizerClasses.get(classnames);
+            if (classes == null) {
+                classes = loadCustomizerClasses(classnames, groovyClassLoader);
+                customizerClasses.put(classnames, classes);
+            }
+            return classes;
+        }
+    }
+
+    /**
+     * Loader for transforms and customizers that remembers where the global transforms are declared, so that the classpath is
+     * scanned for their service files once instead of for each compilation unit.
+     */
+    static class TransformLoader extends GroovyClassLoader {
+
+        private static final String GLOBAL_TRANSFORM_SERVICES = "META-INF/services/org.codehaus.groovy.transform.ASTTransformation";
+
+        private volatile List<URL> globalTransformServices;
+
+        TransformLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        public Enumeration<URL> getResources(String name) throws IOException {
+            if (!GLOBAL_TRANSFORM_SERVICES.equals(name)) {
+                return super.getResources(name);
+            }
+            List<URL> services = globalTransformServices;
+            if (services == null) {
+                services = Collections.list(super.getResources(name));
+                globalTransformServices = services;
+            }
+            return Collections.enumeration(services);
+        }
+
+        @Override
+        public void addURL(URL url) {
+            globalTransformServices = null;
+            super.addURL(url);
         }
     }
 
@@ -142,6 +234,7 @@ public class GroovyParser {
         // This will orphan the loader on the heap
         projectToLoaderCache.remove(projectName);
         scriptFolderSelectorCache.remove(projectName);
+        SupertypeParseCache.removeProject(projectName);
     }
 
     public static void closeClassLoader(String projectName) {
@@ -156,6 +249,7 @@ public class GroovyParser {
      */
     static void tidyCache() {
         projectToLoaderCache.clear();
+        SupertypeParseCache.clear();
     }
 
     private GroovyClassLoader gclForBatch = null;
@@ -353,7 +447,13 @@ public class GroovyParser {
      * Call the groovy parser to drive the first few phases of
      */
     public CompilationUnitDeclaration dietParse(ICompilationUnit sourceUnit, CompilationResult compilationResult) {
-        char[] sourceCode = sourceUnit.getContents();
+        return dietParse(sourceUnit.getContents(), sourceUnit, compilationResult);
+    }
+
+    /**
+     * @param sourceCode contents of the source unit, when they have already been read (eg- by the compiler's ReadManager)
+     */
+    public CompilationUnitDeclaration dietParse(char[] sourceCode, ICompilationUnit sourceUnit, CompilationResult compilationResult) {
         if (sourceCode == null) {
             sourceCode = CharOperation.NO_CHAR; // pretend empty from thereon
         }
@@ -434,6 +534,162 @@ public class GroovyParser {
         return gcuDeclaration;
     }
 
+    /**
+     * Parses a source unit for the indexer. The source is taken straight through the antlr parse and the conversion to a module
+     * node, without being added to this parser's groovy compilation unit; so no phase operations (transforms, customizers, enum
+     * handling) run and the compilation unit can be used for any number of files without accumulating their sources or modules.
+     * Only the declaration shell needed by the source element notifier is populated.
+     */
+    public CompilationUnitDeclaration indexParse(ICompilationUnit sourceUnit, CompilationResult compilationResult) {
+        char[] sourceCode = sourceUnit.getContents();
+        if (sourceCode == null) {
+            sourceCode = CharOperation.NO_CHAR; // pretend empty from thereon
+        }
+
+        String filepath = new String(sourceUnit.getFileName());
+        IFile eclipseFile = null;
+        Path path = new Path(filepath);
+        if (ResourcesPlugin.getPlugin() != null && path.segmentCount() >= 2) {
+            eclipseFile = ResourcesPlugin.getWorkspace().getRoot().getFile(path);
+            IPath location = eclipseFile.getLocation();
+            if (location != null) {
+                filepath = location.toFile().getAbsolutePath();
+            }
+        }
+
+        SourceUnit groovySourceUnit = convert(eclipseFile, filepath, sourceCode, this.resolver);
+        return declare(groovySourceUnit, sourceCode, compilationResult);
+    }
+
+    /**
+     * Parses a source unit for the type hierarchy resolver, which only connects supertypes. As for {@link #indexParse}, the
+     * source is only taken as far as conversion, outside of this parser's groovy compilation unit; if {@link #parseAhead} has
+     * done so already for the file's current contents, that source unit is used. The declaration cannot be resolved, so this
+     * is only for units that the resolver does not resolve; others go through {@link #dietParse}.
+     */
+    public CompilationUnitDeclaration hierarchyParse(IFile file, char[] contents, CompilationResult compilationResult) {
+        if (contents == null) {
+            contents = CharOperation.NO_CHAR;
+        }
+        SupertypeParseCache cache = SupertypeParseCache.forProject(projectName);
+        SourceUnit groovySourceUnit = (cache != null ? cache.get(file) : null);
+        if (groovySourceUnit == null) {
+            groovySourceUnit = convert(file, getFilePath(file), contents, null);
+        }
+        // a cached source unit may be declared by several hierarchy resolvers at once
+        synchronized (groovySourceUnit) {
+            return declare(groovySourceUnit, contents, compilationResult);
+        }
+    }
+
+    /**
+     * Takes the given files as far as conversion, on several threads, and keeps the results in the project's supertype parse
+     * cache for {@link #hierarchyParse}. Files that are cached for their current contents are skipped.
+     */
+    public void parseAhead(IFile[] files, final IProgressMonitor monitor) {
+        final SupertypeParseCache cache = SupertypeParseCache.forProject(projectName);
+        if (cache == null) {
+            return;
+        }
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        for (final IFile file : files) {
+            if (file != null && !cache.contains(file)) {
+                tasks.add(new Callable<Object>() {
+                    public Object call() {
+                        // another hierarchy request may have parsed the file in the meantime
+                        if ((monitor == null || !monitor.isCanceled()) && !cache.contains(file)) {
+                            // take the stamp first; if the file changes while it is read, the entry is simply never used
+                            long stamp = file.getModificationStamp();
+                            if (stamp != IResource.NULL_STAMP) {
+                                try {
+                                    char[] contents = Util.getResourceContentsAsCharArray(file);
+                                    cache.put(file, stamp, convert(file, getFilePath(file), contents, null));
+                                } catch (CoreException e) {
+                                    // left to the hierarchy resolver
+                                }
+                            }
+                        }
+                        return null;
+                    }
+                });
+            }
+        }
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        int threads = Math.min(PARSE_AHEAD_THREADS, tasks.size());
+        if (threads <= 1) {
+            for (Callable<Object> task : tasks) {
+                try {
+                    task.call();
+                } catch (Exception e) {
+                    Util.log(e);
+                }
+            }
+        } else {
+            try {
+                // tasks that have not started are cancelled if this thread is interrupted
+                getParseAheadExecutor().invokeAll(tasks);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (GroovyLogManager.manager.hasLoggers()) {
+            GroovyLogManager.manager.log(TraceCategory.COMPILER, "Parsed " + tasks.size() + " of " + files.length + " groovy units ahead for " +
+                projectName + " on " + threads + " threads in " + (System.currentTimeMillis() - start) + "ms");
+        }
+    }
+
+    private static String getFilePath(IFile file) {
+        IPath location = file.getLocation();
+        return (location != null ? location.toFile().getAbsolutePath() : file.getFullPath().toString());
+    }
+
+    /**
+     * Takes source code through the antlr parse and the conversion to a module node, which gets a compile unit of its own.
+     */
+    private SourceUnit convert(IFile eclipseFile, String filepath, char[] sourceCode, JDTResolver unitResolver) {
+        CompilerConfiguration configuration = compilationUnit.getConfiguration();
+        SourceUnit groovySourceUnit = new EclipseSourceUnit(eclipseFile, filepath, new String(sourceCode),
+                configuration, compilationUnit.getClassLoader(), new GroovyErrorCollectorForJDT(configuration), unitResolver);
+        groovySourceUnit.isReconcile = compilationUnit.isReconcile;
+
+        try {
+            groovySourceUnit.parse();
+            groovySourceUnit.completePhase();
+            groovySourceUnit.convert();
+        } catch (CompilationFailedException e) {
+            // unrecoverable syntax error; keep whatever could be built
+        } catch (GroovyBugError e) {
+            if (GroovyLogManager.manager.hasLoggers()) {
+                GroovyLogManager.manager.log(TraceCategory.COMPILER, "Unable to convert " + filepath + ": " + e.getBugText());
+            }
+        }
+
+        ModuleNode moduleNode = groovySourceUnit.getAST();
+        if (moduleNode != null) {
+            // a module needs a compile unit of its own to create its script class; one per file keeps the classes apart
+            new CompileUnit(compilationUnit.getClassLoader(), configuration).addModule(moduleNode);
+        }
+        return groovySourceUnit;
+    }
+
+    /**
+     * Creates a declaration shell for a converted source unit. A source unit may back any number of declarations, each of
+     * which is populated afresh, as bindings are built on the declarations and not on the module.
+     */
+    private CompilationUnitDeclaration declare(SourceUnit groovySourceUnit, char[] sourceCode, CompilationResult compilationResult) {
+        GroovyCompilationUnitDeclaration gcuDeclaration = new GroovyCompilationUnitDeclaration(problemReporter, compilationResult,
+                sourceCode.length, compilationUnit, groovySourceUnit, compilerOptions);
+        compilationResult.lineSeparatorPositions = GroovyUtils.getSourceLineSeparatorsIn(sourceCode);
+        if (groovySourceUnit.getAST() != null) {
+            gcuDeclaration.populateCompilationUnitDeclaration();
+        }
+        return gcuDeclaration;
+    }
+
     /**
      * ProgressListener is called back when parsing of a file or generation of a classfile completes. By calling back to the build
      * notifier we ignore those long pauses where it look likes it has hung!
@@ -483,6 +739,44 @@ public class GroovyParser {
         }
     }
 
+    private ReconcileProfile getReconcileProfile() {
+        // GRECLIPSE-1269 ensure get plugin is not null to ensure the workspace is open (ie- not in batch mode)
+        if (projectName == null || ResourcesPlugin.getPlugin() == null) {
+            return ReconcileProfile.DEFAULT;
+        }
+        return ReconcileProfile.forProject(ResourcesPlugin.getWorkspace().getRoot().getProject(projectName));
+    }
+
+    private static List<Class<?>> loadCustomizerClasses(String classnames, GroovyClassLoader transformLoader) {
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+        StringTokenizer tokenizer = new StringTokenizer(classnames, ",");
+        ClassLoader savedLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            Thread.currentThread().setContextClassLoader(transformLoader);
+            while (tokenizer.hasMoreTokens()) {
+                String classname = tokenizer.nextToken();
+                try {
+                    classes.add(transformLoader.loadClass(classname));
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        } finally {
+            Thread.currentThread().setContextClassLoader(savedLoader);
+        }
+        return classes;
+    }
+
+    private List<Class<?>> getCustomizerClasses(GroovyClassLoader transformLoader) {
+        if (projectName != null) {
+            PathLoaderPair pathAndLoader = projectToLoaderCache.get(projectName);
+            if (pathAndLoader != null && pathAndLoader.groovyClassLoader == transformLoader) {
+                return pathAndLoader.getCustomizerClasses(compilerOptions.groovyCustomizerClassesList);
+            }
+        }
+        return loadCustomizerClasses(compilerOptions.groovyCustomizerClassesList, transformLoader);
+    }
+
     private CompilationUnit makeCompilationUnit(GroovyClassLoader loader, GroovyClassLoader transformLoader, boolean isReconcile, boolean allowTransforms) {
 
         // FIXASC (M3) need our own tweaked subclass of CompilerConfiguration?
@@ -490,16 +784,13 @@ public class GroovyParser {
         if (compilerOptions.groovyCustomizerClassesList != null && transformLoader != null) {
             List<CompilationCustomizer> customizers = new ArrayList<CompilationCustomizer>();
             if (loader != null) {
-                StringTokenizer tokenizer = new StringTokenizer(compilerOptions.groovyCustomizerClassesList, ",");
                 ClassLoader savedLoader = Thread.currentThread().getContextClassLoader();
                 try {
                     Thread.currentThread().setContextClassLoader(transformLoader);
-                    while (tokenizer.hasMoreTokens()) {
-                        String classname = tokenizer.nextToken();
+                    // customizers may keep state, so each compilation unit gets its own
+                    for (Class<?> clazz : getCustomizerClasses(transformLoader)) {
                         try {
-                            Class<?> clazz = transformLoader.loadClass(classname);
-                            CompilationCustomizer cc = (CompilationCustomizer) clazz.newInstance();
-                            customizers.add(cc);
+                            customizers.add((CompilationCustomizer) clazz.newInstance());
                         } catch (Exception e) {
                             e.printStackTrace();
                         }
@@ -511,13 +802,20 @@ public class GroovyParser {
             }
         }
 
+        String transformsToRunOnReconcile = compilerOptions.groovyTransformsToRunOnReconcile;
+        if (isReconcile) {
+            ReconcileProfile profile = getReconcileProfile();
+            transformsToRunOnReconcile = profile.getLocalTransforms(transformsToRunOnReconcile);
+            profile.applyTo(compilerConfiguration);
+        }
+
         CompilationUnit cu = new CompilationUnit(
             compilerConfiguration,
             null, // CodeSource
             loader,
             transformLoader,
             allowTransforms,
-            compilerOptions.groovyTransformsToRunOnReconcile,
+            transformsToRunOnReconcile,
             compilerOptions.groovyExcludeGlobalASTScan);
         this.resolver = new JDTResolver(cu);
         cu.setResolveVisitor(resolver);
@@ -65,6 +65,7 @@ import org.eclipse.jdt.internal.compiler.lookup.ReferenceBinding;
 import org.eclipse.jdt.internal.compiler.lookup.SourceTypeBinding;
 import org.eclipse.jdt.internal.compiler.lookup.SyntheticMethodBinding;
 import org.eclipse.jdt.internal.compiler.lookup.TypeBinding;
+import org.eclipse.jdt.internal.compiler.lookup.TypeConstants;
 import org.eclipse.jdt.internal.compiler.lookup.TypeVariableBinding;
 
 /**
@@ -92,6 +93,11 @@ public class JDTClassNode extends ClassNode implements JDTNode {
     private int bits = 0;
     private static final int ANNOTATIONS_INITIALIZED = 0x0001;
     private static final int PROPERTIES_INITIALIZED = 0x0002;
+    private static final int METHODS_INITIALIZED = 0x0004;
+    private static final int CONSTRUCTORS_INITIALIZED = 0x0008;
+    private static final int METHODS_VERIFIED = 0x0010;
+    // names of the methods that have been converted so far (until METHODS_INITIALIZED is set)
+    private Set<String> initializedMethodNames;
     private TypeDeclaration groovyDecl = null;
 
     static final ClassNode unboundWildcard; // represents plain old '?'
@@ -245,7 +251,7 @@ public class JDTClassNode extends ClassNode implements JDTNode {
         // We do this here rather than at the start of the method because
         // the preceding code sets 'groovyDecl', later used to 'initializeProperties'.
 
-        // From this point onward... the code is only about initializing fields, constructors and methods.
+        // From this point onward... the code is only about initializing fields; methods and constructors are created on demand.
         if (redirect != null) {
             // The code in ClassNode seems set up to get field information *always* from the end of the 'redirect' chain.
             // So, the redirect target should be responsible for its own members initialisation.
@@ -256,74 +262,185 @@ public class JDTClassNode extends ClassNode implements JDTNode {
             return;
         }
 
-        MethodBinding[] bindings = null;
+        FieldBinding[] fieldBindings = null;
         if (jdtBinding instanceof ParameterizedTypeBinding) {
-            ReferenceBinding genericType = ((ParameterizedTypeBinding) jdtBinding).genericType();
-            bindings = genericType.methods();
+            fieldBindings = ((ParameterizedTypeBinding) jdtBinding).genericType().fields();
         } else {
-            bindings = jdtBinding.methods();
-        }
-        if (bindings != null) {
-            for (int i = 0; i < bindings.length; i++) {
-                if (bindings[i].isConstructor()) {
-                    ConstructorNode cNode = constructorBindingToConstructorNode(bindings[i]);
-                    addConstructor(cNode);
-                } else {
-                    MethodNode mNode = methodBindingToMethodNode(bindings[i]);
-                    addMethod(mNode);
+            fieldBindings = jdtBinding.fields();
+        }
+        if (fieldBindings != null) {
+            for (int i = 0; i < fieldBindings.length; i++) {
+                FieldNode fNode = fieldBindingToFieldNode(fieldBindings[i], groovyDecl);
+                addField(fNode);
+            }
+        }
+    }
+
+    /**
+     * Method and constructor nodes are created on demand. Asking for the methods of one name converts only the bindings of that
+     * name; asking for all of the methods converts the rest. Most callers (inferencing in particular) want one or two methods of
+     * a type like String or Specification and need not pay for the hundreds of others.
+     */
+    @Override
+    public List<MethodNode> getDeclaredMethods(String name) {
+        if (redirect == null) {
+            ensureMethodsInitialized(name);
+        }
+        return super.getDeclaredMethods(name);
+    }
+
+    @Override
+    public List<MethodNode> getMethods() {
+        if (redirect == null) {
+            ensureMethodsInitialized();
+        }
+        return super.getMethods();
+    }
+
+    @Override
+    public List<ConstructorNode> getDeclaredConstructors() {
+        if (redirect == null) {
+            ensureConstructorsInitialized();
+        }
+        return super.getDeclaredConstructors();
+    }
+
+    private void ensureMethodsInitialized(String name) {
+        synchronized (lazyInitLock) {
+            if ((bits & METHODS_INITIALIZED) != 0) {
+                return;
+            }
+            if (initializedMethodNames == null) {
+                initializedMethodNames = new HashSet<String>();
+            } else if (initializedMethodNames.contains(name)) {
+                return;
+            }
+            lazyClassInit();
+            initializedMethodNames.add(name);
+
+            char[] selector = name.toCharArray();
+            MethodBinding[] bindings = getMethodBindingType().getMethods(selector);
+            if (bindings != null) {
+                for (MethodBinding binding : bindings) {
+                    if (!binding.isConstructor()) {
+                        addMethod(methodBindingToMethodNode(binding));
+                    }
+                }
+            }
+            if (jdtBinding instanceof BinaryTypeBinding) {
+                for (MethodBinding binding : ((BinaryTypeBinding) jdtBinding).infraMethods()) {
+                    if (!binding.isConstructor() && CharOperation.equals(selector, binding.selector)) {
+                        addMethod(methodBindingToMethodNode(binding));
+                    }
+                }
+            }
+            if (jdtBinding instanceof SourceTypeBinding) {
+                for (SyntheticMethodBinding binding : getSyntheticMethods()) {
+                    if (!binding.isConstructor() && CharOperation.equals(selector, binding.selector)) {
+                        addMethod(methodBindingToMethodNode(binding));
+                    }
                 }
             }
         }
-        if (jdtBinding instanceof BinaryTypeBinding) {
-            MethodBinding[] infraBindings = ((BinaryTypeBinding) jdtBinding).infraMethods();
-            for (int i = 0; i < infraBindings.length; i++) {
-                if (infraBindings[i].isConstructor()) {
-                    ConstructorNode cNode = constructorBindingToConstructorNode(infraBindings[i]);
-                    addConstructor(cNode);
-                } else {
-                    MethodNode mNode = methodBindingToMethodNode(infraBindings[i]);
-                    addMethod(mNode);
+    }
+
+    private void ensureMethodsInitialized() {
+        synchronized (lazyInitLock) {
+            if ((bits & METHODS_INITIALIZED) != 0) {
+                return;
+            }
+            lazyClassInit();
+            Set<String> done = initializedMethodNames;
+
+            MethodBinding[] bindings = getMethodBindingType().methods();
+            if (bindings != null) {
+                for (MethodBinding binding : bindings) {
+                    if (!binding.isConstructor() && !isInitialized(done, binding)) {
+                        addMethod(methodBindingToMethodNode(binding));
+                    }
+                }
+            }
+            if (jdtBinding instanceof BinaryTypeBinding) {
+                for (MethodBinding binding : ((BinaryTypeBinding) jdtBinding).infraMethods()) {
+                    if (!binding.isConstructor() && !isInitialized(done, binding)) {
+                        addMethod(methodBindingToMethodNode(binding));
+                    }
                 }
             }
+            // Synthetic bindings are created for features like covariance, where the method implementing an interface method uses a
+            // different return type (interface I { A foo(); } class C implements I { AA foo(); } - this needs a method 'A foo()' in C.
+            if (jdtBinding instanceof SourceTypeBinding) {
+                for (SyntheticMethodBinding binding : getSyntheticMethods()) {
+                    if (!binding.isConstructor() && !isInitialized(done, binding)) {
+                        addMethod(methodBindingToMethodNode(binding));
+                    }
+                }
+            }
+            initializedMethodNames = null;
+            bits |= METHODS_INITIALIZED;
         }
-        // Synthetic bindings are created for features like covariance, where the method implementing an interface method uses a
-        // different return type (interface I { A foo(); } class C implements I { AA foo(); } - this needs a method 'A foo()' in C.
-        if (jdtBinding instanceof SourceTypeBinding) {
-            SourceTypeBinding jdtSourceTypeBinding = (SourceTypeBinding) jdtBinding;
-            ClassScope classScope = jdtSourceTypeBinding.scope;
-            // a null scope indicates it has already been 'cleaned up' so nothing to do (CUDeclaration.cleanUp())
-            if (classScope != null) {
-                CompilationUnitScope cuScope = classScope.compilationUnitScope();
-                LookupEnvironment environment = classScope.environment();
-                MethodVerifier verifier = environment.methodVerifier();
-                cuScope.verifyMethods(verifier);
+    }
+
+    private void ensureConstructorsInitialized() {
+        synchronized (lazyInitLock) {
+            if ((bits & CONSTRUCTORS_INITIALIZED) != 0) {
+                return;
+            }
+            lazyClassInit();
+            bits |= CONSTRUCTORS_INITIALIZED;
+
+            MethodBinding[] bindings = getMethodBindingType().getMethods(TypeConstants.INIT);
+            if (bindings != null) {
+                for (MethodBinding binding : bindings) {
+                    addConstructor(constructorBindingToConstructorNode(binding));
+                }
+            }
+            if (jdtBinding instanceof BinaryTypeBinding) {
+                for (MethodBinding binding : ((BinaryTypeBinding) jdtBinding).infraMethods()) {
+                    if (binding.isConstructor()) {
+                        addConstructor(constructorBindingToConstructorNode(binding));
+                    }
+                }
             }
-            SyntheticMethodBinding[] syntheticMethodBindings = ((SourceTypeBinding) jdtBinding).syntheticMethods();
-            if (syntheticMethodBindings != null) {
-                for (int i = 0; i < syntheticMethodBindings.length; i++) {
-                    if (syntheticMethodBindings[i].isConstructor()) {
-                        ConstructorNode cNode = constructorBindingToConstructorNode(bindings[i]);
-                        addConstructor(cNode);
-                    } else {
-                        MethodNode mNode = methodBindingToMethodNode(syntheticMethodBindings[i]);
-                        addMethod(mNode);
+            if (jdtBinding instanceof SourceTypeBinding) {
+                for (SyntheticMethodBinding binding : getSyntheticMethods()) {
+                    if (binding.isConstructor()) {
+                        addConstructor(constructorBindingToConstructorNode(binding));
                     }
                 }
             }
         }
+    }
 
-        FieldBinding[] fieldBindings = null;
+    private static boolean isInitialized(Set<String> names, MethodBinding binding) {
+        return names != null && names.contains(String.valueOf(binding.selector));
+    }
+
+    private ReferenceBinding getMethodBindingType() {
         if (jdtBinding instanceof ParameterizedTypeBinding) {
-            fieldBindings = ((ParameterizedTypeBinding) jdtBinding).genericType().fields();
-        } else {
-            fieldBindings = jdtBinding.fields();
+            return ((ParameterizedTypeBinding) jdtBinding).genericType();
         }
-        if (fieldBindings != null) {
-            for (int i = 0; i < fieldBindings.length; i++) {
-                FieldNode fNode = fieldBindingToFieldNode(fieldBindings[i], groovyDecl);
-                addField(fNode);
+        return jdtBinding;
+    }
+
+    /**
+     * Verifies the methods of a source type (once) so that its synthetic bindings are available.
+     */
+    private SyntheticMethodBinding[] getSyntheticMethods() {
+        SourceTypeBinding sourceType = (SourceTypeBinding) jdtBinding;
+        if ((bits & METHODS_VERIFIED) == 0) {
+            bits |= METHODS_VERIFIED;
+            ClassScope classScope = sourceType.scope;
+            // a null scope indicates it has already been 'cleaned up' so nothing to do (CUDeclaration.cleanUp())
+            if (classScope != null) {
+                CompilationUnitScope cuScope = classScope.compilationUnitScope();
+                LookupEnvironment environment = classScope.environment();
+                MethodVerifier verifier = environment.methodVerifier();
+                cuScope.verifyMethods(verifier);
             }
         }
+        SyntheticMethodBinding[] syntheticMethodBindings = sourceType.syntheticMethods();
+        return syntheticMethodBindings != null ? syntheticMethodBindings : new SyntheticMethodBinding[0];
     }
 
     @Override
@@ -519,17 +636,19 @@ public class JDTClassNode extends ClassNode implements JDTNode {
         return super.getAnnotations(type);
     }
 
-    private synchronized void ensureAnnotationsInitialized() {
-        if ((bits & ANNOTATIONS_INITIALIZED) == 0) {
-            if ((jdtBinding instanceof SourceTypeBinding)) {
-                // ensure resolved
-                ((SourceTypeBinding) jdtBinding).getAnnotationTagBits();
-            }
-            AnnotationBinding[] annotationBindings = jdtBinding.getAnnotations();
-            for (AnnotationBinding annotationBinding : annotationBindings) {
-                addAnnotation(new JDTAnnotationNode(annotationBinding, this.resolver));
+    private void ensureAnnotationsInitialized() {
+        synchronized (lazyInitLock) {
+            if ((bits & ANNOTATIONS_INITIALIZED) == 0) {
+                if ((jdtBinding instanceof SourceTypeBinding)) {
+                    // ensure resolved
+                    ((SourceTypeBinding) jdtBinding).getAnnotationTagBits();
+                }
+                AnnotationBinding[] annotationBindings = jdtBinding.getAnnotations();
+                for (AnnotationBinding annotationBinding : annotationBindings) {
+                    addAnnotation(new JDTAnnotationNode(annotationBinding, this.resolver));
+                }
+                bits |= ANNOTATIONS_INITIALIZED;
             }
-            bits |= ANNOTATIONS_INITIALIZED;
         }
     }
 
@@ -539,32 +658,34 @@ public class JDTClassNode extends ClassNode implements JDTNode {
         }
     }
 
-    protected synchronized void initializeProperties() {
-        if ((bits & PROPERTIES_INITIALIZED) == 0) {
-            lazyClassInit();
-            // getX methods
-            // make it behave like groovy - no property nodes unless it is groovy source
-            if (groovyDecl != null) {
-                Set<String> existing = new HashSet<String>();
-                for (MethodNode methodNode : getMethods()) {
-                    if (isGetter(methodNode)) {
-                        // STS-2628 be careful not to double-add properties if there is a getter and an isser variant
-                        String propertyName = convertToPropertyName(methodNode.getName());
-                        if (!existing.contains(propertyName)) {
-                            existing.add(propertyName);
-                            // Adding a real field for these accessors can trip up CompileStatic which
-                            // will attempt to access it as a real field
-                            super.addPropertyWithoutField(createPropertyNodeForMethodNode(methodNode, propertyName));
-                            // super.addProperty(createPropertyNodeForMethodNode(methodNode, propertyName));
+    protected void initializeProperties() {
+        synchronized (lazyInitLock) {
+            if ((bits & PROPERTIES_INITIALIZED) == 0) {
+                lazyClassInit();
+                // getX methods
+                // make it behave like groovy - no property nodes unless it is groovy source
+                if (groovyDecl != null) {
+                    Set<String> existing = new HashSet<String>();
+                    for (MethodNode methodNode : getMethods()) {
+                        if (isGetter(methodNode)) {
+                            // STS-2628 be careful not to double-add properties if there is a getter and an isser variant
+                            String propertyName = convertToPropertyName(methodNode.getName());
+                            if (!existing.contains(propertyName)) {
+                                existing.add(propertyName);
+                                // Adding a real field for these accessors can trip up CompileStatic which
+                                // will attempt to access it as a real field
+                                super.addPropertyWithoutField(createPropertyNodeForMethodNode(methodNode, propertyName));
+                                // super.addProperty(createPropertyNodeForMethodNode(methodNode, propertyName));
+                            }
                         }
                     }
+                    // fields - FIXASC nyi for fields
+                    // for (FieldNode fieldNode : getFields()) {
+                    // super.addProperty(createPropertyNodeFromFieldNode(fieldNode));
+                    // }
                 }
-                // fields - FIXASC nyi for fields
-                // for (FieldNode fieldNode : getFields()) {
-                // super.addProperty(createPropertyNodeFromFieldNode(fieldNode));
-                // }
+                bits |= PROPERTIES_INITIALIZED;
             }
-            bits |= PROPERTIES_INITIALIZED;
         }
     }
 
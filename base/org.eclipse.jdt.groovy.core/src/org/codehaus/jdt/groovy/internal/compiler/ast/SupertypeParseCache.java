@@ -0,0 +1,162 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.jdt.groovy.internal.compiler.ast;
+
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.codehaus.groovy.control.SourceUnit;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+/**
+ * Keeps the source units that {@link GroovyParser#parseAhead} took as far as
+ * conversion for the type hierarchy resolver, one cache per project.
+ * <p>
+ * An entry is only returned while the modification stamp of its file is the one
+ * the file had before it was read, so an edited file is simply parsed again.
+ * Entries are softly held and the least recently used are dropped beyond a fixed
+ * number per project; a project's cache goes away with its class loader (see
+ * {@link GroovyParser#tidyCache(String)}), since the modules refer to it, and
+ * when the project is closed, deleted or built in full or cleaned.
+ * <p>
+ * The number of entries per project is set by
+ * <code>-Dgreclipse.hierarchy.parseCache=N</code>; 0 turns the cache off.
+ */
+final class SupertypeParseCache {
+
+    private static final int ENTRIES = Integer.getInteger("greclipse.hierarchy.parseCache", 1000);
+
+    private static final Map<String, SupertypeParseCache> projectCaches = new ConcurrentHashMap<String, SupertypeParseCache>();
+
+    private static IResourceChangeListener projectListener;
+
+    /**
+     * @return the cache of the given project, or null if caching is turned off or there is no project
+     */
+    static SupertypeParseCache forProject(String projectName) {
+        if (ENTRIES <= 0 || projectName == null) {
+            return null;
+        }
+        SupertypeParseCache cache = projectCaches.get(projectName);
+        if (cache == null) {
+            synchronized (projectCaches) {
+                ensureListening();
+                cache = projectCaches.get(projectName);
+                if (cache == null) {
+                    cache = new SupertypeParseCache();
+                    projectCaches.put(projectName, cache);
+                }
+            }
+        }
+        return cache;
+    }
+
+    static void removeProject(String projectName) {
+        projectCaches.remove(projectName);
+    }
+
+    static void clear() {
+        projectCaches.clear();
+    }
+
+    /**
+     * Drops the caches of projects as they are closed, deleted, cleaned or fully built.
+     */
+    private static void ensureListening() {
+        if (projectListener == null) {
+            projectListener = new IResourceChangeListener() {
+                public void resourceChanged(IResourceChangeEvent event) {
+                    if (event.getType() == IResourceChangeEvent.PRE_BUILD) {
+                        int kind = event.getBuildKind();
+                        if (kind == IncrementalProjectBuilder.FULL_BUILD || kind == IncrementalProjectBuilder.CLEAN_BUILD) {
+                            if (event.getSource() instanceof IProject) {
+                                removeProject(((IProject) event.getSource()).getName());
+                            } else {
+                                clear();
+                            }
+                        }
+                    } else if (event.getResource() instanceof IProject) {
+                        removeProject(event.getResource().getName());
+                    }
+                }
+            };
+            try {
+                ResourcesPlugin.getWorkspace().addResourceChangeListener(projectListener,
+                    IResourceChangeEvent.PRE_BUILD | IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE);
+            } catch (IllegalStateException e) {
+                // workspace is closed
+                projectListener = null;
+            }
+        }
+    }
+
+    private static final class Entry {
+        final long stamp;
+        final SoftReference<SourceUnit> unit;
+
+        Entry(long stamp, SourceUnit unit) {
+            this.stamp = stamp;
+            this.unit = new SoftReference<SourceUnit>(unit);
+        }
+    }
+
+    /** in order of access, least recently used first */
+    private final LinkedHashMap<IFile, Entry> entries = new LinkedHashMap<IFile, Entry>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<IFile, Entry> eldest) {
+            return size() > ENTRIES;
+        }
+    };
+
+    /**
+     * @return the converted source unit of the given file, or null if there is none for its current contents
+     */
+    synchronized SourceUnit get(IFile file) {
+        Entry entry = entries.get(file);
+        if (entry == null) {
+            return null;
+        }
+        SourceUnit unit = entry.unit.get();
+        if (unit == null || entry.stamp != file.getModificationStamp()) {
+            entries.remove(file);
+            return null;
+        }
+        return unit;
+    }
+
+    /**
+     * @return true if there is a source unit for the current contents of the given file
+     */
+    boolean contains(IFile file) {
+        return get(file) != null;
+    }
+
+    /**
+     * @param stamp the modification stamp of the file from before its contents were read
+     */
+    synchronized void put(IFile file, long stamp, SourceUnit unit) {
+        entries.put(file, new Entry(stamp, unit));
+    }
+}
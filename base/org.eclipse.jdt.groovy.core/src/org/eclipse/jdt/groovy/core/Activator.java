@@ -56,6 +56,12 @@ public class Activator extends Plugin {
 
     public static final String GROOVY_COMPILER_LEVEL = "groovy.compiler.level";
 
+    // comma-separated list of local transform annotations to run while reconciling; empty means defer to the compiler option
+    public static final String GROOVY_RECONCILE_TRANSFORMS = "groovy.reconcile.transforms";
+
+    // comma-separated list of global transform classes to skip while reconciling
+    public static final String GROOVY_RECONCILE_DISABLED_GLOBAL_TRANSFORMS = "groovy.reconcile.disabled.global.transforms";
+
     public void start(BundleContext context) throws Exception {
         super.start(context);
         plugin = this;
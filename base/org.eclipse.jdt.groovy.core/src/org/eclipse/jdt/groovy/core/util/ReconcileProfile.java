@@ -0,0 +1,106 @@
+/*
+ * Copyright 2009-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.jdt.groovy.core.util;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.StringTokenizer;
+
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.jdt.groovy.core.Activator;
+
+/**
+ * Declares which AST transforms are worth running while a project's Groovy files are being reconciled. Local transforms not
+ * listed are skipped by the transform collector and disabled global transforms are never added as phase operations, so a
+ * reconcile only does the phase work that the editor needs.
+ * <p>
+ * Read from the (project or workspace) Groovy preferences; see {@link Activator#GROOVY_RECONCILE_TRANSFORMS} and
+ * {@link Activator#GROOVY_RECONCILE_DISABLED_GLOBAL_TRANSFORMS}.
+ */
+public class ReconcileProfile {
+
+    public static final ReconcileProfile DEFAULT = new ReconcileProfile(null, Collections.<String>emptySet());
+
+    public static ReconcileProfile forProject(IProject project) {
+        Activator activator = Activator.getDefault();
+        if (activator == null || project == null) {
+            return DEFAULT;
+        }
+        IEclipsePreferences preferences = activator.getProjectOrWorkspacePreferences(project);
+        String localTransforms = preferences.get(Activator.GROOVY_RECONCILE_TRANSFORMS, "").trim();
+        Set<String> disabledGlobalTransforms = split(preferences.get(Activator.GROOVY_RECONCILE_DISABLED_GLOBAL_TRANSFORMS, ""));
+        if (localTransforms.length() == 0 && disabledGlobalTransforms.isEmpty()) {
+            return DEFAULT;
+        }
+        return new ReconcileProfile(localTransforms.length() > 0 ? localTransforms : null, disabledGlobalTransforms);
+    }
+
+    private static Set<String> split(String value) {
+        Set<String> values = new LinkedHashSet<String>();
+        StringTokenizer st = new StringTokenizer(value, ",");
+        while (st.hasMoreTokens()) {
+            String token = st.nextToken().trim();
+            if (token.length() > 0) {
+                values.add(token);
+            }
+        }
+        return values;
+    }
+
+    //--------------------------------------------------------------------------
+
+    private final String localTransforms;
+    private final Set<String> disabledGlobalTransforms;
+
+    ReconcileProfile(String localTransforms, Set<String> disabledGlobalTransforms) {
+        this.localTransforms = localTransforms;
+        this.disabledGlobalTransforms = Collections.unmodifiableSet(disabledGlobalTransforms);
+    }
+
+    /**
+     * @param fallback the local transforms configured through the compiler options
+     * @return comma-separated list of local transforms to run while reconciling
+     */
+    public String getLocalTransforms(String fallback) {
+        return localTransforms != null ? localTransforms : fallback;
+    }
+
+    public Set<String> getDisabledGlobalTransforms() {
+        return disabledGlobalTransforms;
+    }
+
+    /**
+     * Adds the disabled global transforms of this profile to the configuration.
+     */
+    public void applyTo(CompilerConfiguration configuration) {
+        if (disabledGlobalTransforms.isEmpty()) {
+            return;
+        }
+        try {
+            Set<String> disabled = new LinkedHashSet<String>(disabledGlobalTransforms);
+            Set<String> existing = configuration.getDisabledGlobalASTTransformations();
+            if (existing != null) {
+                disabled.addAll(existing);
+            }
+            configuration.setDisabledGlobalASTTransformations(disabled);
+        } catch (NoSuchMethodError e) {
+            // Groovy 1.8 does not support disabling global transforms
+        }
+    }
+}
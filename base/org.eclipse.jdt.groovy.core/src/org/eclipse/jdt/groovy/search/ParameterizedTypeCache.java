@@ -0,0 +1,98 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.jdt.groovy.search;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ClassNode;
+
+/**
+ * Remembers the outcome of {@link TypeLookupResult#resolveTypeParameterization} for each member and receiver type, so that
+ * repeated references to (for example) <code>List&lt;Foo&gt;.get()</code> do not each gather the receiver's generics and clone
+ * the member's type again. One cache exists per inferencing visit (see {@link VariableScope#setParameterizationCache}) and
+ * goes away with the visit's scopes.
+ * <p>
+ * Cached types and methods are shared by every result that refers to them, without copying. Like the declared types that
+ * lookups return, they are read-only: code that resolves type parameters in place works on its own clone.
+ */
+public class ParameterizedTypeCache {
+
+    /** stands in for a resolution that does not change the declared type */
+    static final Object UNCHANGED = new Object();
+
+    // member declaration -> receiver signature -> resolved type, resolved method, or UNCHANGED
+    private final Map<ASTNode, Map<String, Object>> resolutions = new IdentityHashMap<ASTNode, Map<String, Object>>();
+
+    // some lookups (eg- DSLD) create a new declaration for every reference; don't let those grow the cache without bound
+    private static final int MAX_DECLARATIONS = 5000;
+
+    private int hits, misses;
+
+    synchronized Object get(ASTNode declaration, String signature) {
+        Map<String, Object> bySignature = resolutions.get(declaration);
+        Object value = (bySignature != null ? bySignature.get(signature) : null);
+        if (value != null) {
+            hits += 1;
+        } else {
+            misses += 1;
+        }
+        return value;
+    }
+
+    synchronized void put(ASTNode declaration, String signature, Object value) {
+        Map<String, Object> bySignature = resolutions.get(declaration);
+        if (bySignature == null) {
+            if (resolutions.size() >= MAX_DECLARATIONS) {
+                resolutions.clear();
+            }
+            bySignature = new HashMap<String, Object>();
+            resolutions.put(declaration, bySignature);
+        }
+        bySignature.put(signature, value);
+    }
+
+    /**
+     * @return key for the receiver type and, if the member declares its own type parameters, for the argument types
+     */
+    static String signature(ClassNode targetType, List<ClassNode> argumentTypes) {
+        StringBuilder sb = new StringBuilder(targetType.toString(false));
+        if (argumentTypes != null) {
+            sb.append('(');
+            for (ClassNode argumentType : argumentTypes) {
+                sb.append(argumentType == null ? "null" : argumentType.toString(false)).append(',');
+            }
+            sb.append(')');
+        }
+        return sb.toString();
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        resolutions.clear();
+        hits = misses = 0;
+    }
+}
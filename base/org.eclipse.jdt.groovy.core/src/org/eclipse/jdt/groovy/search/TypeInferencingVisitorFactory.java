@@ -66,8 +66,16 @@ public class TypeInferencingVisitorFactory {
         return new TypeInferencingVisitorWithRequestor(unit, createLookups(unit.getJavaProject().getProject()));
     }
 
+    /**
+     * Create a new {@link TypeInferencingVisitorWithRequestor} that consults the given lookups instead of the ones registered for
+     * the project. Useful for wrapping or replacing the lookups returned by {@link #createLookups(IProject)}.
+     */
+    public TypeInferencingVisitorWithRequestor createVisitor(GroovyCompilationUnit unit, ITypeLookup[] lookups) {
+        return new TypeInferencingVisitorWithRequestor(unit, lookups);
+    }
+
     // Order matters!!! SimpleTypeLookup must be last
-    private ITypeLookup[] createLookups(IProject project) {
+    public ITypeLookup[] createLookups(IProject project) {
         ITypeLookup[] lookups;
         try {
             List<ITypeLookup> lookupsList = TypeLookupRegistry.getRegistry().getLookupsFor(project);
@@ -335,6 +335,7 @@ public class TypeInferencingVisitorWithRequestor extends ClassCodeVisitorSupport
         this.requestor = requestor;
         enclosingElement = unit;
         VariableScope topLevelScope = new VariableScope(null, enclosingDeclarationNode, false);
+        topLevelScope.setParameterizationCache(new ParameterizedTypeCache());
         scopes.push(topLevelScope);
 
         for (ITypeLookup lookup : lookups) {
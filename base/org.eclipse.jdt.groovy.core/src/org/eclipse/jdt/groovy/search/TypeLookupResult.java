@@ -74,6 +74,11 @@ public class TypeLookupResult {
 
     public final TypeConfidence confidence;
     public final ClassNode declaringType;
+
+    /**
+     * The type may be shared with the AST and with other results, so it must not be changed; clone it first (see
+     * {@link VariableScope#clone(ClassNode)}).
+     */
     public final ClassNode type;
 
     /**
@@ -139,10 +144,31 @@ public class TypeLookupResult {
             }
             targetType = GroovyUtils.getWrapperTypeIfPrimitive(targetType);
 
+            ParameterizedTypeCache cache = scope.getParameterizationCache();
+
             if (!(declaration instanceof MethodNode)) {
-                GenericsMapper mapper = GenericsMapper.gatherGenerics(targetType, declaringType.redirect());
-                ClassNode maybe = VariableScope.resolveTypeParameterization(mapper, VariableScope.clone(type));
-                if (!maybe.toString(false).equals(type.toString(false))) {
+                String signature = null;
+                Object cached = null;
+                if (cache != null) {
+                    signature = ParameterizedTypeCache.signature(targetType, null) + '|' + declaringType.getName() + '|' + type.toString(false);
+                    cached = cache.get(declaration, signature);
+                }
+                ClassNode maybe;
+                if (cached == ParameterizedTypeCache.UNCHANGED) {
+                    maybe = null;
+                } else if (cached != null) {
+                    maybe = (ClassNode) cached;
+                } else {
+                    GenericsMapper mapper = GenericsMapper.gatherGenerics(targetType, declaringType.redirect());
+                    maybe = VariableScope.resolveTypeParameterization(mapper, VariableScope.clone(type));
+                    if (maybe.toString(false).equals(type.toString(false))) {
+                        maybe = null;
+                    }
+                    if (cache != null) {
+                        cache.put(declaration, signature, maybe != null ? maybe : ParameterizedTypeCache.UNCHANGED);
+                    }
+                }
+                if (maybe != null) {
                     TypeLookupResult result = new TypeLookupResult(maybe, declaringType, declaration, confidence, scope, extraDoc);
                     result.enclosingAnnotation = enclosingAnnotation;
                     result.enclosingAssignment = enclosingAssignment;
@@ -159,8 +185,22 @@ public class TypeLookupResult {
                 }
 
                 MethodNode method = (MethodNode) declaration;
-                GenericsMapper mapper = GenericsMapper.gatherGenerics(argumentTypes, targetType, method);
-                method = VariableScope.resolveTypeParameterization(mapper, method);
+                String signature = null;
+                Object cached = null;
+                if (cache != null) {
+                    // argument types only matter to methods that declare their own type parameters
+                    signature = ParameterizedTypeCache.signature(targetType, GroovyUtils.getGenericsTypes(method).length > 0 ? argumentTypes : null);
+                    cached = cache.get(declaration, signature);
+                }
+                if (cached instanceof MethodNode) {
+                    method = (MethodNode) cached;
+                } else if (cached == null) {
+                    GenericsMapper mapper = GenericsMapper.gatherGenerics(argumentTypes, targetType, method);
+                    method = VariableScope.resolveTypeParameterization(mapper, method);
+                    if (cache != null) {
+                        cache.put(declaration, signature, method != declaration ? method : ParameterizedTypeCache.UNCHANGED);
+                    }
+                }
                 if (method != declaration) {
                     TypeLookupResult result = new TypeLookupResult(method.getReturnType(), method.getDeclaringClass(), method, confidence, scope, extraDoc);
                     result.enclosingAnnotation = enclosingAnnotation;
@@ -196,9 +196,9 @@ public class VariableScope {
             this.declaringType = declaringType;
         }
 
-        private VariableInfo(VariableInfo info, ASTNode node) {
-            this(info.type, info.declaringType);
-            this.scopeNode = node;
+        private VariableInfo(ClassNode type, ClassNode declaringType, ASTNode scopeNode) {
+            this(type, declaringType);
+            this.scopeNode = scopeNode;
         }
 
         public String getTypeSignature() {
@@ -274,6 +274,10 @@ public class VariableScope {
          * true iff current scope is implicit run method of script
          */
         boolean isRunMethod;
+        /**
+         * resolved parameterizations of members, or null if they are not being cached
+         */
+        ParameterizedTypeCache parameterizationCache;
     }
 
     /**
@@ -305,7 +309,19 @@ public class VariableScope {
 
     private List<ClassNode> methodCallArgumentTypes;
 
-    private final Map<String, VariableInfo> nameVariableMap = new HashMap<String, VariableInfo>();
+    /**
+     * Variables declared in this scope, in the order they were added.  Most
+     * scopes declare only a handful of variables (and many none at all), so
+     * they are kept in small parallel arrays that are allocated on the first
+     * add and searched linearly; an index is built only for large scopes.
+     */
+    private String[] variableNames;
+    private VariableInfo[] variableInfos;
+    private int variableCount;
+    private Map<String, Integer> variableIndex;
+
+    private static final int INITIAL_VARIABLES = 4;
+    private static final int MAX_UNINDEXED_VARIABLES = 16;
 
     //--------------------------------------------------------------------------
 
@@ -331,6 +347,17 @@ public class VariableScope {
         return shared.wormhole;
     }
 
+    /**
+     * @return cache of member types resolved against generic receivers, or null if there is none for this scope
+     */
+    public ParameterizedTypeCache getParameterizationCache() {
+        return shared.parameterizationCache;
+    }
+
+    public void setParameterizationCache(ParameterizedTypeCache cache) {
+        shared.parameterizationCache = cache;
+    }
+
     public ASTNode getEnclosingNode() {
         if (shared.nodeStack.size() > 1) {
             ASTNode current = shared.nodeStack.pop();
@@ -406,22 +433,73 @@ public class VariableScope {
             }
         }
 
-        VariableInfo var = lookupNameInCurrentScope(name);
-        if (var == null && parent != null) {
-            var = parent.lookupName(name);
+        for (VariableScope scope = this; scope != null; scope = scope.parent) {
+            int slot = scope.indexOf(name);
+            if (slot >= 0) {
+                return scope.variableInfos[slot];
+            }
         }
-        return var;
+        return null;
     }
 
     /**
      * Finds the name in the current scope. Does not recur up to parent scopes.
      */
     public VariableInfo lookupNameInCurrentScope(String name) {
-        VariableInfo info = nameVariableMap.get(name);
-        if (info != null) {
-            info = new VariableInfo(info, scopeNode);
+        int slot = indexOf(name);
+        return slot >= 0 ? variableInfos[slot] : null;
+    }
+
+    /**
+     * @return the slot of the variable in this scope or -1 if it is not declared here
+     */
+    private int indexOf(String name) {
+        if (variableIndex != null) {
+            Integer slot = variableIndex.get(name);
+            return slot != null ? slot.intValue() : -1;
         }
-        return info;
+        for (int i = 0; i < variableCount; i += 1) {
+            String candidate = variableNames[i];
+            if (candidate == name || candidate.equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stores the variable in this scope, replacing any variable of the same name.
+     * Variables are stored with the node of this scope, so lookups need not copy them.
+     */
+    private void putVariable(String name, ClassNode type, ClassNode declaringType) {
+        VariableInfo info = new VariableInfo(type, declaringType, scopeNode);
+        int slot = indexOf(name);
+        if (slot >= 0) {
+            variableInfos[slot] = info;
+            return;
+        }
+        if (variableNames == null) {
+            variableNames = new String[INITIAL_VARIABLES];
+            variableInfos = new VariableInfo[INITIAL_VARIABLES];
+        } else if (variableCount == variableNames.length) {
+            String[] names = new String[variableCount * 2];
+            System.arraycopy(variableNames, 0, names, 0, variableCount);
+            variableNames = names;
+            VariableInfo[] infos = new VariableInfo[variableCount * 2];
+            System.arraycopy(variableInfos, 0, infos, 0, variableCount);
+            variableInfos = infos;
+        }
+        variableNames[variableCount] = name;
+        variableInfos[variableCount] = info;
+        if (variableIndex != null) {
+            variableIndex.put(name, variableCount);
+        } else if (variableCount == MAX_UNINDEXED_VARIABLES) {
+            variableIndex = new HashMap<String, Integer>(variableCount * 4);
+            for (int i = 0; i <= variableCount; i += 1) {
+                variableIndex.put(variableNames[i], i);
+            }
+        }
+        variableCount += 1;
     }
 
     public ClassNode getThis() {
@@ -459,7 +537,7 @@ public class VariableScope {
     }
 
     public void addVariable(String name, ClassNode type, ClassNode declaringType) {
-        nameVariableMap.put(name, new VariableInfo(type, declaringType != null ? declaringType : OBJECT_CLASS_NODE));
+        putVariable(name, type, declaringType != null ? declaringType : OBJECT_CLASS_NODE);
     }
 
     public void addVariable(Variable var) {
@@ -563,15 +641,14 @@ public class VariableScope {
      * Return true if the type has been udpated, false otherwise
      */
     private boolean internalUpdateVariable(String name, ClassNode type, ClassNode declaringType) {
-        VariableInfo info = lookupNameInCurrentScope(name);
-        if (info != null) {
-            nameVariableMap.put(name, new VariableInfo(type, declaringType == null ? info.declaringType : declaringType));
-            return true;
-        } else if (parent != null) {
-            return parent.internalUpdateVariable(name, type, declaringType);
-        } else {
-            return false;
+        for (VariableScope scope = this; scope != null; scope = scope.parent) {
+            VariableInfo info = scope.lookupNameInCurrentScope(name);
+            if (info != null) {
+                scope.putVariable(name, type, declaringType == null ? info.declaringType : declaringType);
+                return true;
+            }
         }
+        return false;
     }
 
     public static ClassNode resolveTypeParameterization(GenericsMapper mapper, ClassNode type) {
@@ -882,10 +959,10 @@ public class VariableScope {
     /**
      * Does the following name exist in this scope (does not recur up to parent scopes).
      *
-     * @return {@code true} iff in the {@link #nameVariableMap}
+     * @return {@code true} iff declared in this scope
      */
     public boolean containsInThisScope(String name) {
-        return nameVariableMap.containsKey(name);
+        return indexOf(name) >= 0;
     }
 
     /**
@@ -907,24 +984,34 @@ public class VariableScope {
     public Iterator<Map.Entry<String, VariableInfo>> variablesIterator() {
         return new Iterator<Map.Entry<String, VariableInfo>>() {
             VariableScope currentScope = VariableScope.this;
-            Iterator<Map.Entry<String, VariableInfo>> currentIter = currentScope.nameVariableMap.entrySet().iterator();
+            int currentSlot = 0;
 
             public boolean hasNext() {
-                if (currentIter == null) {
-                    return false;
-                }
-                if (!currentIter.hasNext()) {
+                while (currentScope != null && currentSlot >= currentScope.variableCount) {
                     currentScope = currentScope.parent;
-                    currentIter = currentScope == null ? null : currentScope.nameVariableMap.entrySet().iterator();
+                    currentSlot = 0;
                 }
-                return currentIter != null && currentIter.hasNext();
+                return currentScope != null;
             }
 
             public Entry<String, VariableInfo> next() {
-                if (!currentIter.hasNext()) {
+                if (!hasNext()) {
                     throw new NoSuchElementException();
                 }
-                return currentIter.next();
+                final String name = currentScope.variableNames[currentSlot];
+                final VariableInfo info = currentScope.variableInfos[currentSlot];
+                currentSlot += 1;
+                return new Entry<String, VariableInfo>() {
+                    public String getKey() {
+                        return name;
+                    }
+                    public VariableInfo getValue() {
+                        return info;
+                    }
+                    public VariableInfo setValue(VariableInfo value) {
+                        throw new UnsupportedOperationException();
+                    }
+                };
             }
 
             public void remove() {
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Codehaus.org, SpringSource, and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.codehaus.groovy.eclipse.benchmarks;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.internal.compiler.batch.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a complete batch compile of the corpus through {@link Main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class BatchCompileBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int size;
+
+    private Corpus corpus;
+    private String[] commandLine;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        corpus = Corpus.generate(size);
+        commandLine = BatchCompilerSupport.getCommandLine(corpus);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        corpus.delete();
+    }
+
+    @Benchmark
+    public boolean compile() {
+        StringWriter out = new StringWriter();
+        StringWriter err = new StringWriter();
+        boolean success = Main.compile(commandLine, new PrintWriter(out), new PrintWriter(err), null);
+        if (!success) {
+            throw new IllegalStateException("Corpus failed to compile:\n" + err);
+        }
+        return success;
+    }
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Codehaus.org, SpringSource, and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.codehaus.groovy.eclipse.benchmarks;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.codehaus.jdt.groovy.internal.compiler.ast.GroovyCompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.Compiler;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.jdt.internal.compiler.batch.FileSystem;
+import org.eclipse.jdt.internal.compiler.batch.Main;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
+
+/**
+ * Drives the batch compiler the way {@link Main#performCompilation()} does, but
+ * stops after the units have been parsed and bound so that individual phases of
+ * the Groovy/JDT bridge can be measured on their own.
+ */
+public class BatchCompilerSupport {
+
+    private final Corpus corpus;
+    private final Main main;
+    private final CompilerOptions options;
+    private final CompilationUnit[] units;
+
+    public BatchCompilerSupport(Corpus corpus) {
+        this.corpus = corpus;
+        this.main = new Main(new PrintWriter(new StringWriter()), new PrintWriter(new StringWriter()), false, null, null);
+        this.main.configure(getCommandLine(corpus));
+        this.options = new CompilerOptions(main.options);
+        this.options.performMethodsFullRecovery = false;
+        this.options.performStatementsRecovery = false;
+        this.units = main.getCompilationUnits();
+    }
+
+    /**
+     * @return command line for a full batch compile of the corpus that does
+     *         not write any class files
+     */
+    public static String[] getCommandLine(Corpus corpus) {
+        List<String> args = new ArrayList<String>();
+        args.add("-1.6");
+        args.add("-nowarn");
+        args.add("-proceedOnError");
+        args.add("-d");
+        args.add("none");
+        args.add("-cp");
+        args.add(System.getProperty("java.class.path"));
+        for (File file : corpus.getAllFiles()) {
+            args.add(file.getAbsolutePath());
+        }
+        return args.toArray(new String[args.size()]);
+    }
+
+    public CompilerOptions getOptions() {
+        return options;
+    }
+
+    public CompilationUnit[] getUnits() {
+        return units;
+    }
+
+    public CompilationUnit[] getGroovyUnits() {
+        List<CompilationUnit> groovy = new ArrayList<CompilationUnit>();
+        for (CompilationUnit unit : units) {
+            if (new String(unit.getFileName()).endsWith(".groovy")) {
+                groovy.add(unit);
+            }
+        }
+        return groovy.toArray(new CompilationUnit[groovy.size()]);
+    }
+
+    public ProblemReporter newProblemReporter() {
+        return new ProblemReporter(main.getHandlingPolicy(), options, main.getProblemFactory());
+    }
+
+    /**
+     * Creates a compiler over a fresh name environment and runs it up to the
+     * point where every unit has been parsed and its bindings built.
+     */
+    public BenchCompiler beginToCompile() {
+        BenchCompiler compiler = new BenchCompiler(main.getLibraryAccess());
+        compiler.begin(units);
+        return compiler;
+    }
+
+    public Corpus getCorpus() {
+        return corpus;
+    }
+
+    /**
+     * Exposes the protected entry point of the compile loop.
+     */
+    public class BenchCompiler extends Compiler {
+
+        private final FileSystem environment;
+
+        BenchCompiler(FileSystem environment) {
+            super(environment, main.getHandlingPolicy(), options, main.getBatchRequestor(), main.getProblemFactory(),
+                    new PrintWriter(new StringWriter()), null);
+            this.environment = environment;
+        }
+
+        void begin(ICompilationUnit[] sourceUnits) {
+            beginToCompile(sourceUnits);
+        }
+
+        public List<GroovyCompilationUnitDeclaration> getGroovyDeclarations() {
+            List<GroovyCompilationUnitDeclaration> decls = new ArrayList<GroovyCompilationUnitDeclaration>();
+            for (int i = 0; i < totalUnits; i += 1) {
+                CompilationUnitDeclaration unit = unitsToProcess[i];
+                if (unit instanceof GroovyCompilationUnitDeclaration) {
+                    decls.add((GroovyCompilationUnitDeclaration) unit);
+                }
+            }
+            return decls;
+        }
+
+        public void dispose() {
+            reset();
+            environment.cleanup();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Codehaus.org, SpringSource, and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.codehaus.groovy.eclipse.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates a deterministic corpus of mixed Groovy and Java sources. Every
+ * third type is a Java class; the Groovy types extend and call into the types
+ * generated before them so that resolution has to cross language boundaries.
+ */
+public class Corpus {
+
+    public static final String PACKAGE = "corpus";
+
+    private final File root;
+    private final List<File> groovyFiles = new ArrayList<File>();
+    private final List<File> javaFiles = new ArrayList<File>();
+    private final List<String> typeNames = new ArrayList<String>();
+
+    private Corpus(File root) {
+        this.root = root;
+    }
+
+    /**
+     * Writes a corpus of <code>size</code> compilation units into a fresh
+     * temporary directory. The same size always produces the same sources.
+     */
+    public static Corpus generate(int size) throws IOException {
+        File root = File.createTempFile("groovy-corpus-" + size + "-", "");
+        if (!root.delete() || !root.mkdirs()) {
+            throw new IOException("Cannot create corpus directory " + root);
+        }
+        Corpus corpus = new Corpus(root);
+        File pkg = new File(root, PACKAGE);
+        pkg.mkdirs();
+        for (int i = 0; i < size; i += 1) {
+            String name = (i % 3 == 2 ? "J" : "G") + i;
+            if (i % 3 == 2) {
+                corpus.javaFiles.add(write(new File(pkg, name + ".java"), javaSource(name, i)));
+            } else {
+                corpus.groovyFiles.add(write(new File(pkg, name + ".groovy"), groovySource(name, i)));
+            }
+            corpus.typeNames.add(PACKAGE + '.' + name);
+        }
+        return corpus;
+    }
+
+    private static String groovySource(String name, int i) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(PACKAGE).append("\n\n");
+        sb.append("import groovy.transform.*\n");
+        sb.append("import java.util.concurrent.ConcurrentHashMap\n\n");
+        String parent = i >= 3 ? typeName(i - 3) : null;
+        if (i % 6 == 0) {
+            sb.append("@ToString @EqualsAndHashCode\n");
+        } else if (i % 6 == 3) {
+            sb.append("@CompileStatic\n");
+        }
+        sb.append("class ").append(name);
+        if (parent != null) {
+            sb.append(" extends ").append(parent);
+        }
+        sb.append(" {\n");
+        sb.append("    String label = '").append(name).append("'\n");
+        sb.append("    int count").append(i).append("\n");
+        sb.append("    List<String> names = []\n");
+        sb.append("    Map<String, Integer> totals = new ConcurrentHashMap<String, Integer>()\n\n");
+        sb.append("    def collect").append(i).append("(List<String> values) {\n");
+        sb.append("        values.findAll { it.size() > ").append(i % 5).append(" }.collect { String s -> s.toUpperCase() }\n");
+        sb.append("    }\n\n");
+        sb.append("    int sum").append(i).append("(int... values) {\n");
+        sb.append("        int total = 0\n");
+        sb.append("        for (int v : values) { total += v }\n");
+        sb.append("        totals.put(label, total)\n");
+        sb.append("        return total\n");
+        sb.append("    }\n");
+        if (i >= 2) {
+            String other = typeName(i - 1 - (i % 2));
+            sb.append("\n    def delegateTo(").append(other).append(" other) {\n");
+            sb.append("        def result = other.toString()\n");
+            sb.append("        names << result\n");
+            sb.append("        names.each { n -> count").append(i).append(" += n.length() }\n");
+            sb.append("        return result\n");
+            sb.append("    }\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static String javaSource(String name, int i) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(PACKAGE).append(";\n\n");
+        sb.append("import java.util.ArrayList;\n");
+        sb.append("import java.util.List;\n\n");
+        sb.append("public class ").append(name).append(" {\n");
+        sb.append("    private final List<String> items = new ArrayList<String>();\n\n");
+        sb.append("    public List<String> getItems() {\n");
+        sb.append("        return items;\n");
+        sb.append("    }\n\n");
+        // reference a groovy type compiled alongside
+        String groovy = typeName(i - 1);
+        sb.append("    public String describe(").append(groovy).append(" g) {\n");
+        sb.append("        return g.getLabel() + items.size();\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static String typeName(int i) {
+        return (i % 3 == 2 ? "J" : "G") + i;
+    }
+
+    private static File write(File file, String contents) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(contents);
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+
+    public File getRoot() {
+        return root;
+    }
+
+    public List<File> getGroovyFiles() {
+        return groovyFiles;
+    }
+
+    public List<File> getJavaFiles() {
+        return javaFiles;
+    }
+
+    public List<File> getAllFiles() {
+        List<File> all = new ArrayList<File>(groovyFiles);
+        all.addAll(javaFiles);
+        return all;
+    }
+
+    /**
+     * @return fully-qualified names of every generated type
+     */
+    public List<String> getTypeNames() {
+        return typeNames;
+    }
+
+    public void delete() {
+        delete(root);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
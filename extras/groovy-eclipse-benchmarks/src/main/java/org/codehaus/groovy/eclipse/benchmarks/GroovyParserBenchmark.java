@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Codehaus.org, SpringSource, and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.codehaus.groovy.eclipse.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.jdt.groovy.internal.compiler.ast.GroovyParser;
+import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link GroovyParser#dietParse} over every Groovy unit of the corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GroovyParserBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int size;
+
+    private Corpus corpus;
+    private BatchCompilerSupport support;
+    private CompilationUnit[] units;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        corpus = Corpus.generate(size);
+        support = new BatchCompilerSupport(corpus);
+        units = support.getGroovyUnits();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        corpus.delete();
+    }
+
+    @Benchmark
+    public void dietParse(Blackhole bh) {
+        GroovyParser parser = new GroovyParser(support.getOptions(), support.newProblemReporter(), true, false);
+        for (CompilationUnit unit : units) {
+            CompilationResult result = new CompilationResult(unit, 0, units.length, support.getOptions().maxProblemsPerUnit);
+            bh.consume(parser.dietParse(unit, result));
+        }
+        parser.reset();
+    }
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Codehaus.org, SpringSource, and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.codehaus.groovy.eclipse.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.groovy.control.Phases;
+import org.codehaus.jdt.groovy.control.EclipseSourceUnit;
+import org.codehaus.jdt.groovy.internal.compiler.ast.GroovyCompilationUnitDeclaration;
+import org.codehaus.jdt.groovy.internal.compiler.ast.JDTResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link JDTResolver#resolve(String)} for the corpus types and a mix
+ * of JDK types, once the units have been through semantic analysis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class JDTResolverBenchmark {
+
+    private static final String[] JDK_TYPES = {
+        "java.lang.String", "java.util.List", "java.util.Map", "java.util.concurrent.ConcurrentHashMap",
+        "java.io.File", "java.lang.Runnable", "java.util.Map$Entry", "groovy.lang.Closure"
+    };
+
+    @Param({"10", "100", "500"})
+    public int size;
+
+    private Corpus corpus;
+    private BatchCompilerSupport.BenchCompiler compiler;
+    private JDTResolver resolver;
+    private String[] names;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        corpus = Corpus.generate(size);
+        compiler = new BatchCompilerSupport(corpus).beginToCompile();
+        List<GroovyCompilationUnitDeclaration> decls = compiler.getGroovyDeclarations();
+        for (GroovyCompilationUnitDeclaration decl : decls) {
+            decl.processToPhase(Phases.SEMANTIC_ANALYSIS);
+        }
+        // all units of a batch compile share the one resolver
+        resolver = ((EclipseSourceUnit) decls.get(0).getSourceUnit()).resolver;
+
+        List<String> all = new ArrayList<String>(corpus.getTypeNames());
+        for (String name : JDK_TYPES) {
+            all.add(name);
+        }
+        names = all.toArray(new String[all.size()]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        compiler.dispose();
+        corpus.delete();
+    }
+
+    @Benchmark
+    public void resolve(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(resolver.resolve(name));
+        }
+    }
+}
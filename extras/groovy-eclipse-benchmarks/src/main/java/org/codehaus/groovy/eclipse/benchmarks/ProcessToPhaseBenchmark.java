@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Codehaus.org, SpringSource, and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.codehaus.groovy.eclipse.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.groovy.control.Phases;
+import org.codehaus.jdt.groovy.internal.compiler.ast.GroovyCompilationUnitDeclaration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link GroovyCompilationUnitDeclaration#processToPhase(int)} for
+ * each Groovy phase that the bridge drives. Every invocation starts from units
+ * that have only been parsed and bound, so the score for a phase includes the
+ * work of all phases before it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class ProcessToPhaseBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int size;
+
+    @Param({"SEMANTIC_ANALYSIS", "CANONICALIZATION", "INSTRUCTION_SELECTION", "CLASS_GENERATION"})
+    public String phase;
+
+    private Corpus corpus;
+    private BatchCompilerSupport support;
+    private int phaseNumber;
+    private BatchCompilerSupport.BenchCompiler compiler;
+    private List<GroovyCompilationUnitDeclaration> decls;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        corpus = Corpus.generate(size);
+        support = new BatchCompilerSupport(corpus);
+        phaseNumber = Phases.class.getField(phase).getInt(null);
+    }
+
+    @Setup(Level.Invocation)
+    public void beginToCompile() {
+        compiler = support.beginToCompile();
+        decls = compiler.getGroovyDeclarations();
+    }
+
+    @TearDown(Level.Invocation)
+    public void dispose() {
+        compiler.dispose();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        corpus.delete();
+    }
+
+    @Benchmark
+    public void processToPhase(Blackhole bh) {
+        for (GroovyCompilationUnitDeclaration decl : decls) {
+            bh.consume(decl.processToPhase(phaseNumber));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Codehaus.org, SpringSource, and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.codehaus.groovy.eclipse.compiler;
+
+import junit.framework.TestCase;
+
+import org.codehaus.groovy.eclipse.compiler.ProblemListener.Severity;
+
+/**
+ * Tests that problems written by the forked compiler are read back unchanged by the maven plugin.
+ */
+public class ProblemLineTests extends TestCase {
+
+    public void testRoundTrip() {
+        ProblemLine problem = roundTrip(Severity.ERROR, "/src/p/A.groovy", 3, 5, 9, "Groovy:unable to resolve class Foo");
+        assertSame(Severity.ERROR, problem.severity);
+        assertEquals("/src/p/A.groovy", problem.fileName);
+        assertEquals(3, problem.line);
+        assertEquals(5, problem.startColumn);
+        assertEquals(9, problem.endColumn);
+        assertEquals("Groovy:unable to resolve class Foo", problem.message);
+    }
+
+    public void testSeverities() {
+        for (Severity severity : Severity.values()) {
+            assertSame(severity, roundTrip(severity, "A.java", 1, 1, 1, "message").severity);
+        }
+    }
+
+    public void testEscapes() {
+        String message = "quote \" backslash \\ tab \t slash / braces {\"problem\":} \\u0041 \\n";
+        assertEquals(message, roundTrip(Severity.WARNING, "A.java", 1, 1, 1, message).message);
+        String fileName = "C:\\work\\src\\\"quoted\" name.groovy";
+        assertEquals(fileName, roundTrip(Severity.WARNING, fileName, 1, 1, 1, "message").fileName);
+    }
+
+    public void testControlCharacters() {
+        String message = "bell \u0007 escape \u001b delete \u007f nul \u0000";
+        String line = ProblemLine.format(Severity.ERROR, "A.java", 1, 1, 1, message);
+        assertEquals(message, ProblemLine.parse(line).message);
+        assertAscii(line);
+    }
+
+    public void testUnicode() {
+        String message = "\u00e9t\u00e9 \u4e2d\u6587 \ud83d\ude00 \uffff";
+        String fileName = "/src/caf\u00e9/\u00c4.groovy";
+        String line = ProblemLine.format(Severity.ERROR, fileName, 1, 1, 1, message);
+        assertAscii(line);
+
+        ProblemLine problem = ProblemLine.parse(line);
+        assertEquals(message, problem.message);
+        assertEquals(fileName, problem.fileName);
+    }
+
+    public void testNulls() {
+        ProblemLine problem = roundTrip(Severity.WARNING, null, 0, 0, 0, null);
+        assertSame(Severity.WARNING, problem.severity);
+        assertNull(problem.fileName);
+        assertNull(problem.message);
+        assertEquals(0, problem.line);
+
+        // the string "null" is not null
+        assertEquals("null", roundTrip(Severity.WARNING, "null", 0, 0, 0, "null").message);
+        assertEquals("null", roundTrip(Severity.WARNING, "null", 0, 0, 0, "null").fileName);
+    }
+
+    public void testMultiLineMessage() {
+        String message = "The method foo() is undefined\nfor the type A\r\nsecond line\r\r\n";
+        String line = ProblemLine.format(Severity.ERROR, "A.java", 2, 3, 4, message);
+        assertEquals("Problem must stay on one line", -1, line.indexOf('\n'));
+        assertEquals("Problem must stay on one line", -1, line.indexOf('\r'));
+        assertEquals(message, ProblemLine.parse(line).message);
+    }
+
+    public void testEmptyStrings() {
+        ProblemLine problem = roundTrip(Severity.ERROR, "", 1, 1, 1, "");
+        assertEquals("", problem.fileName);
+        assertEquals("", problem.message);
+    }
+
+    public void testNegativeNumbers() {
+        ProblemLine problem = roundTrip(Severity.ERROR, "A.java", -1, -2, -3, "message");
+        assertEquals(-1, problem.line);
+        assertEquals(-2, problem.startColumn);
+        assertEquals(-3, problem.endColumn);
+    }
+
+    public void testOtherOutput() {
+        assertNull(ProblemLine.parse(null));
+        assertNull(ProblemLine.parse(""));
+        assertNull(ProblemLine.parse("1. ERROR in /src/A.java (at line 3)"));
+        assertNull(ProblemLine.parse("{\"other\":1}"));
+        assertFalse(ProblemLine.isProblemLine("  {\"problem\":\"ERROR\"}"));
+    }
+
+    public void testMalformed() {
+        String line = ProblemLine.format(Severity.ERROR, "A.java", 1, 2, 3, "message");
+        assertNotNull(ProblemLine.parse(line));
+
+        assertNull("truncated", ProblemLine.parse(line.substring(0, line.length() - 1)));
+        assertNull("unterminated string", ProblemLine.parse(line.substring(0, line.indexOf("message") + 3)));
+        assertNull("trailing text", ProblemLine.parse(line + "x"));
+        assertNull("unknown severity", ProblemLine.parse(line.replace("\"ERROR\"", "\"FATAL\"")));
+        assertNull("unknown field", ProblemLine.parse(line.replace("\"line\"", "\"lines\"")));
+        assertNull("bad number", ProblemLine.parse(line.replace("\"line\":1", "\"line\":one")));
+        assertNull("bad escape", ProblemLine.parse(line.replace("message", "mess\\u00age")));
+    }
+
+    //--------------------------------------------------------------------------
+
+    private static ProblemLine roundTrip(Severity severity, String fileName, int line, int startColumn, int endColumn, String message) {
+        String text = ProblemLine.format(severity, fileName, line, startColumn, endColumn, message);
+        assertTrue(ProblemLine.isProblemLine(text));
+        ProblemLine problem = ProblemLine.parse(text);
+        assertNotNull("Could not read back: " + text, problem);
+        return problem;
+    }
+
+    private static void assertAscii(String line) {
+        for (int i = 0, n = line.length(); i < n; i += 1) {
+            char c = line.charAt(i);
+            assertTrue("Not printable ASCII at " + i + ": " + line, c >= 0x20 && c <= 0x7E);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Codehaus.org, SpringSource, and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.codehaus.groovy.eclipse.compiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.codehaus.groovy.eclipse.compiler.ProblemListener.Severity;
+import org.codehaus.plexus.util.FileUtils;
+import org.eclipse.jdt.internal.compiler.batch.Main;
+
+/**
+ * Tests that the batch compiler's problems reach the {@link ProblemListener} while the compiler still counts them and writes
+ * them to its -log file.
+ */
+public class StructuredLoggerTests extends TestCase {
+
+    private static final String SOURCE =
+        "import java.util.List;\n" +
+        "public class A {\n" +
+        "  int x = \"s\";\n" +
+        "}\n";
+
+    private File dir;
+    private final List<ProblemLine> problems = new ArrayList<ProblemLine>();
+    private final StringWriter out = new StringWriter(), err = new StringWriter();
+
+    @Override
+    protected void setUp() throws Exception {
+        dir = File.createTempFile("structured-logger", "");
+        assertTrue(dir.delete());
+        assertTrue(dir.mkdirs());
+        FileUtils.fileWrite(new File(dir, "A.java").getPath(), SOURCE);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        FileUtils.deleteDirectory(dir);
+    }
+
+    public void testProblemsAreReported() {
+        Main main = compile();
+
+        assertEquals(2, problems.size());
+        ProblemLine error = find(Severity.ERROR), warning = find(Severity.WARNING);
+        assertTrue(error.fileName, error.fileName.endsWith("A.java"));
+        assertEquals(3, error.line);
+        assertEquals(11, error.startColumn);
+        assertEquals(13, error.endColumn);
+        assertTrue(error.message, error.message.contains("Type mismatch"));
+        assertEquals(1, warning.line);
+        assertTrue(warning.message, warning.message.contains("never used"));
+
+        assertEquals(2, main.globalProblemsCount);
+        assertEquals(1, main.globalErrorsCount);
+        assertEquals(1, main.globalWarningsCount);
+    }
+
+    public void testProblemTextIsHeldBack() {
+        compile();
+
+        String text = err.toString();
+        assertFalse(text, text.contains("Type mismatch"));
+        assertFalse(text, text.contains("never used"));
+        // the summary is still written
+        assertTrue(text, text.contains("1 error"));
+    }
+
+    public void testTextLog() throws IOException {
+        File log = new File(dir, "compile.log");
+        compile("-log", log.getPath());
+
+        String text = FileUtils.fileRead(log);
+        assertTrue(text, text.contains("ERROR in"));
+        assertTrue(text, text.contains("Type mismatch"));
+        assertTrue(text, text.contains("WARNING in"));
+        assertTrue(text, text.contains("never used"));
+    }
+
+    public void testXmlLog() throws IOException {
+        File log = new File(dir, "compile.xml");
+        compile("-log", log.getPath());
+
+        String text = FileUtils.fileRead(log, "UTF-8");
+        // (attribute order is not fixed)
+        assertTrue(text, text.contains("errors=\"1\""));
+        assertTrue(text, text.contains("warnings=\"1\""));
+        assertTrue(text, text.contains("severity=\"ERROR\""));
+        assertTrue(text, text.contains("severity=\"WARNING\""));
+        assertTrue(text, text.contains("Type mismatch"));
+    }
+
+    //--------------------------------------------------------------------------
+
+    private Main compile(String... extraArgs) {
+        List<String> args = new ArrayList<String>();
+        args.add("-1.5");
+        args.add("-proceedOnError");
+        args.add("-d");
+        args.add("none");
+        for (String arg : extraArgs) {
+            args.add(arg);
+        }
+        args.add(new File(dir, "A.java").getPath());
+
+        PrintWriter outWriter = new PrintWriter(out), errWriter = new PrintWriter(err);
+        Main main = new Main(outWriter, errWriter, false, null, null);
+        StructuredLogger.install(main, outWriter, errWriter, new ProblemListener() {
+            public void acceptProblem(Severity severity, String fileName, int line, int startColumn, int endColumn, String message) {
+                problems.add(new ProblemLine(severity, fileName, line, startColumn, endColumn, message));
+            }
+        });
+        assertFalse("Should not compile", main.compile(args.toArray(new String[args.size()])));
+        outWriter.flush();
+        errWriter.flush();
+        return main;
+    }
+
+    private ProblemLine find(Severity severity) {
+        for (ProblemLine problem : problems) {
+            if (problem.severity == severity) {
+                return problem;
+            }
+        }
+        fail("No " + severity + " in " + problems.size() + " problems");
+        return null;
+    }
+}
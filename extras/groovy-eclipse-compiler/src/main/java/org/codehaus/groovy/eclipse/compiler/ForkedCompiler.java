@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Codehaus.org, SpringSource, and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.codehaus.groovy.eclipse.compiler;
+
+import java.io.PrintWriter;
+
+import org.codehaus.groovy.eclipse.compiler.ProblemListener.Severity;
+import org.eclipse.jdt.internal.compiler.batch.Main;
+
+/**
+ * Entry point of the forked compiler process. Runs the batch compiler and writes each problem to standard out as a
+ * {@link ProblemLine} as soon as its compilation unit is done; any other compiler output is passed through as plain text.
+ * <p>
+ * Runs with only groovy-eclipse-batch and this plugin on the classpath, so must not reference any plexus or maven types.
+ */
+public class ForkedCompiler {
+
+    public static void main(String[] args) {
+        final PrintWriter out = new PrintWriter(System.out);
+        PrintWriter err = new PrintWriter(System.err);
+
+        Main main = new Main(out, err, false/* systemExit */, null/* options */, null/* progress */);
+        StructuredLogger.install(main, out, err, new ProblemListener() {
+            public void acceptProblem(Severity severity, String fileName, int line, int startColumn, int endColumn, String message) {
+                out.println(ProblemLine.format(severity, fileName, line, startColumn, endColumn, message));
+                out.flush();
+            }
+        });
+        boolean success = main.compile(args);
+
+        out.flush();
+        err.flush();
+        System.exit(success ? 0 : -1);
+    }
+}
@@ -34,6 +34,7 @@ import java.util.Properties;
 import java.util.Set;
 
 import org.codehaus.groovy.eclipse.compiler.InternalCompiler.Result;
+import org.codehaus.groovy.eclipse.compiler.ProblemListener.Severity;
 import org.codehaus.plexus.compiler.AbstractCompiler;
 import org.codehaus.plexus.compiler.CompilerConfiguration;
 import org.codehaus.plexus.compiler.CompilerException;
@@ -53,6 +54,7 @@ import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.cli.CommandLineException;
 import org.codehaus.plexus.util.cli.CommandLineUtils;
 import org.codehaus.plexus.util.cli.Commandline;
+import org.codehaus.plexus.util.cli.StreamConsumer;
 
 /**
  * Allows the use of the Groovy-Eclipse compiler through maven.
@@ -70,6 +72,9 @@ public class GroovyEclipseCompiler extends AbstractCompiler {
 
     private static final String PROB_SEPARATOR = "----------\n";
 
+    // referenced by name because it depends on JDT
+    private static final String FORKED_COMPILER_CLASS = "org.codehaus.groovy.eclipse.compiler.ForkedCompiler";
+
     private static final String JAVA_AGENT_CLASS_PARAM_NAME = "-javaAgentClass";
 
     private String javaAgentClass = "";
@@ -129,12 +134,13 @@ public class GroovyEclipseCompiler extends AbstractCompiler {
             success = compileOutOfProcess(config, executable, groovyEclipseLocation, args, messages);
         } else {
             StringWriter out = new StringWriter();
-            Result result = InternalCompiler.doCompile(args, out, getLogger(), verbose);
+            Result result = InternalCompiler.doCompile(args, out, new MessageCollector(messages, config.isShowWarnings()), getLogger(), verbose);
             success = result.success;
             try {
+                // problems were collected as they occurred; anything left is from annotation processors, verbose mode, etc.
                 messages.addAll(parseMessages(success ? 0 : 1, out.getBuffer().toString(), config.isShowWarnings()));
             } catch (IOException e) {
-                messages = new ArrayList<CompilerMessage>(1);
+                messages.add(new CompilerMessage(out.getBuffer().toString(), Kind.NOTE));
             }
 
             if (!success) {
@@ -405,7 +411,10 @@ public class GroovyEclipseCompiler extends AbstractCompiler {
                 getLogger().info("no javaAgentClass seems to be set");
             }
 
-            cli.addArguments(new String[] { "-jar", groovyEclipseLocation });
+            // run ForkedCompiler so that problems are streamed back as they occur, rather than parsed from the output
+            String forkedCompilerLocation = getClassLocation(FORKED_COMPILER_CLASS);
+            cli.addArguments(new String[] { "-cp", groovyEclipseLocation + File.pathSeparator + forkedCompilerLocation,
+                    FORKED_COMPILER_CLASS });
 
             File argumentsFile = createFileWithArguments(args, config.getOutputLocation());
             cli.addArguments(new String[] { "@" + argumentsFile.getCanonicalPath().replace(File.separatorChar, '/') });
@@ -422,7 +431,19 @@ public class GroovyEclipseCompiler extends AbstractCompiler {
             throw new CompilerException("Error creating file with javac arguments", e);
         }
 
-        CommandLineUtils.StringStreamConsumer out = new CommandLineUtils.StringStreamConsumer();
+        final MessageCollector collector = new MessageCollector(messages, config.isShowWarnings());
+        final StringBuilder text = new StringBuilder();
+        StreamConsumer out = new StreamConsumer() {
+            public void consumeLine(String line) {
+                ProblemLine problem = ProblemLine.parse(line);
+                if (problem != null) {
+                    collector.acceptProblem(problem.severity, problem.fileName, problem.line, problem.startColumn,
+                            problem.endColumn, problem.message);
+                } else {
+                    text.append(line).append('\n');
+                }
+            }
+        };
         CommandLineUtils.StringStreamConsumer err = new CommandLineUtils.StringStreamConsumer();
 
         int returnCode;
@@ -446,7 +467,7 @@ public class GroovyEclipseCompiler extends AbstractCompiler {
         try {
             getLogger().info("Compiling in a forked process using " + groovyEclipseLocation);
             returnCode = CommandLineUtils.executeCommandLine(cli, out, err);
-            messages.addAll(parseMessages(returnCode, out.getOutput(), config.isShowWarnings()));
+            messages.addAll(parseMessages(returnCode, text.toString(), config.isShowWarnings()));
         } catch (CommandLineException e) {
             throw new CompilerException("Error while executing the external compiler.", e);
         } catch (IOException e) {
@@ -464,6 +485,30 @@ public class GroovyEclipseCompiler extends AbstractCompiler {
         return returnCode == 0;
     }
 
+    /**
+     * Turns the problems reported by the compiler into maven messages as they arrive.
+     */
+    private static class MessageCollector implements ProblemListener {
+        private final List<CompilerMessage> messages;
+        private final boolean showWarnings;
+
+        MessageCollector(List<CompilerMessage> messages, boolean showWarnings) {
+            this.messages = messages;
+            this.showWarnings = showWarnings;
+        }
+
+        public void acceptProblem(Severity severity, String fileName, int line, int startColumn, int endColumn, String message) {
+            if (severity == Severity.ERROR || showWarnings) {
+                Kind kind = severity == Severity.ERROR ? Kind.ERROR : severity == Severity.WARNING ? Kind.WARNING : Kind.NOTE;
+                if (fileName != null) {
+                    messages.add(new CompilerMessage(fileName, kind, line, startColumn, line, endColumn, message));
+                } else {
+                    messages.add(new CompilerMessage(message, kind));
+                }
+            }
+        }
+    }
+
     /**
      * Parse the output from the compiler into a list of CompilerError objects
      *
@@ -77,10 +77,16 @@ class InternalCompiler extends CompilationProgress {
         }
     }
 
-    static Result doCompile(String[] args, StringWriter out, Logger logger, boolean verbose) {
+    /**
+     * @param out receives the compiler output other than problems
+     * @param problems receives the problems of each compilation unit as soon as it is done
+     */
+    static Result doCompile(String[] args, StringWriter out, ProblemListener problems, Logger logger, boolean verbose) {
         InternalCompiler progress = new InternalCompiler(logger, verbose);
-        Main main = new Main(new PrintWriter(out), new PrintWriter(out), false/* systemExit */,
+        PrintWriter writer = new PrintWriter(out);
+        Main main = new Main(writer, writer, false/* systemExit */,
                 null/* options */, progress);
+        StructuredLogger.install(main, writer, writer, problems);
         boolean result = main.compile(args);
         return new Result(result, main.globalErrorsCount, main.globalWarningsCount);
     }
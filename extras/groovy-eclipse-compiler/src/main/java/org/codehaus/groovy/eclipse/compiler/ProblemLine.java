@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Codehaus.org, SpringSource, and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.codehaus.groovy.eclipse.compiler;
+
+import org.codehaus.groovy.eclipse.compiler.ProblemListener.Severity;
+
+/**
+ * A single problem as exchanged between the forked compiler and the maven plugin: one JSON object per line, for example
+ * <pre>
+ * {"problem":"ERROR","file":"/src/p/A.groovy","line":3,"startColumn":5,"endColumn":9,"message":"..."}
+ * </pre>
+ * Non-ASCII characters are escaped so the stream does not depend on the platform encoding of either process.
+ */
+final class ProblemLine {
+
+    private static final String PREFIX = "{\"problem\":";
+
+    final Severity severity;
+    final String fileName;
+    final int line;
+    final int startColumn;
+    final int endColumn;
+    final String message;
+
+    ProblemLine(Severity severity, String fileName, int line, int startColumn, int endColumn, String message) {
+        this.severity = severity;
+        this.fileName = fileName;
+        this.line = line;
+        this.startColumn = startColumn;
+        this.endColumn = endColumn;
+        this.message = message;
+    }
+
+    static boolean isProblemLine(String text) {
+        return text != null && text.startsWith(PREFIX);
+    }
+
+    static String format(Severity severity, String fileName, int line, int startColumn, int endColumn, String message) {
+        StringBuilder sb = new StringBuilder(128);
+        sb.append(PREFIX).append('"').append(severity.name()).append('"');
+        sb.append(",\"file\":");
+        quote(fileName, sb);
+        sb.append(",\"line\":").append(line);
+        sb.append(",\"startColumn\":").append(startColumn);
+        sb.append(",\"endColumn\":").append(endColumn);
+        sb.append(",\"message\":");
+        quote(message, sb);
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Reads a line written by {@link #format}.
+     *
+     * @return the problem or {@code null} if the line is not a problem line or is malformed
+     */
+    static ProblemLine parse(String text) {
+        if (!isProblemLine(text)) {
+            return null;
+        }
+        try {
+            Reader reader = new Reader(text);
+            Severity severity = null;
+            String fileName = null, message = null;
+            int line = 0, startColumn = 0, endColumn = 0;
+
+            reader.expect('{');
+            do {
+                String name = reader.readString();
+                reader.expect(':');
+                if ("problem".equals(name)) {
+                    severity = Severity.valueOf(reader.readString());
+                } else if ("file".equals(name)) {
+                    fileName = reader.readString();
+                } else if ("message".equals(name)) {
+                    message = reader.readString();
+                } else if ("line".equals(name)) {
+                    line = reader.readInt();
+                } else if ("startColumn".equals(name)) {
+                    startColumn = reader.readInt();
+                } else if ("endColumn".equals(name)) {
+                    endColumn = reader.readInt();
+                } else {
+                    return null;
+                }
+            } while (reader.accept(','));
+            reader.expect('}');
+            if (severity == null || reader.pos != text.length()) {
+                return null;
+            }
+
+            return new ProblemLine(severity, fileName, line, startColumn, endColumn, message);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void quote(String value, StringBuilder sb) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0, n = value.length(); i < n; i += 1) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                if (c < 0x20 || c > 0x7E) {
+                    String hex = Integer.toHexString(c);
+                    sb.append("\\u");
+                    for (int j = hex.length(); j < 4; j += 1) {
+                        sb.append('0');
+                    }
+                    sb.append(hex);
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    private static class Reader {
+        private final String text;
+        private int pos;
+
+        Reader(String text) {
+            this.text = text;
+        }
+
+        boolean accept(char c) {
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos += 1;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char c) {
+            if (!accept(c)) {
+                throw new IllegalArgumentException("Expected '" + c + "' at " + pos);
+            }
+        }
+
+        int readInt() {
+            int start = pos;
+            if (pos < text.length() && text.charAt(pos) == '-') {
+                pos += 1;
+            }
+            while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                pos += 1;
+            }
+            return Integer.parseInt(text.substring(start, pos));
+        }
+
+        String readString() {
+            if (text.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c == '\\') {
+                    c = text.charAt(pos++);
+                    switch (c) {
+                    case 'n':
+                        c = '\n';
+                        break;
+                    case 'r':
+                        c = '\r';
+                        break;
+                    case 't':
+                        c = '\t';
+                        break;
+                    case 'u':
+                        c = (char) Integer.parseInt(text.substring(pos, pos + 4), 16);
+                        pos += 4;
+                        break;
+                    }
+                }
+                sb.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Codehaus.org, SpringSource, and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.codehaus.groovy.eclipse.compiler;
+
+/**
+ * Receives the problems of each compilation unit as soon as the batch compiler has finished with it.
+ * <p>
+ * Must not reference any JDT or plexus types, since it is shared by the maven side and the forked compiler.
+ */
+interface ProblemListener {
+
+    enum Severity {
+        ERROR, WARNING, INFO
+    }
+
+    /**
+     * @param severity {@link Severity#WARNING} also for tasks
+     * @param fileName originating file of the problem; may be {@code null}
+     * @param line 1-based line number, or 0 if unknown
+     * @param startColumn 1-based column of the first character of the problem, or 0 if unknown
+     * @param endColumn 1-based column of the last character of the problem, or 0 if unknown
+     */
+    void acceptProblem(Severity severity, String fileName, int line, int startColumn, int endColumn, String message);
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2016 Codehaus.org, SpringSource, and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.codehaus.groovy.eclipse.compiler;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+import org.codehaus.groovy.eclipse.compiler.ProblemListener.Severity;
+import org.eclipse.jdt.core.compiler.CategorizedProblem;
+import org.eclipse.jdt.internal.compiler.batch.Main;
+
+/**
+ * Batch compiler logger that hands the problems of each compilation unit to a {@link ProblemListener} instead of printing
+ * them. The problems are still counted and written to the -log file by {@link Main.Logger}; only their text on standard error
+ * is held back. All other output (usage errors, verbose output, the problem summary) is still written out as text.
+ */
+class StructuredLogger extends Main.Logger {
+
+    private final ProblemListener listener;
+    private final MutableWriter err;
+
+    private StructuredLogger(Main main, PrintWriter out, MutableWriter err, ProblemListener listener) {
+        super(main, out, new PrintWriter(err));
+        this.err = err;
+        this.listener = listener;
+    }
+
+    /**
+     * Replaces the logger of the given compiler. Must be called before {@link Main#compile(String[])}.
+     */
+    static void install(Main main, PrintWriter out, PrintWriter err, ProblemListener listener) {
+        main.logger = new StructuredLogger(main, out, new MutableWriter(err), listener);
+    }
+
+    @Override
+    public int logProblems(CategorizedProblem[] problems, char[] unitSource, Main currentMain) {
+        int localErrorCount;
+        err.muted = true;
+        try {
+            localErrorCount = super.logProblems(problems, unitSource, currentMain);
+        } finally {
+            err.muted = false;
+        }
+        for (CategorizedProblem problem : problems) {
+            if (problem != null) {
+                report(problem, unitSource);
+            }
+        }
+        return localErrorCount;
+    }
+
+    private void report(CategorizedProblem problem, char[] unitSource) {
+        String fileName = problem.getOriginatingFileName() != null ? new String(problem.getOriginatingFileName()) : null;
+        int line = Math.max(problem.getSourceLineNumber(), 0);
+        int startColumn = 0, endColumn = 0;
+
+        int start = problem.getSourceStart(), end = problem.getSourceEnd();
+        if (unitSource != null && start >= 0 && start < unitSource.length) {
+            int lineStart = start;
+            while (lineStart > 0 && unitSource[lineStart - 1] != '\n' && unitSource[lineStart - 1] != '\r') {
+                lineStart -= 1;
+            }
+            int lineEnd = start;
+            while (lineEnd < unitSource.length - 1 && unitSource[lineEnd + 1] != '\n' && unitSource[lineEnd + 1] != '\r') {
+                lineEnd += 1;
+            }
+            startColumn = start - lineStart + 1;
+            endColumn = Math.max(start, Math.min(end, lineEnd)) - lineStart + 1;
+        }
+
+        // isInfo() is not there in older batch compilers
+        Severity severity = problem.isError() ? Severity.ERROR : problem.isWarning() ? Severity.WARNING : Severity.INFO;
+        listener.acceptProblem(severity, fileName, line, startColumn, endColumn, problem.getMessage());
+    }
+
+    /**
+     * Passes everything through to the compiler's error writer unless muted.
+     */
+    private static class MutableWriter extends Writer {
+        private final Writer delegate;
+        volatile boolean muted;
+
+        MutableWriter(Writer delegate) {
+            super(delegate);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            if (!muted) {
+                delegate.write(cbuf, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -23,6 +23,8 @@ import junit.framework.TestSuite
 import org.eclipse.jdt.core.groovy.tests.builder.BasicGroovyBuildTests
 import org.eclipse.jdt.core.groovy.tests.builder.BuildAccessRulesTests
 import org.eclipse.jdt.core.groovy.tests.builder.FullProjectTests
+import org.eclipse.jdt.core.groovy.tests.compiler.BuildGroupsTests
+import org.eclipse.jdt.core.groovy.tests.compiler.ReconcileProfileTests
 import org.eclipse.jdt.core.groovy.tests.compiler.STCScriptsTests
 import org.eclipse.jdt.core.groovy.tests.compiler.ScriptFolderTests
 import org.eclipse.jdt.core.groovy.tests.locations.ASTConverterTests
@@ -35,6 +37,7 @@ import org.eclipse.jdt.core.groovy.tests.model.GroovyCompilationUnitTests
 import org.eclipse.jdt.core.groovy.tests.model.GroovyContentTypeTests
 import org.eclipse.jdt.core.groovy.tests.model.GroovyPartialModelTests
 import org.eclipse.jdt.core.groovy.tests.model.MoveRenameCopyTests
+import org.eclipse.jdt.core.groovy.tests.model.SupertypeParseTests
 import org.eclipse.jdt.core.groovy.tests.search.AllSearchTests
 // From org.eclipse.jdt.groovy.core.tests.compiler plug-in:
 import org.eclipse.jdt.groovy.core.tests.basic.AnnotationsTests
@@ -64,10 +67,12 @@ final class GroovyJDTTests {
 
         // Compiler tests
         suite.addTest(AnnotationsTests.suite())
+        suite.addTestSuite(BuildGroupsTests)
         suite.addTest(ErrorRecoveryTests.suite())
         suite.addTest(GenericsTests.suite())
         suite.addTest(GroovySimpleTest.suite())
         suite.addTest(GroovySimpleTests_Compliance_1_8.suite())
+        suite.addTest(ReconcileProfileTests.suite())
         suite.addTest(ScriptFolderTests.suite())
         suite.addTest(STCScriptsTests.suite())
         if (isAtLeastGroovy(23))
@@ -87,6 +92,7 @@ final class GroovyJDTTests {
         suite.addTest(GroovyContentTypeTests.suite())
         suite.addTest(GroovyPartialModelTests.suite())
         suite.addTest(MoveRenameCopyTests.suite())
+        suite.addTest(SupertypeParseTests.suite())
 
         // Search tests
         suite.addTest(AllSearchTests.suite())
@@ -76,6 +76,7 @@ public abstract class CompletionTestCase extends TestCase {
 
     @Override
     protected void tearDown() throws Exception {
+        System.clearProperty(GroovyCompletionProposalComputer.SEARCH_BUDGET_PROPERTY);
         EclipseTestSetup.removeSources();
     }
 
@@ -83,6 +84,8 @@ public abstract class CompletionTestCase extends TestCase {
     protected void setUp() throws Exception {
         System.out.println("----------------------------------------");
         System.out.println("Starting: " + getName());
+        // wait for type proposals however long the search takes; the expectations depend on them
+        System.setProperty(GroovyCompletionProposalComputer.SEARCH_BUDGET_PROPERTY, "0");
     }
 
     protected CompilationUnit addJavaSource(CharSequence contents, String name, String pack) {
@@ -94,11 +97,15 @@ public abstract class CompletionTestCase extends TestCase {
     }
 
     protected ICompletionProposal[] performContentAssist(ICompilationUnit unit, int offset, Class<? extends IJavaCompletionProposalComputer> computerClass) throws Exception {
+        return performContentAssist(unit, offset, computerClass.newInstance());
+    }
+
+    protected ICompletionProposal[] performContentAssist(ICompilationUnit unit, int offset, IJavaCompletionProposalComputer computer) throws Exception {
         EclipseTestSetup.waitForIndex();
         JavaEditor editor = EclipseTestSetup.openInEditor(unit);
         JavaSourceViewer viewer = (JavaSourceViewer) editor.getViewer();
         JavaContentAssistInvocationContext context = new JavaContentAssistInvocationContext(viewer, offset, editor);
-        List<ICompletionProposal> proposals = computerClass.newInstance().computeCompletionProposals(context, null);
+        List<ICompletionProposal> proposals = computer.computeCompletionProposals(context, null);
 
         return proposals.toArray(new ICompletionProposal[proposals.size()]);
     }
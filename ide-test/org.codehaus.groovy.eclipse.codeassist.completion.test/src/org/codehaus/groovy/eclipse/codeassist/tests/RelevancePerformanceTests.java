@@ -0,0 +1,104 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.codeassist.tests;
+
+import junit.framework.Test;
+
+import org.codehaus.groovy.eclipse.codeassist.relevance.RelevanceContext;
+import org.codehaus.groovy.eclipse.codeassist.relevance.RelevanceRules;
+import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.IAccessRule;
+import org.eclipse.jdt.core.IType;
+
+/**
+ * Measures the cost of scoring type proposals with {@link RelevanceRules}
+ * against the length of the proposal list. Each list is scored per proposal
+ * with the context types (as done before relevance contexts existed), per
+ * proposal with a precomputed {@link RelevanceContext}, and in one batch pass.
+ * The three must agree; timings are written to standard out.
+ * <p>
+ * Not part of {@link AllCompletionTests}; run it on its own. The number of
+ * rounds can be changed with <code>-Dgreclipse.perf.rounds=N</code>.
+ */
+public final class RelevancePerformanceTests extends CompletionTestCase {
+
+    public static Test suite() {
+        return newTestSuite(RelevancePerformanceTests.class);
+    }
+
+    private static final int[] LIST_SIZES = {100, 500, 2000, 10000};
+
+    private static final String[] PACKAGES = {
+        "java.util", "java.util.concurrent", "javax.swing", "groovy.lang", "groovyx.net.http",
+        "com.example.app", "com.example.app.model", "com.example.other", "org.apache.commons.lang", "net.sf.json"
+    };
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = Integer.getInteger("greclipse.perf.rounds", 100);
+
+    public void testPerfScoring() throws Exception {
+        GroovyCompilationUnit unit = addGroovySource("class Context {}\nclass Helper {}", "Context", "com.example.app");
+        IType[] contextTypes = unit.getAllTypes();
+        RelevanceRules rules = RelevanceRules.ALL_RULES;
+
+        StringBuilder sb = new StringBuilder("Relevance scoring: ").append(ROUNDS).append(" rounds\n");
+        sb.append(String.format("  %8s %16s %16s %16s%n", "size", "ns/proposal", "with context", "batch"));
+        for (int size : LIST_SIZES) {
+            char[][] names = new char[size][];
+            int[] accessibility = new int[size];
+            int[] modifiers = new int[size];
+            for (int i = 0; i < size; i += 1) {
+                names[i] = (PACKAGES[i % PACKAGES.length] + ".Type" + i).toCharArray();
+                accessibility[i] = (i % 7 == 0) ? IAccessRule.K_DISCOURAGED : IAccessRule.K_ACCESSIBLE;
+                modifiers[i] = (i % 3 == 0) ? Flags.AccPublic : Flags.AccDefault;
+            }
+
+            // the three ways of scoring must agree
+            RelevanceContext context = new RelevanceContext(contextTypes);
+            int[] batch = rules.getRelevance(names, context, accessibility, modifiers);
+            for (int i = 0; i < size; i += 1) {
+                int expected = rules.getRelevance(names[i], contextTypes, accessibility[i], modifiers[i]);
+                assertEquals("Relevance of " + String.valueOf(names[i]), expected, rules.getRelevance(names[i], context, accessibility[i], modifiers[i]));
+                assertEquals("Batch relevance of " + String.valueOf(names[i]), expected, batch[i]);
+            }
+
+            long perProposal = 0, withContext = 0, batched = 0;
+            for (int round = -WARMUP_ROUNDS; round < ROUNDS; round += 1) {
+                long start = System.nanoTime();
+                for (int i = 0; i < size; i += 1) {
+                    rules.getRelevance(names[i], contextTypes, accessibility[i], modifiers[i]);
+                }
+                long mid1 = System.nanoTime();
+                context = new RelevanceContext(contextTypes);
+                for (int i = 0; i < size; i += 1) {
+                    rules.getRelevance(names[i], context, accessibility[i], modifiers[i]);
+                }
+                long mid2 = System.nanoTime();
+                rules.getRelevance(names, new RelevanceContext(contextTypes), accessibility, modifiers);
+                long end = System.nanoTime();
+                if (round >= 0) {
+                    perProposal += mid1 - start;
+                    withContext += mid2 - mid1;
+                    batched += end - mid2;
+                }
+            }
+            double count = (double) size * ROUNDS;
+            sb.append(String.format("  %8d %16.1f %16.1f %16.1f%n", size, perProposal / count, withContext / count, batched / count));
+        }
+        System.out.println(sb);
+    }
+}
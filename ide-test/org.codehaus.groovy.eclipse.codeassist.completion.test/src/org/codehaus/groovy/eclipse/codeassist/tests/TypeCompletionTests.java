@@ -18,7 +18,11 @@ package org.codehaus.groovy.eclipse.codeassist.tests;
 import static org.eclipse.jdt.ui.PreferenceConstants.TYPEFILTER_ENABLED;
 
 import junit.framework.Test;
+import org.codehaus.groovy.eclipse.codeassist.requestor.GroovyCompletionProposalComputer;
 import org.codehaus.groovy.eclipse.test.EclipseTestSetup;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.groovy.core.util.ReflectionUtils;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
 
 /**
@@ -247,4 +251,33 @@ public final class TypeCompletionTests extends CompletionTestCase {
             EclipseTestSetup.setJavaPreference(TYPEFILTER_ENABLED, "");
         }
     }
+
+    public void testSearchBudget1() throws Exception {
+        // nothing but the search can propose here, so it is waited for whatever the budget
+        System.setProperty(GroovyCompletionProposalComputer.SEARCH_BUDGET_PROPERTY, "1");
+        String contents = "class Foo extends JFr {\n}";
+        ICompletionProposal[] proposals = createProposalsAtOffset(contents, getIndexOf(contents, "JFr"));
+        proposalExists(proposals, "JFrame - javax.swing", 1, true);
+    }
+
+    public void testSearchBudget2() throws Exception {
+        System.setProperty(GroovyCompletionProposalComputer.SEARCH_BUDGET_PROPERTY, "1");
+        String contents = "def JFrameHolder = null\nJFr";
+        ICompilationUnit unit = addGroovySource(contents, "CompletionTest", "");
+        EclipseTestSetup.buildProject();
+
+        GroovyCompletionProposalComputer computer = new GroovyCompletionProposalComputer();
+        ICompletionProposal[] proposals = performContentAssist(unit, contents.length(), computer);
+        proposalExists(proposals, "JFrameHolder", 1);
+        computer.sessionEnded();
+
+        // a search that missed the budget outlives the session and is handed out at the same place
+        Job pending = (Job) ReflectionUtils.getPrivateField(GroovyCompletionProposalComputer.class, "pendingSearch", computer);
+        if (pending != null) {
+            pending.join();
+            proposals = performContentAssist(unit, contents.length(), computer);
+            proposalExists(proposals, "JFrameHolder", 1);
+        }
+        proposalExists(proposals, "JFrame - javax.swing", 1, true);
+    }
 }
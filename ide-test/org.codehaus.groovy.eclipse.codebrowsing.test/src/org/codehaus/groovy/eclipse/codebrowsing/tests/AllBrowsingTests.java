@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -47,6 +47,7 @@ public final class AllBrowsingTests {
         suite.addTest(astVisitorTests);
         suite.addTest(codeSelectTests);
         suite.addTestSuite(IsSameExpressionTests.class);
+        suite.addTestSuite(StructuralHashTests.class);
         suite.addTestSuite(FindAllOccurrencesVisitorTests.class);
         return suite;
     }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.codebrowsing.tests;
+
+import org.codehaus.groovy.eclipse.codebrowsing.fragments.IASTFragment;
+import org.codehaus.groovy.eclipse.codebrowsing.selection.StructuralHash;
+
+/**
+ * Tests that {@link StructuralHash} agrees with fragment matching: fragments
+ * that match have the same hash, and so do their associated expressions, which
+ * is what {@link org.codehaus.groovy.eclipse.codebrowsing.selection.FindAllOccurrencesVisitor}
+ * relies on to skip candidates.
+ */
+public final class StructuralHashTests extends CheckerTestCase {
+
+    public void testSameHash1() throws Exception {
+        checkTwoFragments("a", "a", true);
+    }
+
+    public void testSameHash2() throws Exception {
+        checkTwoFragments("a + b", "a+b", true);
+    }
+
+    public void testSameHash3() throws Exception {
+        checkTwoFragments("a.b", "a .    b", true);
+    }
+
+    public void testSameHash4() throws Exception {
+        checkTwoFragments("a.&b", "a .&    b", true);
+    }
+
+    public void testSameHash5() throws Exception {
+        checkTwoFragments("a.b(f).j", "a .    b(f).j", true);
+    }
+
+    public void testSameHash6() throws Exception {
+        checkTwoFragments("b(f, f(h, 'fdsafd'), f).b(f + g).b(f).&b.b.b(f).b", "b(f, f(h, 'fdsafd'), f).b(f + g).b(f).&b.b.b(f).b", true);
+    }
+
+    public void testSameHash7() throws Exception {
+        checkTwoFragments("parent*.action", "parent   *.   //  \n\n /**/ action", true);
+    }
+
+    public void testSameHash8() throws Exception {
+        checkTwoFragments("user.male ? \"male\" : \"female\"", "user.male ? 'male' : 'female'", true);
+    }
+
+    public void testSameHash9() throws Exception {
+        checkTwoFragments("println x.@field", "println x.@   field", true);
+    }
+
+    public void testDifferentHash1() throws Exception {
+        checkTwoFragments("a", "b", false);
+    }
+
+    public void testDifferentHash2() throws Exception {
+        checkTwoFragments("a + b", "a - b", false);
+    }
+
+    public void testDifferentHash3() throws Exception {
+        checkTwoFragments("a.b", "a.c", false);
+    }
+
+    public void testDifferentHash4() throws Exception {
+        checkTwoFragments("a.b", "a?.b", false);
+    }
+
+    public void testDifferentHash5() throws Exception {
+        checkTwoFragments("a.b(f)", "a.b(g)", false);
+    }
+
+    public void testDifferentHash6() throws Exception {
+        checkTwoFragments("foo(666, FOO)", "foo(667, FOO)", false);
+    }
+
+    public void testDifferentHash7() throws Exception {
+        checkTwoFragments("['cat', 'elephant']*.size() == [3, 8]", "['cat', 'elephant']*.size() != [3, 8]", false);
+    }
+
+    public void testDifferentHash8() throws Exception {
+        checkTwoFragments("\"$foo   \"", "\"$foo\"", false);
+    }
+
+    private void checkTwoFragments(String first, String second, boolean matches) {
+        IASTFragment firstFragment = getLastFragment(createModuleFromText(first));
+        IASTFragment secondFragment = getLastFragment(createModuleFromText(second));
+        String end = "\nFirst fragment:\n" + firstFragment + "\n\nSecond fragment:\n" + secondFragment;
+        assertEquals((matches ? "Fragments should have matched" : "Fragments should not have matched") + end,
+            matches, firstFragment.matches(secondFragment));
+
+        StructuralHash hash = new StructuralHash();
+        if (matches) {
+            assertEquals("Matching fragments should have the same hash" + end, hash.hash(firstFragment), hash.hash(secondFragment));
+            assertEquals("Matching fragments should have associated expressions with the same hash" + end,
+                hash.hash(firstFragment.getAssociatedExpression()), hash.hash(secondFragment.getAssociatedExpression()));
+        } else {
+            assertFalse("Fragments that do not match should have different hashes" + end, hash.hash(firstFragment) == hash.hash(secondFragment));
+        }
+    }
+}
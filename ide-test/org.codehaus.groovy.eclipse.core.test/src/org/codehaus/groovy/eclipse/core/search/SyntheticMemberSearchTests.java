@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,6 +25,7 @@ import org.eclipse.jdt.core.IField;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.SearchEngine;
 import org.eclipse.jdt.core.search.SearchMatch;
 
 /**
@@ -225,6 +226,37 @@ public class SyntheticMemberSearchTests extends EclipseTestCase {
         assertNumMatch(0, matches);
     }
 
+    public void testGroupedSearch() throws Exception {
+        String contents =
+                "new p.G().prop\n" +
+                "new p.G().setProp()\n" +
+                "new p.G().isProp()\n" +
+                "new p.G().getProp()\n";
+        testProject.createGroovyTypeAndPackage("", "Script.groovy", contents);
+        SyntheticAccessorSearchRequestor.GroupedMatches results = new SyntheticAccessorSearchRequestor().findGroupedMatches(
+                findSearchTarget("prop"), true, SearchEngine.createWorkspaceScope(), null);
+        assertEquals("Synthetic matches should be grouped into a single resource", 1, results.getSyntheticMatches().size());
+        List<SearchMatch> matches = results.getAllSyntheticMatches();
+        assertNumMatch(3, matches);
+        assertMatch("run", "getProp", contents, matches);
+        assertMatch("run", "setProp", contents, matches);
+        assertMatch("run", "isProp", contents, matches);
+        assertEquals("Target reference should be found in the same pass", 1, results.getTargetMatches().size());
+    }
+
+    public void testGroupedSearchWithoutTarget() throws Exception {
+        String contents =
+                "new p.G().prop\n" +
+                "new p.G().getProp()\n";
+        testProject.createGroovyTypeAndPackage("", "Script.groovy", contents);
+        SyntheticAccessorSearchRequestor.GroupedMatches results = new SyntheticAccessorSearchRequestor().findGroupedMatches(
+                findSearchTarget("prop"), false, SearchEngine.createWorkspaceScope(), null);
+        assertTrue("Target references should not be searched for", results.getTargetMatches().isEmpty());
+        List<SearchMatch> matches = results.getAllSyntheticMatches();
+        assertNumMatch(1, matches);
+        assertMatch("run", "getProp", contents, matches);
+    }
+
     private IJavaElement findSearchTarget(String name) throws JavaModelException {
         for (IJavaElement child : gType.getChildren()) {
             if (child.getElementName().equals(name)) {
@@ -16,13 +16,22 @@
 package org.codehaus.groovy.eclipse.dsl.tests;
 
 import java.util.Collections;
+import java.util.List;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import org.codehaus.groovy.ast.ClassHelper;
 import org.codehaus.groovy.eclipse.dsl.DSLDStore;
 import org.codehaus.groovy.eclipse.dsl.DSLPreferences;
+import org.codehaus.groovy.eclipse.dsl.contributions.ContributionGroup;
+import org.codehaus.groovy.eclipse.dsl.contributions.IContributionElement;
+import org.codehaus.groovy.eclipse.dsl.contributions.IContributionGroup;
+import org.codehaus.groovy.eclipse.dsl.pointcuts.BindingSet;
+import org.codehaus.groovy.eclipse.dsl.pointcuts.GroovyDSLDContext;
+import org.codehaus.groovy.eclipse.dsl.pointcuts.IPointcut;
 import org.codehaus.groovy.eclipse.dsl.pointcuts.impl.CurrentTypePointcut;
+import org.codehaus.groovy.eclipse.dsl.pointcuts.impl.FileExtensionPointcut;
 import org.codehaus.groovy.eclipse.dsl.pointcuts.impl.FindFieldPointcut;
 import org.eclipse.core.resources.IStorage;
 import org.eclipse.jdt.core.JavaCore;
@@ -334,4 +343,51 @@ public final class DSLStoreTests extends AbstractDSLInferencingTest {
                     )
             );
     }
+
+    public void testImpureGroupsNotMemoized() throws Exception {
+        final int[] calls = new int[3];
+        IContributionGroup pure = new ContributionGroup() {
+            @Override
+            public List<IContributionElement> getContributions(GroovyDSLDContext pattern, BindingSet matches) {
+                calls[0] += 1;
+                return super.getContributions(pattern, matches);
+            }
+        };
+        IContributionGroup impure = new ContributionGroup() {
+            @Override
+            public List<IContributionElement> getContributions(GroovyDSLDContext pattern, BindingSet matches) {
+                calls[1] += 1;
+                return super.getContributions(pattern, matches);
+            }
+
+            @Override
+            public boolean isPure() {
+                return false;
+            }
+        };
+        IContributionGroup other = new IContributionGroup() {
+            public List<IContributionElement> getContributions(GroovyDSLDContext pattern, BindingSet matches) {
+                calls[2] += 1;
+                return Collections.emptyList();
+            }
+        };
+
+        IPointcut pointcut = new FileExtensionPointcut(project.getFile("dsl0.dsld"), "fileExtension");
+        pointcut.addArgument("groovy");
+        DSLDStore store = new DSLDStore();
+        store.addContributionGroup(pointcut, pure);
+        store.addContributionGroup(pointcut, impure);
+        store.addContributionGroup(pointcut, other);
+
+        @SuppressWarnings("deprecation")
+        GroovyDSLDContext pattern = new GroovyDSLDContext(new String[0], "src/p/Script.groovy", "src");
+        pattern.setTargetType(ClassHelper.OBJECT_TYPE);
+        DSLDStore subStore = store.createSubStore(pattern);
+        for (int i = 0; i < 3; i += 1) {
+            subStore.findContributions(pattern, Collections.<String>emptySet());
+        }
+        assertEquals("Pure group should have been run once", 1, calls[0]);
+        assertEquals("Impure group should have been run every time", 3, calls[1]);
+        assertEquals("Group of unknown purity should have been run every time", 3, calls[2]);
+    }
 }
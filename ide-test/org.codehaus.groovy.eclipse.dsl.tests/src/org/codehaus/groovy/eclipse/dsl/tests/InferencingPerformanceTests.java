@@ -0,0 +1,172 @@
+/*
+ * Copyright 2009-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.dsl.tests;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.eclipse.GroovyLogManager;
+import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.groovy.search.ITypeLookup;
+import org.eclipse.jdt.groovy.search.ITypeRequestor;
+import org.eclipse.jdt.groovy.search.TypeInferencingVisitorWithRequestor;
+import org.eclipse.jdt.groovy.search.TypeLookupResult;
+
+/**
+ * Measures the inferencing engine over a fixed corpus of Spock specs, Grails
+ * controllers, builder DSLs and nested closures. Every lookup registered for the
+ * project (STC, DSLD, category and simple) is wrapped in a {@link TimingTypeLookup}
+ * and the visit is driven with a requestor that does nothing, so the numbers
+ * reflect inferencing alone. Results are written to standard out.
+ * <p>
+ * Not part of {@link AllDSLTests}; run it on its own, e.g. with
+ * <code>-Dtest=InferencingPerformanceTests</code>. The number of rounds can be
+ * changed with <code>-Dgreclipse.perf.rounds=N</code>.
+ */
+public class InferencingPerformanceTests extends AbstractDSLInferencingTest {
+
+    private static final String[] CORPUS = {
+        "StackSpec", "BookController", "BuilderDsl", "NestedClosures"
+    };
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = Integer.getInteger("greclipse.perf.rounds", 100);
+
+    public InferencingPerformanceTests(String name) {
+        super(name);
+    }
+
+    public static Test suite() {
+        return new TestSuite(InferencingPerformanceTests.class);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        doRemoveClasspathContainer = false;
+        super.setUp();
+        // trace output would swamp the measurement
+        GroovyLogManager.manager.removeLogger(logger);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        GroovyLogManager.manager.addLogger(logger);
+        super.tearDown();
+    }
+
+    public void testPerfInferencing() throws Exception {
+        List<GroovyCompilationUnit> units = new ArrayList<GroovyCompilationUnit>();
+        for (String name : CORPUS) {
+            String contents = GroovyDSLDTestsActivator.getDefault().getTestResourceContents("inferencing/" + name + ".groovy");
+            units.add(createUnit(name, contents));
+        }
+
+        ITypeLookup[] registered = factory.createLookups(project);
+        TimingTypeLookup[] lookups = new TimingTypeLookup[registered.length];
+        for (int i = 0; i < registered.length; i += 1) {
+            lookups[i] = new TimingTypeLookup(registered[i]);
+        }
+
+        try {
+            for (GroovyCompilationUnit unit : units) {
+                // keep the module nodes cached so that only inferencing is measured
+                unit.becomeWorkingCopy(null);
+                assertNotNull("No module node for " + unit.getElementName(), unit.getModuleNode());
+            }
+
+            NoopRequestor requestor = new NoopRequestor();
+            for (int i = 0; i < WARMUP_ROUNDS; i += 1) {
+                visitAll(units, lookups, requestor);
+            }
+            for (TimingTypeLookup lookup : lookups) {
+                lookup.reset();
+            }
+            requestor.nodes = 0;
+
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i += 1) {
+                visitAll(units, lookups, requestor);
+            }
+            long elapsed = System.nanoTime() - start;
+            long bytes = allocatedBytes() - bytesBefore;
+
+            assertTrue("Visit should have seen some nodes", requestor.nodes > 0);
+            report(units.size(), elapsed, bytesBefore < 0 ? -1 : bytes, requestor.nodes, lookups);
+        } finally {
+            for (GroovyCompilationUnit unit : units) {
+                unit.discardWorkingCopy();
+            }
+        }
+    }
+
+    private void visitAll(List<GroovyCompilationUnit> units, ITypeLookup[] lookups, ITypeRequestor requestor) {
+        for (GroovyCompilationUnit unit : units) {
+            TypeInferencingVisitorWithRequestor visitor = factory.createVisitor(unit, lookups);
+            visitor.visitCompilationUnit(requestor);
+        }
+    }
+
+    private void report(int unitCount, long elapsed, long bytes, long nodes, TimingTypeLookup[] lookups) {
+        double seconds = elapsed / 1e9;
+        StringBuilder sb = new StringBuilder();
+        sb.append("Inferencing: ").append(ROUNDS).append(" rounds over ").append(unitCount).append(" units\n");
+        sb.append(String.format("  total:       %.1f ms%n", elapsed / 1e6));
+        sb.append(String.format("  throughput:  %.1f units/s, %.0f nodes/s%n", ROUNDS * unitCount / seconds, nodes / seconds));
+        if (bytes >= 0) {
+            sb.append(String.format("  allocation:  %.1f MB/s, %.1f KB/unit%n", bytes / seconds / (1024 * 1024), bytes / 1024.0 / (ROUNDS * unitCount)));
+        } else {
+            sb.append("  allocation:  not available on this VM\n");
+        }
+        for (TimingTypeLookup lookup : lookups) {
+            sb.append(String.format("  %-20s %10.1f ms %12d calls %8.0f ns/call%n", lookup.getDelegate().getClass().getSimpleName(),
+                    lookup.getNanos() / 1e6, lookup.getCalls(), lookup.getCalls() == 0 ? 0.0 : (double) lookup.getNanos() / lookup.getCalls()));
+        }
+        System.out.println(sb);
+    }
+
+    /**
+     * @return bytes allocated so far by the current thread, or -1 if the VM
+     *         does not expose that figure
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        try {
+            Method method = bean.getClass().getMethod("getThreadAllocatedBytes", long.class);
+            method.setAccessible(true);
+            return (Long) method.invoke(bean, Thread.currentThread().getId());
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static class NoopRequestor implements ITypeRequestor {
+        long nodes;
+
+        public VisitStatus acceptASTNode(ASTNode node, TypeLookupResult result, IJavaElement enclosingElement) {
+            nodes += 1;
+            return VisitStatus.CONTINUE;
+        }
+    }
+}
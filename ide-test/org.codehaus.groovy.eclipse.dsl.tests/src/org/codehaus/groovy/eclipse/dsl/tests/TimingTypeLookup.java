@@ -0,0 +1,172 @@
+/*
+ * Copyright 2009-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.dsl.tests;
+
+import org.codehaus.groovy.ast.AnnotationNode;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.FieldNode;
+import org.codehaus.groovy.ast.ImportNode;
+import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.Parameter;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.stmt.BlockStatement;
+import org.codehaus.jdt.groovy.internal.compiler.ast.JDTResolver;
+import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
+import org.eclipse.jdt.groovy.search.ITypeLookup;
+import org.eclipse.jdt.groovy.search.ITypeLookupExtension;
+import org.eclipse.jdt.groovy.search.ITypeResolver;
+import org.eclipse.jdt.groovy.search.TypeLookupResult;
+import org.eclipse.jdt.groovy.search.VariableScope;
+
+/**
+ * Wraps an {@link ITypeLookup} and accumulates the time spent inside it.
+ * Calls are forwarded exactly as the inferencing visitor would make them, so
+ * the delegate sees the same sequence with or without the wrapper.
+ */
+public class TimingTypeLookup implements ITypeLookupExtension, ITypeResolver {
+
+    private final ITypeLookup delegate;
+    private long nanos;
+    private long calls;
+
+    public TimingTypeLookup(ITypeLookup delegate) {
+        this.delegate = delegate;
+    }
+
+    public ITypeLookup getDelegate() {
+        return delegate;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public void reset() {
+        nanos = 0;
+        calls = 0;
+    }
+
+    private void record(long start) {
+        nanos += System.nanoTime() - start;
+        calls += 1;
+    }
+
+    public void setResolverInformation(ModuleNode module, JDTResolver resolver) {
+        if (delegate instanceof ITypeResolver) {
+            ((ITypeResolver) delegate).setResolverInformation(module, resolver);
+        }
+    }
+
+    public void initialize(GroovyCompilationUnit unit, VariableScope topLevelScope) {
+        long start = System.nanoTime();
+        try {
+            delegate.initialize(unit, topLevelScope);
+        } finally {
+            record(start);
+        }
+    }
+
+    public TypeLookupResult lookupType(Expression node, VariableScope scope, ClassNode objectExpressionType, boolean isStaticObjectExpression) {
+        long start = System.nanoTime();
+        try {
+            if (delegate instanceof ITypeLookupExtension) {
+                return ((ITypeLookupExtension) delegate).lookupType(node, scope, objectExpressionType, isStaticObjectExpression);
+            }
+            return delegate.lookupType(node, scope, objectExpressionType);
+        } finally {
+            record(start);
+        }
+    }
+
+    public void lookupInBlock(BlockStatement node, VariableScope scope) {
+        if (delegate instanceof ITypeLookupExtension) {
+            long start = System.nanoTime();
+            try {
+                ((ITypeLookupExtension) delegate).lookupInBlock(node, scope);
+            } finally {
+                record(start);
+            }
+        }
+    }
+
+    public TypeLookupResult lookupType(Expression node, VariableScope scope, ClassNode objectExpressionType) {
+        long start = System.nanoTime();
+        try {
+            return delegate.lookupType(node, scope, objectExpressionType);
+        } finally {
+            record(start);
+        }
+    }
+
+    public TypeLookupResult lookupType(FieldNode node, VariableScope scope) {
+        long start = System.nanoTime();
+        try {
+            return delegate.lookupType(node, scope);
+        } finally {
+            record(start);
+        }
+    }
+
+    public TypeLookupResult lookupType(MethodNode node, VariableScope scope) {
+        long start = System.nanoTime();
+        try {
+            return delegate.lookupType(node, scope);
+        } finally {
+            record(start);
+        }
+    }
+
+    public TypeLookupResult lookupType(AnnotationNode node, VariableScope scope) {
+        long start = System.nanoTime();
+        try {
+            return delegate.lookupType(node, scope);
+        } finally {
+            record(start);
+        }
+    }
+
+    public TypeLookupResult lookupType(ImportNode node, VariableScope scope) {
+        long start = System.nanoTime();
+        try {
+            return delegate.lookupType(node, scope);
+        } finally {
+            record(start);
+        }
+    }
+
+    public TypeLookupResult lookupType(ClassNode node, VariableScope scope) {
+        long start = System.nanoTime();
+        try {
+            return delegate.lookupType(node, scope);
+        } finally {
+            record(start);
+        }
+    }
+
+    public TypeLookupResult lookupType(Parameter node, VariableScope scope) {
+        long start = System.nanoTime();
+        try {
+            return delegate.lookupType(node, scope);
+        } finally {
+            record(start);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+class Book {
+    String title
+    String author
+    Date published
+    BigDecimal price
+    static constraints = {
+        title blank: false, maxSize: 255
+        author nullable: true
+        price min: 0.0
+    }
+}
+
+class BookController {
+    static allowedMethods = [save: 'POST', update: 'PUT', delete: 'DELETE']
+
+    def bookService
+
+    def index(Integer max) {
+        params.max = Math.min(max ?: 10, 100)
+        respond Book.list(params), model: [bookCount: Book.count()]
+    }
+
+    def show(Book book) {
+        respond book
+    }
+
+    def save(Book book) {
+        if (book == null) {
+            render status: 404
+            return
+        }
+        if (book.hasErrors()) {
+            respond book.errors, view: 'create'
+            return
+        }
+        book.save flush: true
+        flash.message = "Saved ${book.title} by ${book.author?.toUpperCase()}"
+        redirect action: 'show', id: book.id
+    }
+
+    def search(String q) {
+        def results = Book.findAll { it.title.contains(q) || it.author?.contains(q) }
+        def byAuthor = results.groupBy { it.author }
+        def totals = byAuthor.collectEntries { author, books ->
+            [(author): books*.price.sum()]
+        }
+        render(view: 'search', model: [results: results, totals: totals, query: q])
+    }
+}
@@ -0,0 +1,51 @@
+import groovy.xml.MarkupBuilder
+import groovy.json.JsonBuilder
+
+class Report {
+    String name
+    List<Map<String, Object>> rows = []
+
+    String toHtml() {
+        def writer = new StringWriter()
+        def html = new MarkupBuilder(writer)
+        html.html {
+            head {
+                title(name)
+                style(type: 'text/css', 'td { padding: 2px }')
+            }
+            body {
+                h1(class: 'title', name)
+                table {
+                    tr {
+                        rows.first().keySet().each { key -> th(key) }
+                    }
+                    rows.eachWithIndex { row, i ->
+                        tr(class: i % 2 ? 'odd' : 'even') {
+                            row.values().each { value -> td(value?.toString()) }
+                        }
+                    }
+                }
+                p("Generated ${new Date().format('yyyy-MM-dd')}")
+            }
+        }
+        writer.toString()
+    }
+
+    String toJson() {
+        def json = new JsonBuilder()
+        json {
+            report name
+            count rows.size()
+            entries rows.collect { row ->
+                row.collectEntries { k, v -> [(k): v instanceof Number ? v.doubleValue() : v] }
+            }
+        }
+        json.toPrettyString()
+    }
+}
+
+def report = new Report(name: 'Totals')
+report.rows << [item: 'apples', count: 3, price: 1.5]
+report.rows << [item: 'pears', count: 7, price: 0.75]
+println report.toHtml()
+println report.toJson()
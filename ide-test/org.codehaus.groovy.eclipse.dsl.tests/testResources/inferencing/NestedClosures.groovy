@@ -0,0 +1,38 @@
+class Pipeline {
+    Map<String, List<Integer>> data = [:].withDefault { [] }
+
+    def process(Closure<?> step) {
+        step.delegate = this
+        step.resolveStrategy = Closure.DELEGATE_FIRST
+        step()
+    }
+
+    def run() {
+        process {
+            data.a = (1..20).toList()
+            data.b = data.a.findAll { it % 3 == 0 }
+            data.keySet().each { String key ->
+                data[key].eachWithIndex { Integer value, int index ->
+                    [1, 2, 3].inject(0) { acc, n ->
+                        def inner = { m ->
+                            def deeper = { k ->
+                                { j -> value * m + k * j + index }.call(n)
+                            }
+                            deeper(m + acc)
+                        }
+                        acc + inner(n).intdiv(1)
+                    }
+                }
+            }
+            data.collectEntries { k, v ->
+                [(k.toUpperCase()): v.collect { x -> x.toString().padLeft(3, '0') }.join(',')]
+            }
+        }
+    }
+}
+
+def p = new Pipeline()
+def out = p.run()
+out.each { k, v -> println "$k -> ${v.split(',').size()}" }
+def memo = { n -> n < 2 ? n : call(n - 1) + call(n - 2) }.memoize()
+assert memo(15) == 610
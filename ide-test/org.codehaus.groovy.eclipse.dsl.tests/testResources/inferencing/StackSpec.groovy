@@ -0,0 +1,56 @@
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class StackSpec extends Specification {
+    def stack = new Stack<Integer>()
+
+    def "push adds an element"() {
+        given:
+        def before = stack.size()
+
+        when:
+        stack.push(42)
+
+        then:
+        stack.size() == before + 1
+        stack.peek() == 42
+        notThrown(EmptyStackException)
+    }
+
+    @Unroll
+    def "max of #a and #b is #c"() {
+        expect:
+        Math.max(a, b) == c
+
+        where:
+        a | b || c
+        1 | 3 || 3
+        7 | 4 || 7
+        0 | 0 || 0
+    }
+
+    def "pop on an empty stack fails"() {
+        when:
+        stack.pop()
+
+        then:
+        def e = thrown(EmptyStackException)
+        e.message == null
+    }
+
+    def "elements come back in reverse order"() {
+        given:
+        def values = (1..10).collect { it * 2 }
+
+        when:
+        values.each { stack.push(it) }
+        def popped = []
+        while (!stack.empty()) {
+            popped << stack.pop()
+        }
+
+        then:
+        popped == values.reverse()
+        popped.every { int v -> v % 2 == 0 }
+    }
+}
@@ -16,8 +16,11 @@
 package org.codehaus.groovy.eclipse.test.actions
 
 import junit.framework.Test
+import org.codehaus.groovy.eclipse.refactoring.actions.OrganizeGroovyImports
+import org.codehaus.groovy.eclipse.refactoring.actions.TypeSearch
 import org.codehaus.groovy.eclipse.test.EclipseTestSetup
 import org.eclipse.jdt.core.tests.util.GroovyUtils
+import org.eclipse.text.edits.InsertEdit
 
 /**
  * Tests for {@link org.codehaus.groovy.eclipse.refactoring.actions.OrganizeGroovyImports}
@@ -1209,5 +1212,61 @@ final class OrganizeImportsTest extends AbstractOrganizeImportsTest {
         doContentsCompareTest(contents, contents)
     }
 
+    void testOrganizeWithPrefetchedTypes() {
+        def unit1 = createGroovyType('main', 'Main1', '''\
+            FirstClass f
+            ''')
+        def unit2 = createGroovyType('main', 'Main2', '''\
+            SecondClass s = new FirstClass()
+            ''')
+        EclipseTestSetup.buildProject()
+        EclipseTestSetup.waitForIndex()
+
+        def search = new TypeSearch()
+        def references = [unit1, unit2].collect { new OrganizeGroovyImports(it, null).findUnresolvedReferences() }
+        Set<String> names = []
+        references.each { names.addAll(it.missingTypeNames) }
+        assertEquals(['FirstClass', 'SecondClass'] as Set, names)
+        search.prefetchTypes(unit1.javaProject, names + 'ThirdClass', null)
+
+        // a reference only the prefetch pass knows about shows whether the module was visited again
+        references.each { it.@missingTypes.put('ThirdClass', new TypeSearch.UnresolvedTypeData('ThirdClass', false, null)) }
+
+        [unit1, unit2].eachWithIndex { unit, i ->
+            def organize = new OrganizeGroovyImports(unit, new NoChoiceQuery())
+            organize.setTypeSearch(search)
+            organize.setUnresolvedReferences(references[i])
+            def edit = organize.calculateMissingImports()
+            def inserted = edit.children.findAll { it instanceof InsertEdit }*.text.join()
+            assertTrue(inserted, inserted.contains('import other.FirstClass'))
+            assertTrue('Prefetched references should be used instead of visiting the module', inserted.contains('import other.ThirdClass'))
+        }
+    }
+
+    void testOrganizeWithOutdatedPrefetchedTypes() {
+        def unit = createGroovyType('main', 'Main', '''\
+            FirstClass f
+            ''')
+        EclipseTestSetup.buildProject()
+        EclipseTestSetup.waitForIndex()
+
+        def references = new OrganizeGroovyImports(unit, null).findUnresolvedReferences()
+        assertEquals(['FirstClass'] as Set, references.missingTypeNames)
+
+        unit.becomeWorkingCopy(null)
+        try {
+            unit.buffer.contents = 'ThirdClass t\n'
+
+            def organize = new OrganizeGroovyImports(unit, new NoChoiceQuery())
+            organize.setUnresolvedReferences(references)
+            def edit = organize.calculateMissingImports()
+            def inserted = edit.children.findAll { it instanceof InsertEdit }*.text.join()
+            assertTrue(inserted, inserted.contains('import other.ThirdClass'))
+            assertFalse('References found in other source should not be used', inserted.contains('import other.FirstClass'))
+        } finally {
+            unit.discardWorkingCopy()
+        }
+    }
+
     // TODO: Ensure imports come below header comment for class in the default package.
 }
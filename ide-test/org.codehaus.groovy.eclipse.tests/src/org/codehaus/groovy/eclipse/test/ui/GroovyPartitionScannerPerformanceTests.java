@@ -0,0 +1,150 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.test.ui;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+import org.codehaus.groovy.eclipse.editor.GroovyPartitionScanner;
+import org.codehaus.groovy.eclipse.test.AllUITests;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentPartitioner;
+import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.rules.FastPartitioner;
+import org.eclipse.jface.text.rules.IPartitionTokenScanner;
+import org.eclipse.jface.text.rules.IPredicateRule;
+import org.eclipse.jface.text.rules.IRule;
+import org.eclipse.jface.text.rules.RuleBasedPartitionScanner;
+
+/**
+ * Measures the cost of partitioning while typing into a 10,000 line build
+ * script with large multiline strings, comparing {@link GroovyPartitionScanner}
+ * with a rule-based scanner made of the same rules. Characters are typed inside
+ * a multiline string, at the start of one and in code; both scanners must give
+ * the same partitions. Results are written to standard out.
+ * <p>
+ * The script only has double-quoted multiline strings: when resuming inside one,
+ * the rule-based scanner looks for a single-quoted delimiter first.
+ * <p>
+ * Not part of {@link AllUITests}; run it on its own. The number of rounds can
+ * be changed with <code>-Dgreclipse.perf.rounds=N</code>.
+ */
+public class GroovyPartitionScannerPerformanceTests extends TestCase {
+
+    private static final int LINES = 10000;
+    private static final int KEYSTROKES = 200;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = Integer.getInteger("greclipse.perf.rounds", 10);
+
+    public void testPerfTyping() throws Exception {
+        String source = buildScript();
+        String[] names = {"in string", "string start", "in code"};
+        int[] offsets = {
+            source.indexOf("echo step 25") + 5,
+            source.indexOf("sh \"\"\"", source.length() / 2) + 3,
+            source.indexOf("stage('stage 150')"),
+        };
+
+        StringBuilder sb = new StringBuilder("Partitioning: ").append(KEYSTROKES).append(" keystrokes into ").append(LINES).append(" lines, ").append(ROUNDS).append(" rounds\n");
+        sb.append(String.format("  %-14s %14s %14s %10s%n", "typing", "rules (us)", "scanner (us)", "speedup"));
+        for (int i = 0; i < offsets.length; i += 1) {
+            long rules = type(source, offsets[i], newRuleBasedScanner());
+            long scanner = type(source, offsets[i], new GroovyPartitionScanner());
+            sb.append(String.format("  %-14s %14.1f %14.1f %10.1f%n", names[i],
+                rules / 1e3 / KEYSTROKES / ROUNDS, scanner / 1e3 / KEYSTROKES / ROUNDS, (double) rules / scanner));
+
+            assertPartitionsEqual(partitionAfterTyping(source, offsets[i], newRuleBasedScanner()),
+                partitionAfterTyping(source, offsets[i], new GroovyPartitionScanner()));
+        }
+        System.out.println(sb);
+    }
+
+    /**
+     * @return nanoseconds spent typing, over all measured rounds
+     */
+    private static long type(String source, int offset, IPartitionTokenScanner scanner) throws Exception {
+        long elapsed = 0;
+        for (int round = -WARMUP_ROUNDS; round < ROUNDS; round += 1) {
+            IDocument document = connect(new Document(source), scanner);
+            long start = System.nanoTime();
+            typeInto(document, offset);
+            if (round >= 0) {
+                elapsed += System.nanoTime() - start;
+            }
+            document.getDocumentPartitioner().disconnect();
+        }
+        return elapsed;
+    }
+
+    private static IDocument partitionAfterTyping(String source, int offset, IPartitionTokenScanner scanner) throws Exception {
+        IDocument document = connect(new Document(source), scanner);
+        typeInto(document, offset);
+        return document;
+    }
+
+    private static void typeInto(IDocument document, int offset) throws Exception {
+        String text = "x = \"a\" // b\n";
+        for (int i = 0; i < KEYSTROKES; i += 1) {
+            document.replace(offset + i, 0, String.valueOf(text.charAt(i % text.length())));
+        }
+    }
+
+    private static void assertPartitionsEqual(IDocument expected, IDocument actual) throws Exception {
+        assertEquals(expected.get(), actual.get());
+        ITypedRegion[] expectedRegions = expected.computePartitioning(0, expected.getLength());
+        ITypedRegion[] actualRegions = actual.computePartitioning(0, actual.getLength());
+        assertEquals(expectedRegions.length, actualRegions.length);
+        for (int i = 0; i < expectedRegions.length; i += 1) {
+            assertEquals(expectedRegions[i], actualRegions[i]);
+        }
+    }
+
+    private static IDocument connect(IDocument document, IPartitionTokenScanner scanner) {
+        IDocumentPartitioner partitioner = new FastPartitioner(scanner, GroovyPartitionScanner.LEGAL_CONTENT_TYPES);
+        partitioner.connect(document);
+        document.setDocumentPartitioner(partitioner);
+        return document;
+    }
+
+    private static RuleBasedPartitionScanner newRuleBasedScanner() {
+        List<IRule> rules = GroovyPartitionScanner.createRules(false);
+        RuleBasedPartitionScanner scanner = new RuleBasedPartitionScanner();
+        scanner.setPredicateRules(rules.toArray(new IPredicateRule[rules.size()]));
+        return scanner;
+    }
+
+    /**
+     * @return a Jenkinsfile-like script of stages, each with a large shell script
+     */
+    private static String buildScript() {
+        StringBuilder sb = new StringBuilder("/*\n * Generated pipeline\n */\npipeline {\n    agent any\n    stages {\n");
+        for (int stage = 0, lines = 6; lines < LINES - 10; stage += 1, lines += 58) {
+            sb.append("        stage('stage ").append(stage).append("') {\n");
+            sb.append("            steps {\n");
+            sb.append("                // run the scripts of stage ").append(stage).append('\n');
+            sb.append("                sh \"\"\"\n");
+            for (int i = 0; i < 50; i += 1) {
+                sb.append("                    echo step ").append(i).append(" of ${env.STAGE_NAME} > 'out/").append(i).append(".txt'\n");
+            }
+            sb.append("                \"\"\"\n");
+            sb.append("                archiveArtifacts artifacts: 'out/*.txt', fingerprint: true\n");
+            sb.append("            }\n");
+            sb.append("        }\n");
+        }
+        return sb.append("    }\n}\n").toString();
+    }
+}
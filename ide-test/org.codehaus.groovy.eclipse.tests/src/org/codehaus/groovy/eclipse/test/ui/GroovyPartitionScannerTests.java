@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import org.codehaus.groovy.eclipse.editor.GroovyPartitionScanner;
 import org.eclipse.jdt.ui.text.IJavaPartitions;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.rules.FastPartitioner;
 import org.eclipse.jface.text.rules.IToken;
 
 /**
@@ -85,6 +86,61 @@ public class GroovyPartitionScannerTests extends TestCase {
                 0, IJavaPartitions.JAVA_DOC);
     }
 
+    public void testEmptyComment() throws Exception {
+        tryString("/**/", 0, IJavaPartitions.JAVA_MULTI_LINE_COMMENT);
+    }
+
+    public void testEmptyComment2() throws Exception {
+        tryString("/**/ x */", 0, IJavaPartitions.JAVA_MULTI_LINE_COMMENT);
+        assertEquals(4, scanner.getTokenLength());
+        tryString("/**/* x */", 0, IJavaPartitions.JAVA_DOC);
+    }
+
+    public void testUnterminatedComment() throws Exception {
+        tryString("/* blah\n blah", 0, IJavaPartitions.JAVA_MULTI_LINE_COMMENT);
+    }
+
+    public void testSingleLineComment() throws Exception {
+        tryString("// blah '''\n'''", 0, IJavaPartitions.JAVA_SINGLE_LINE_COMMENT);
+        assertEquals(12, scanner.getTokenLength());
+    }
+
+    public void testEscapedQuote() throws Exception {
+        tryString("'a\\'b'", 0, IJavaPartitions.JAVA_STRING);
+        assertEquals(6, scanner.getTokenLength());
+    }
+
+    public void testUnterminatedQuotes() throws Exception {
+        tryString("'''abc", 0, IJavaPartitions.JAVA_STRING);
+        assertEquals(2, scanner.getTokenLength());
+    }
+
+    public void testCodeIsOneToken() throws Exception {
+        tryString("def x = 1 * 2 / 3\n'a'", 0, null);
+        assertEquals(18, scanner.getTokenLength());
+        assertEquals(IJavaPartitions.JAVA_STRING, scanner.nextToken().getData());
+        assertEquals(18, scanner.getTokenOffset());
+        assertTrue(scanner.nextToken().isEOF());
+    }
+
+    public void testTypingInMultilineString() throws Exception {
+        IDocument doc = new Document("def a = \"\"\"\nline\nline\n\"\"\"\ndef b = '''x'''\n");
+        FastPartitioner partitioner = new FastPartitioner(scanner, GroovyPartitionScanner.LEGAL_CONTENT_TYPES);
+        partitioner.connect(doc);
+        doc.setDocumentPartitioner(partitioner);
+
+        // resuming inside the string must look for its own delimiter, not the other kind
+        doc.replace(doc.get().indexOf("line\n\""), 0, "more ");
+        assertEquals(GroovyPartitionScanner.GROOVY_MULTILINE_STRINGS, doc.getContentType(8));
+        assertEquals("\"\"\"\nline\nmore line\n\"\"\"".length(), doc.getPartition(8).getLength());
+        assertEquals(IDocument.DEFAULT_CONTENT_TYPE, doc.getContentType(doc.get().indexOf("def b")));
+
+        // closing the string early leaves the rest as code
+        doc.replace(doc.get().indexOf("more "), 5, "\"\"\"");
+        assertEquals(IDocument.DEFAULT_CONTENT_TYPE, doc.getContentType(doc.get().indexOf("line\n\"")));
+        partitioner.disconnect();
+    }
+
     private void tryString(String string, int start, String expectedContentType) {
         IDocument doc = new Document(string);
         scanner.setRange(doc, start, string.length());
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.test.ui;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import junit.framework.TestCase;
+import org.codehaus.groovy.eclipse.GroovyPlugin;
+import org.codehaus.groovy.eclipse.editor.GroovyTagScanner;
+import org.codehaus.groovy.eclipse.test.AllUITests;
+import org.eclipse.jdt.ui.text.IColorManager;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.rules.IRule;
+import org.eclipse.jface.text.rules.IToken;
+
+/**
+ * Measures the scanning throughput of {@link GroovyTagScanner} over generated
+ * code of a few shapes: a JSON-like configuration of the kind that is slow to
+ * colour while scrolling, ordinary class code and a builder script. Each is
+ * scanned without and with additional keywords. Results are written to standard out.
+ * <p>
+ * Not part of {@link AllUITests}; run it on its own. The number of rounds can
+ * be changed with <code>-Dgreclipse.perf.rounds=N</code>.
+ */
+public class GroovyTagScannerPerformanceTests extends TestCase {
+
+    private static final int LINES = 20000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = Integer.getInteger("greclipse.perf.rounds", 20);
+
+    public void testPerfScanning() throws Exception {
+        IColorManager colorManager = GroovyPlugin.getDefault().getTextTools().getColorManager();
+        GroovyTagScanner plain = new GroovyTagScanner(colorManager,
+            Collections.<IRule>emptyList(), Collections.<IRule>emptyList(), Collections.<String>emptyList(), Collections.<String>emptyList());
+        GroovyTagScanner extended = new GroovyTagScanner(colorManager,
+            Collections.<IRule>emptyList(), Collections.<IRule>emptyList(),
+            Arrays.asList("delegate", "owner", "it"), Arrays.asList("each", "collect", "findAll", "inject", "println", "with"));
+
+        String[] names = {"config", "class code", "builder"};
+        String[] sources = {configSource(), classSource(), builderSource()};
+
+        StringBuilder sb = new StringBuilder("Tag scanning: ").append(ROUNDS).append(" rounds of ").append(LINES).append(" lines\n");
+        sb.append(String.format("  %-12s %10s %10s %14s %14s%n", "source", "chars", "tokens", "MB/s", "MB/s extended"));
+        for (int i = 0; i < sources.length; i += 1) {
+            IDocument document = new Document(sources[i]);
+            int tokens = scan(plain, document);
+            assertEquals(tokens, scan(extended, document));
+
+            double plainRate = rate(plain, document), extendedRate = rate(extended, document);
+            sb.append(String.format("  %-12s %10d %10d %14.1f %14.1f%n", names[i], document.getLength(), tokens, plainRate, extendedRate));
+        }
+        System.out.println(sb);
+    }
+
+    /**
+     * @return megabytes (of chars) scanned per second
+     */
+    private static double rate(GroovyTagScanner scanner, IDocument document) {
+        long elapsed = 0;
+        for (int round = -WARMUP_ROUNDS; round < ROUNDS; round += 1) {
+            long start = System.nanoTime();
+            scan(scanner, document);
+            if (round >= 0) {
+                elapsed += System.nanoTime() - start;
+            }
+        }
+        return ((double) document.getLength() * ROUNDS / (1024 * 1024)) / (elapsed / 1e9);
+    }
+
+    private static int scan(GroovyTagScanner scanner, IDocument document) {
+        scanner.setRange(document, 0, document.getLength());
+        int count = 0;
+        for (IToken token = scanner.nextToken(); !token.isEOF(); token = scanner.nextToken()) {
+            count += 1;
+        }
+        return count;
+    }
+
+    private static String configSource() {
+        StringBuilder sb = new StringBuilder("environments {\n");
+        for (int i = 0; i < LINES; i += 1) {
+            sb.append("    entry").append(i).append(" = [name: 'value").append(i).append("', enabled: ").append(i % 2 == 0)
+                .append(", size: ").append(i).append(", tags: ['a', 'b', 'c'], nested: [x: ").append(i * 7).append("]]\n");
+        }
+        return sb.append("}\n").toString();
+    }
+
+    private static String classSource() {
+        StringBuilder sb = new StringBuilder("package p\n\nimport java.util.concurrent.atomic.AtomicInteger\n\n");
+        for (int i = 0; i < LINES / 10; i += 1) {
+            sb.append("@groovy.transform.CompileStatic\n");
+            sb.append("class Type").append(i).append(" extends Object implements Serializable {\n");
+            sb.append("    private final AtomicInteger count = new AtomicInteger()\n");
+            sb.append("    public static final int LIMIT = ").append(i).append('\n');
+            sb.append("    def compute(int x, String s) {\n");
+            sb.append("        if (x <= LIMIT && s != null) { return x + s.length() * 2 }\n");
+            sb.append("        for (int j = 0; j < x; j += 1) { count.incrementAndGet() }\n");
+            sb.append("        return s?.size() ?: -1\n");
+            sb.append("    }\n");
+            sb.append("}\n");
+        }
+        return sb.toString();
+    }
+
+    private static String builderSource() {
+        StringBuilder sb = new StringBuilder("def html = new groovy.xml.MarkupBuilder(writer)\nhtml.table {\n");
+        for (int i = 0; i < LINES; i += 1) {
+            sb.append("    rows.findAll { it.size() > ").append(i % 10).append(" }.each { row -> tr { td(row.name); td(delegate.value) } }\n");
+        }
+        return sb.append("}\n").toString();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,7 @@
  */
 package org.codehaus.groovy.eclipse.test.ui;
 
+import java.util.Arrays;
 import java.util.Collections;
 
 import junit.framework.TestCase;
@@ -26,6 +27,7 @@ import org.eclipse.jface.preference.PreferenceConverter;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.TextAttribute;
+import org.eclipse.jface.text.rules.IRule;
 import org.eclipse.jface.text.rules.IToken;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.RGB;
@@ -67,6 +69,59 @@ public class GroovyTagScannerTests extends TestCase {
         tryString("'fafdsads adsfds'", PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_STRINGS_COLOR);
     }
 
+    public void testReturnColor() throws Exception {
+        tryString("return", PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_RETURN_COLOR);
+    }
+
+    public void testClassIsJavaType() throws Exception {
+        tryString("class", PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_JAVATYPES_COLOR);
+    }
+
+    public void testVoidIsJavaKeyword() throws Exception {
+        tryString("void", PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_JAVAKEYWORDS_COLOR);
+    }
+
+    public void testKeywordPrefix() throws Exception {
+        tryString("forEach", "black");
+    }
+
+    public void testBracketColor() throws Exception {
+        tryString("([{", PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_BRACKET_COLOR);
+    }
+
+    public void testOperatorColor() throws Exception {
+        tryString("<=>", PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_OPERATOR_COLOR);
+    }
+
+    public void testAnnotationColor() throws Exception {
+        tryString("@Deprecated", PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_ANNOTATION_COLOR);
+    }
+
+    public void testAdditionalKeywords() throws Exception {
+        IColorManager colorManager = GroovyPlugin.getDefault().getTextTools().getColorManager();
+        scanner = new GroovyTagScanner(colorManager, Collections.<IRule>emptyList(), Collections.<IRule>emptyList(),
+            Arrays.asList("delegate", "int", "println"), Arrays.asList("println", "each", "def"));
+
+        tryString("delegate", PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_GROOVYKEYWORDS_COLOR);
+        tryString("each", PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_GJDK_COLOR);
+        // built-in keywords and types come first, and additional groovy keywords before GJDK words
+        tryString("int", PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_JAVATYPES_COLOR);
+        tryString("def", PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_GROOVYKEYWORDS_COLOR);
+        tryString("println", PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_GROOVYKEYWORDS_COLOR);
+        tryString("eachWithIndex", "black");
+    }
+
+    public void testTokenBoundaries() throws Exception {
+        String string = "def x = [a: 'b'] // c";
+        IDocument doc = new Document(string);
+        scanner.setRange(doc, 0, string.length());
+        StringBuilder sb = new StringBuilder();
+        for (IToken token = scanner.nextToken(); !token.isEOF(); token = scanner.nextToken()) {
+            sb.append('|').append(string.substring(scanner.getTokenOffset(), scanner.getTokenOffset() + scanner.getTokenLength()));
+        }
+        assertEquals("|def| |x| |=| |[|a|:| |'b'|]| |//| |c", sb.toString());
+    }
+
     //
 
     private void tryString(String string, String foregroundColorPreference) {
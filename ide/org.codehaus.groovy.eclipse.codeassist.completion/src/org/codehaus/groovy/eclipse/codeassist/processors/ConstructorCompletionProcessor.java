@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -43,7 +43,7 @@ import org.eclipse.jface.text.contentassist.ICompletionProposal;
  * @author Andrew Eisenberg
  * @created Dec 10, 2009
  */
-public class ConstructorCompletionProcessor extends AbstractGroovyCompletionProcessor implements ITypeResolver {
+public class ConstructorCompletionProcessor extends AbstractGroovyCompletionProcessor implements ITypeResolver, ISearchCompletionProcessor {
 
     private JDTResolver resolver;
 
@@ -53,10 +53,14 @@ public class ConstructorCompletionProcessor extends AbstractGroovyCompletionProc
     }
 
     public List<ICompletionProposal> generateProposals(IProgressMonitor monitor) {
+        return processSearchResults(search(monitor));
+    }
+
+    public GroovyProposalTypeSearchRequestor search(IProgressMonitor monitor) {
         ContentAssistContext context = getContext();
         char[] constructorCompletionText = getCompletionText(context.fullCompletionExpression);
         if (constructorCompletionText == null) {
-            return Collections.emptyList();
+            return null;
         }
         int completionExprStart;
         if (context.location == ContentAssistLocation.METHOD_CONTEXT) {
@@ -68,7 +72,7 @@ public class ConstructorCompletionProcessor extends AbstractGroovyCompletionProc
 
         if (completionExprStart < 0) {
             // will get here for some kinds of bad syntax
-            return Collections.emptyList();
+            return null;
         }
 
         GroovyProposalTypeSearchRequestor requestor = new GroovyProposalTypeSearchRequestor(
@@ -78,10 +82,14 @@ public class ConstructorCompletionProcessor extends AbstractGroovyCompletionProc
         getNameEnvironment().findConstructorDeclarations(
                 constructorCompletionText, true, requestor, monitor);
 
-        List<ICompletionProposal> constructorProposals = requestor.processAcceptedConstructors(findUsedParameters(context),
-                resolver);
+        return requestor;
+    }
 
-        return constructorProposals;
+    public List<ICompletionProposal> processSearchResults(GroovyProposalTypeSearchRequestor requestor) {
+        if (requestor == null) {
+            return Collections.emptyList();
+        }
+        return requestor.processAcceptedConstructors(findUsedParameters(getContext()), resolver);
     }
 
     private Set<String> findUsedParameters(ContentAssistContext context) {
@@ -31,6 +31,7 @@ import org.codehaus.groovy.eclipse.codeassist.completions.GroovyJavaMethodComple
 import org.codehaus.groovy.eclipse.codeassist.proposals.GroovyNamedArgumentProposal;
 import org.codehaus.groovy.eclipse.codeassist.proposals.ProposalFormattingOptions;
 import org.codehaus.groovy.eclipse.codeassist.relevance.Relevance;
+import org.codehaus.groovy.eclipse.codeassist.relevance.RelevanceContext;
 import org.codehaus.groovy.eclipse.codeassist.relevance.RelevanceRules;
 import org.codehaus.groovy.eclipse.codeassist.requestor.ContentAssistContext;
 import org.codehaus.groovy.eclipse.codeassist.requestor.ContentAssistLocation;
@@ -115,6 +116,7 @@ public class GroovyProposalTypeSearchRequestor implements ISearchRequestor, Rele
 
     // all the types in the target Compilation unit
     private IType[] allTypesInUnit;
+    private RelevanceContext relevanceContext;
 
     // instead of inserting text, show context information only for constructors
     private boolean contextOnly;
@@ -152,6 +154,7 @@ public class GroovyProposalTypeSearchRequestor implements ISearchRequestor, Rele
             GroovyCore.logException("Problem with type completion", e);
             allTypesInUnit = new IType[0];
         }
+        relevanceContext = new RelevanceContext(allTypesInUnit);
     }
 
     public void acceptPackage(char[] packageName) {
@@ -263,6 +266,8 @@ public class GroovyProposalTypeSearchRequestor implements ISearchRequestor, Rele
         if (length == 0)
             return Collections.EMPTY_LIST;
 
+        scoreAcceptedTypes(length);
+
         HashtableOfObject onDemandFound = new HashtableOfObject();
         String thisPackageName = module.getPackageName() == null ? "" : module.getPackageName();
 
@@ -282,21 +287,9 @@ public class GroovyProposalTypeSearchRequestor implements ISearchRequestor, Rele
                 char[][] enclosingTypeNames = acceptedType.enclosingTypeNames;
                 int modifiers = acceptedType.modifiers;
                 int accessibility = acceptedType.accessibility;
-
-                char[] typeName;
-                char[] flatEnclosingTypeNames;
-                if (enclosingTypeNames == null
-                        || enclosingTypeNames.length == 0) {
-                    flatEnclosingTypeNames = null;
-                    typeName = simpleTypeName;
-                } else {
-                    flatEnclosingTypeNames = CharOperation.concatWith(
-                            acceptedType.enclosingTypeNames, '.');
-                    typeName = CharOperation.concat(flatEnclosingTypeNames,
-                            simpleTypeName, '.');
-                }
-                char[] fullyQualifiedName = CharOperation.concat(
-                        packageName, typeName, '.');
+                int relevance = acceptedType.relevance;
+                char[] typeName = acceptedType.qualifiedTypeName;
+                char[] fullyQualifiedName = acceptedType.fullyQualifiedName;
 
                 // get this imports from the module node
                 if (imports == null) {
@@ -315,7 +308,7 @@ public class GroovyProposalTypeSearchRequestor implements ISearchRequestor, Rele
                                 simpleTypeName, modifiers, accessibility,
                                 typeName, fullyQualifiedName,
                                 !CharOperation.equals(fullyQualifiedName,
-                                        importName[1])));
+                                        importName[1]), relevance));
                         continue next;
                     }
                 }
@@ -325,7 +318,7 @@ public class GroovyProposalTypeSearchRequestor implements ISearchRequestor, Rele
                                 .toCharArray(), packageName)) {
                     proposals.add(proposeType(packageName, simpleTypeName,
                             modifiers, accessibility, typeName,
-                            fullyQualifiedName, false));
+                            fullyQualifiedName, false, relevance));
                     continue next;
                 } else {
                     char[] fullyQualifiedEnclosingTypeOrPackageName = null;
@@ -340,7 +333,7 @@ public class GroovyProposalTypeSearchRequestor implements ISearchRequestor, Rele
                                         && enclosingTypeNames.length != 0) {
                                     fullyQualifiedEnclosingTypeOrPackageName = CharOperation
                                             .concat(packageName,
-                                                    flatEnclosingTypeNames, '.');
+                                                    CharOperation.concatWith(enclosingTypeNames, '.'), '.');
                                 } else {
                                     fullyQualifiedEnclosingTypeOrPackageName = packageName;
                                 }
@@ -348,8 +341,6 @@ public class GroovyProposalTypeSearchRequestor implements ISearchRequestor, Rele
                             if (CharOperation.equals(
                                             fullyQualifiedEnclosingTypeOrPackageName,
                                             importFlatName)) {
-                                acceptedType.qualifiedTypeName = typeName;
-                                acceptedType.fullyQualifiedName = fullyQualifiedName;
                                 onDemandFound.put(simpleTypeName,
                                         acceptedType);
                                 continue next;
@@ -357,7 +348,7 @@ public class GroovyProposalTypeSearchRequestor implements ISearchRequestor, Rele
                         }
                         proposals.add(proposeType(fullyQualifiedEnclosingTypeOrPackageName != null ? fullyQualifiedEnclosingTypeOrPackageName : packageName,
                                 simpleTypeName, modifiers, accessibility,
-                                typeName, fullyQualifiedName, true));
+                                typeName, fullyQualifiedName, true, relevance));
                     }
                 }
             }
@@ -375,7 +366,7 @@ public class GroovyProposalTypeSearchRequestor implements ISearchRequestor, Rele
                                 value.accessibility,
                                 value.qualifiedTypeName,
                                 value.fullyQualifiedName,
-                                value.mustBeQualified));
+                                value.mustBeQualified, value.relevance));
                     }
                 }
             }
@@ -385,10 +376,41 @@ public class GroovyProposalTypeSearchRequestor implements ISearchRequestor, Rele
         return proposals;
     }
 
+    /**
+     * Fills in the qualified names and relevance of the accepted types. The
+     * whole list is scored in one pass against the request's relevance context.
+     */
+    private void scoreAcceptedTypes(int length) {
+        char[][] fullyQualifiedNames = new char[length][];
+        int[] accessibility = new int[length];
+        int[] modifiers = new int[length];
+        for (int i = 0; i < length; i += 1) {
+            AcceptedType acceptedType = (AcceptedType) this.acceptedTypes.elementAt(i);
+            if (acceptedType.enclosingTypeNames == null
+                    || acceptedType.enclosingTypeNames.length == 0) {
+                acceptedType.qualifiedTypeName = acceptedType.simpleTypeName;
+            } else {
+                acceptedType.qualifiedTypeName = CharOperation.concat(
+                        CharOperation.concatWith(acceptedType.enclosingTypeNames, '.'),
+                        acceptedType.simpleTypeName, '.');
+            }
+            acceptedType.fullyQualifiedName = CharOperation.concat(
+                    acceptedType.packageName, acceptedType.qualifiedTypeName, '.');
+
+            fullyQualifiedNames[i] = acceptedType.fullyQualifiedName;
+            accessibility[i] = acceptedType.accessibility;
+            modifiers[i] = acceptedType.modifiers;
+        }
+        int[] relevance = RelevanceRules.ALL_RULES.getRelevance(fullyQualifiedNames, relevanceContext, accessibility, modifiers);
+        for (int i = 0; i < length; i += 1) {
+            ((AcceptedType) this.acceptedTypes.elementAt(i)).relevance = relevance[i];
+        }
+    }
+
     private ICompletionProposal proposeNoImportType(char[] packageName,
             char[] simpleTypeName, int modifiers, int accessibility,
             char[] qualifiedTypeName, char[] fullyQualifiedName,
-            boolean isQualified) {
+            boolean isQualified, int relevance) {
         char[] completionName;
         if (isQualified) {
             completionName = fullyQualifiedName;
@@ -403,7 +425,7 @@ public class GroovyProposalTypeSearchRequestor implements ISearchRequestor, Rele
         proposal.setFlags(modifiers);
         proposal.setReplaceRange(this.offset, this.offset + this.replaceLength);
         proposal.setTokenRange(this.offset, this.actualCompletionPosition);
-        proposal.setRelevance(RelevanceRules.ALL_RULES.getRelevance(fullyQualifiedName, allTypesInUnit, accessibility, modifiers));
+        proposal.setRelevance(relevance);
         proposal.setTypeName(simpleTypeName);
         proposal.setAccessibility(accessibility);
         proposal.setPackageName(packageName);
@@ -420,16 +442,16 @@ public class GroovyProposalTypeSearchRequestor implements ISearchRequestor, Rele
     private ICompletionProposal proposeType(char[] packageName,
             char[] simpleTypeName, int modifiers, int accessibility,
             char[] qualifiedTypeName, char[] fullyQualifiedName,
-            boolean isQualified) {
+            boolean isQualified, int relevance) {
         return isImport ?
-                proposeNoImportType(packageName, simpleTypeName, modifiers, accessibility, qualifiedTypeName, fullyQualifiedName, isQualified) :
-                proposeImportableType(packageName, simpleTypeName, modifiers, accessibility, qualifiedTypeName, fullyQualifiedName, isQualified);
+                proposeNoImportType(packageName, simpleTypeName, modifiers, accessibility, qualifiedTypeName, fullyQualifiedName, isQualified, relevance) :
+                proposeImportableType(packageName, simpleTypeName, modifiers, accessibility, qualifiedTypeName, fullyQualifiedName, isQualified, relevance);
     }
 
     private ICompletionProposal proposeImportableType(char[] packageName,
             char[] simpleTypeName, int modifiers, int accessibility,
             char[] qualifiedTypeName, char[] fullyQualifiedName,
-            boolean isQualified) {
+            boolean isQualified, int relevance) {
         char[] completionName;
         if (isQualified) {
             completionName = fullyQualifiedName;
@@ -444,7 +466,7 @@ public class GroovyProposalTypeSearchRequestor implements ISearchRequestor, Rele
         proposal.setFlags(modifiers);
         proposal.setReplaceRange(this.offset, this.offset + this.replaceLength);
         proposal.setTokenRange(this.offset, this.actualCompletionPosition);
-        proposal.setRelevance(RelevanceRules.ALL_RULES.getRelevance(fullyQualifiedName, allTypesInUnit, accessibility, modifiers));
+        proposal.setRelevance(relevance);
         proposal.setNameLookup(nameLookup);
         proposal.setTypeName(simpleTypeName);
         proposal.setAccessibility(accessibility);
@@ -741,7 +763,7 @@ public class GroovyProposalTypeSearchRequestor implements ISearchRequestor, Rele
         typeProposal.setCompletion(typeCompletion);
         typeProposal.setReplaceRange(this.offset, this.offset + this.replaceLength);
         typeProposal.setTokenRange(this.offset, this.offset + this.replaceLength);
-        typeProposal.setRelevance(RelevanceRules.ALL_RULES.getRelevance(fullyQualifiedName, allTypesInUnit, accessibility, augmentedModifiers));
+        typeProposal.setRelevance(RelevanceRules.ALL_RULES.getRelevance(fullyQualifiedName, relevanceContext, accessibility, augmentedModifiers));
         return typeProposal;
     }
 
@@ -882,6 +904,7 @@ public class GroovyProposalTypeSearchRequestor implements ISearchRequestor, Rele
         public boolean mustBeQualified = false;
         public char[] fullyQualifiedName = null;
         public char[] qualifiedTypeName = null;
+        public int relevance;
 
         AcceptedType(char[] packageName, char[] simpleTypeName, char[][] enclosingTypeNames, int modifiers, int accessibility) {
             this.packageName = packageName;
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.codeassist.processors;
+
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+
+/**
+ * A completion processor that searches the name environment. The search may run on any thread, but the found names are turned
+ * into proposals on the content assist thread because that uses the module's resolver, which is not thread-safe.
+ */
+public interface ISearchCompletionProcessor extends IGroovyCompletionProcessor {
+
+    /**
+     * @return the requestor holding what was found, or {@code null} if there is nothing to search for
+     */
+    GroovyProposalTypeSearchRequestor search(IProgressMonitor monitor);
+
+    /**
+     * @param requestor the result of {@link #search(IProgressMonitor)}; may be {@code null}
+     */
+    List<ICompletionProposal> processSearchResults(GroovyProposalTypeSearchRequestor requestor);
+}
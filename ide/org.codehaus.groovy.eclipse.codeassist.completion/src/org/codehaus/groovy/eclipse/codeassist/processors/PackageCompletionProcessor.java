@@ -32,7 +32,7 @@ import org.eclipse.jdt.internal.core.SearchableEnvironment;
 import org.eclipse.jdt.ui.text.java.JavaContentAssistInvocationContext;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
 
-public class PackageCompletionProcessor extends AbstractGroovyCompletionProcessor implements ITypeResolver {
+public class PackageCompletionProcessor extends AbstractGroovyCompletionProcessor implements ITypeResolver, ISearchCompletionProcessor {
 
     protected JDTResolver resolver;
 
@@ -45,6 +45,10 @@ public class PackageCompletionProcessor extends AbstractGroovyCompletionProcesso
     }
 
     public List<ICompletionProposal> generateProposals(IProgressMonitor monitor) {
+        return processSearchResults(search(monitor));
+    }
+
+    public GroovyProposalTypeSearchRequestor search(IProgressMonitor monitor) {
         ContentAssistContext context = getContext();
         char[] packageCompletionText = getPackageCompletionText(context.fullCompletionExpression);
         if (mightBePackage(packageCompletionText)) {
@@ -53,18 +57,26 @@ public class PackageCompletionProcessor extends AbstractGroovyCompletionProcesso
                 context, getJavaContext(), expressionStart, context.completionEnd - expressionStart,
                 getNameEnvironment().nameLookup, monitor);
             getNameEnvironment().findPackages(packageCompletionText, requestor);
-            List<ICompletionProposal> typeProposals = requestor.processAcceptedPackages();
 
             boolean alsoLookForTypes = shouldLookForTypes(packageCompletionText);
             if (alsoLookForTypes) {
                 getNameEnvironment().findTypes(packageCompletionText,
                     true /* find all member types, should be false when in constructor*/,
                     true /* camel case match */, getSearchFor(), requestor, monitor);
-                typeProposals.addAll(requestor.processAcceptedTypes(resolver));
             }
-            return typeProposals;
+            return requestor;
+        }
+        return null;
+    }
+
+    public List<ICompletionProposal> processSearchResults(GroovyProposalTypeSearchRequestor requestor) {
+        if (requestor == null) {
+            return Collections.emptyList();
         }
-        return Collections.emptyList();
+        List<ICompletionProposal> typeProposals = requestor.processAcceptedPackages();
+        // types are only accepted if they were looked for
+        typeProposals.addAll(requestor.processAcceptedTypes(resolver));
+        return typeProposals;
     }
 
     /**
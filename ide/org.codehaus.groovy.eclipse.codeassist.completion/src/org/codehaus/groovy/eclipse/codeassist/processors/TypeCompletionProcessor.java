@@ -37,7 +37,7 @@ import org.eclipse.jdt.internal.core.SearchableEnvironment;
 import org.eclipse.jdt.ui.text.java.JavaContentAssistInvocationContext;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
 
-public class TypeCompletionProcessor extends AbstractGroovyCompletionProcessor implements ITypeResolver {
+public class TypeCompletionProcessor extends AbstractGroovyCompletionProcessor implements ITypeResolver, ISearchCompletionProcessor {
 
     private static final Set<String> FIELD_MODIFIERS = Collections.unmodifiableSet(
         new HashSet<String>(Arrays.asList("private", "protected", "public", "static", "final")));
@@ -53,10 +53,14 @@ public class TypeCompletionProcessor extends AbstractGroovyCompletionProcessor i
     }
 
     public List<ICompletionProposal> generateProposals(IProgressMonitor monitor) {
+        return processSearchResults(search(monitor));
+    }
+
+    public GroovyProposalTypeSearchRequestor search(IProgressMonitor monitor) {
         ContentAssistContext context = getContext();
         String toSearch = context.completionExpression.startsWith("new ") ? context.completionExpression.substring(4) : context.completionExpression;
         if (shouldShowTypes(context, toSearch)) {
-            return Collections.emptyList();
+            return null;
         }
 
         int expressionStart = findExpressionStart(context);
@@ -70,9 +74,14 @@ public class TypeCompletionProcessor extends AbstractGroovyCompletionProcessor i
                 true, // camel case match
                 getSearchFor(), requestor, monitor);
 
-        List<ICompletionProposal> typeProposals = requestor.processAcceptedTypes(resolver);
+        return requestor;
+    }
 
-        return typeProposals;
+    public List<ICompletionProposal> processSearchResults(GroovyProposalTypeSearchRequestor requestor) {
+        if (requestor == null) {
+            return Collections.emptyList();
+        }
+        return requestor.processAcceptedTypes(resolver);
     }
 
     /**
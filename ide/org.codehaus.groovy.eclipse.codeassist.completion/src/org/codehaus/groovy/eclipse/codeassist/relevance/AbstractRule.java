@@ -185,6 +185,17 @@ public abstract class AbstractRule implements IRelevanceRule {
 		return frag;
 	}
 
+	/**
+	 * Relevance value of a type name in a precomputed context. Rules that
+	 * derive facts from the context types override this to read them from the
+	 * context instead; by default the context types are asked again.
+	 */
+	public int getRelevance(char[] fullyQualifiedName, RelevanceContext context,
+			int accessibility, int modifiers) {
+		return getRelevance(fullyQualifiedName, context.contextTypes,
+				accessibility, modifiers);
+	}
+
 	public IType getFirstContextType(IType[] contextTypes) {
 		return contextTypes != null && contextTypes.length > 0 ? contextTypes[0]
 				: null;
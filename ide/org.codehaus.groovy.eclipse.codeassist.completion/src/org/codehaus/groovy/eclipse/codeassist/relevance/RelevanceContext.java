@@ -0,0 +1,54 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.codeassist.relevance;
+
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.compiler.CharOperation;
+
+/**
+ * The facts about the context types that relevance rules consult for every
+ * proposal. Create one per completion request and pass it to
+ * {@link RelevanceRules#getRelevance(char[], RelevanceContext, int, int)} so
+ * that the context types are not walked again for each proposal.
+ */
+public class RelevanceContext {
+
+	final IType[] contextTypes;
+
+	/**
+	 * Segments of the name of the package fragment containing all the context
+	 * types, or null if there is no single one.
+	 */
+	final char[][] packageSegments;
+
+	public RelevanceContext(IType[] contextTypes) {
+		this.contextTypes = contextTypes;
+		IPackageFragment frag = null;
+		if (contextTypes != null) {
+			for (IType type : contextTypes) {
+				IPackageFragment fragToCheck = type.getPackageFragment();
+				if (frag != null && !frag.equals(fragToCheck)) {
+					frag = null;
+					break;
+				}
+				frag = fragToCheck;
+			}
+		}
+		this.packageSegments = frag == null ? null : CharOperation.splitOn('.',
+				frag.getElementName().replace('$', '.').toCharArray());
+	}
+}
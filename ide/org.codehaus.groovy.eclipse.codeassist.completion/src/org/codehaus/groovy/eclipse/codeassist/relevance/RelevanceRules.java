@@ -15,7 +15,9 @@
  */
 package org.codehaus.groovy.eclipse.codeassist.relevance;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.codehaus.groovy.eclipse.codeassist.ProposalUtils;
 import org.codehaus.groovy.eclipse.core.GroovyCore;
@@ -47,7 +49,7 @@ public class RelevanceRules implements IRelevanceRule {
 		SOURCE_TYPE, ACCESSIBILITY, MODIFIERS, LIBRARY_TYPE, SIMILAR_PACKAGE
 	}
 
-	private RelevanceRuleType[] ruleTypes;
+	private final IRelevanceRule[] rules;
 
 	public static RelevanceRules ALL_RULES = new RelevanceRules(
 			RelevanceRuleType.LIBRARY_TYPE, RelevanceRuleType.SOURCE_TYPE,
@@ -90,7 +92,17 @@ public class RelevanceRules implements IRelevanceRule {
 	 * use only a subset of rules.
 	 */
 	public RelevanceRules(RelevanceRuleType... ruleTypes) {
-		this.ruleTypes = ruleTypes;
+		// use all the rule types if none were specified by the invoker.
+		RelevanceRuleType[] rTypes = ruleTypes == null || ruleTypes.length == 0 ? RelevanceRuleType
+				.values() : ruleTypes;
+		List<IRelevanceRule> list = new ArrayList<IRelevanceRule>(rTypes.length);
+		for (RelevanceRuleType ruleType : rTypes) {
+			IRelevanceRule rule = getRule(ruleType);
+			if (rule != null) {
+				list.add(rule);
+			}
+		}
+		this.rules = list.toArray(new IRelevanceRule[list.size()]);
 	}
 
 	/**
@@ -99,27 +111,68 @@ public class RelevanceRules implements IRelevanceRule {
 	 */
 	public int getRelevance(char[] fullyQualifiedName, IType[] contextTypes,
 			int accessibility, int modifiers) {
+		return getRelevance(fullyQualifiedName, new RelevanceContext(contextTypes),
+				accessibility, modifiers);
+	}
+
+	/**
+	 * Computes the integer relevance value of a given type based on registered
+	 * relevance rule types. The context is meant to be created once for all
+	 * the proposals of a completion request.
+	 */
+	public int getRelevance(char[] fullyQualifiedName, RelevanceContext context,
+			int accessibility, int modifiers) {
 		if (fullyQualifiedName == null) {
 			return 0;
 		}
 
-		// use all the rule types if none were specified by the invoker.
-		RelevanceRuleType[] rTypes = ruleTypes == null || ruleTypes.length == 0 ? RelevanceRuleType
-				.values() : ruleTypes;
-
 		int relevance = getStartingRelevanceValue();
-		for (RelevanceRuleType ruleType : rTypes) {
-			IRelevanceRule rule = getRule(ruleType);
-			if (rule != null) {
-				relevance += rule.getRelevance(fullyQualifiedName,
-						contextTypes, accessibility, modifiers);
-			}
+		for (IRelevanceRule rule : rules) {
+			relevance += getRelevance(rule, fullyQualifiedName, context,
+					accessibility, modifiers);
 		}
 		// Use lowest Relevance category as Types have lowest relevance
 		// category
 		return Relevance.LOWEST.getRelevance(relevance);
 	}
 
+	/**
+	 * Computes the relevance values of a list of types in one pass per rule.
+	 * Element i of the result is what
+	 * {@link #getRelevance(char[], RelevanceContext, int, int)} returns for
+	 * element i of the arguments.
+	 */
+	public int[] getRelevance(char[][] fullyQualifiedNames,
+			RelevanceContext context, int[] accessibility, int[] modifiers) {
+		int n = fullyQualifiedNames.length;
+		int[] relevance = new int[n];
+		Arrays.fill(relevance, getStartingRelevanceValue());
+		for (IRelevanceRule rule : rules) {
+			for (int i = 0; i < n; i += 1) {
+				if (fullyQualifiedNames[i] != null) {
+					relevance[i] += getRelevance(rule, fullyQualifiedNames[i],
+							context, accessibility[i], modifiers[i]);
+				}
+			}
+		}
+		for (int i = 0; i < n; i += 1) {
+			relevance[i] = fullyQualifiedNames[i] == null ? 0
+					: Relevance.LOWEST.getRelevance(relevance[i]);
+		}
+		return relevance;
+	}
+
+	private static int getRelevance(IRelevanceRule rule,
+			char[] fullyQualifiedName, RelevanceContext context,
+			int accessibility, int modifiers) {
+		if (rule instanceof AbstractRule) {
+			return ((AbstractRule) rule).getRelevance(fullyQualifiedName,
+					context, accessibility, modifiers);
+		}
+		return rule.getRelevance(fullyQualifiedName, context.contextTypes,
+				accessibility, modifiers);
+	}
+
 	/**
 	 * Computes the integer relevance value of a given type based on registered
 	 * relevance rule types
@@ -129,16 +182,9 @@ public class RelevanceRules implements IRelevanceRule {
 			return 0;
 		}
 
-		// use all the rule types if none were specified by the invoker.
-		RelevanceRuleType[] rTypes = ruleTypes == null || ruleTypes.length == 0 ? RelevanceRuleType
-				.values() : ruleTypes;
-
 		int relevance = getStartingRelevanceValue();
-		for (RelevanceRuleType ruleType : rTypes) {
-			IRelevanceRule rule = getRule(ruleType);
-			if (rule != null) {
-				relevance += rule.getRelevance(type, contextTypes);
-			}
+		for (IRelevanceRule rule : rules) {
+			relevance += rule.getRelevance(type, contextTypes);
 		}
 		// User lowest Relevance category as Types have lowest relevance
 		// category
@@ -301,11 +347,14 @@ public class RelevanceRules implements IRelevanceRule {
 		 * @return first segment in the package name containing the type
 		 */
 		protected LibraryType getLibraryType(char[] qualifiedName) {
-			char[][] segments = CharOperation.splitOn('.', qualifiedName);
-			if (segments != null && segments.length > 0) {
-				char[] firstPackSegment = segments[0];
+			if (qualifiedName != null && qualifiedName.length > 0) {
+				int end = CharOperation.indexOf('.', qualifiedName);
+				if (end < 0) {
+					end = qualifiedName.length;
+				}
 				for (LibraryType type : LibraryType.values()) {
-					if (Arrays.equals(type.getValue(), firstPackSegment)) {
+					char[] value = type.getValue();
+					if (value.length == end && CharOperation.prefixEquals(value, qualifiedName)) {
 						return type;
 					}
 				}
@@ -415,5 +464,31 @@ public class RelevanceRules implements IRelevanceRule {
 			return TypeRelevanceCategory.HIGH_TYPE.applyCategory(relevance);
 		}
 
+		@Override
+		public int getRelevance(char[] fullyQualifiedName,
+				RelevanceContext context, int accessibility, int modifiers) {
+			int relevance = 0;
+			char[][] contextSegments = context.packageSegments;
+			if (contextSegments != null && fullyQualifiedName != null) {
+				// count the leading segments of the name that match the
+				// context package without splitting the name
+				int start = 0;
+				for (char[] segment : contextSegments) {
+					int end = start + segment.length;
+					if (end > fullyQualifiedName.length
+							|| (end < fullyQualifiedName.length && fullyQualifiedName[end] != '.')
+							|| !CharOperation.fragmentEquals(segment, fullyQualifiedName, start, true)) {
+						break;
+					}
+					relevance++;
+					start = end + 1;
+					if (start > fullyQualifiedName.length) {
+						break;
+					}
+				}
+			}
+
+			return TypeRelevanceCategory.HIGH_TYPE.applyCategory(relevance);
+		}
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,8 @@ import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.codehaus.groovy.eclipse.GroovyLogManager;
 import org.codehaus.groovy.eclipse.TraceCategory;
@@ -38,9 +40,11 @@ import org.codehaus.groovy.eclipse.codeassist.factories.NewMethodCompletionProce
 import org.codehaus.groovy.eclipse.codeassist.factories.NewVariableCompletionProcessorFactory;
 import org.codehaus.groovy.eclipse.codeassist.factories.PackageCompletionProcessorFactory;
 import org.codehaus.groovy.eclipse.codeassist.factories.TypeCompletionProcessorFactory;
+import org.codehaus.groovy.eclipse.codeassist.processors.GroovyProposalTypeSearchRequestor;
 import org.codehaus.groovy.eclipse.codeassist.processors.IGroovyCompletionProcessor;
 import org.codehaus.groovy.eclipse.codeassist.processors.IProposalFilter;
 import org.codehaus.groovy.eclipse.codeassist.processors.IProposalFilterExtension;
+import org.codehaus.groovy.eclipse.codeassist.processors.ISearchCompletionProcessor;
 import org.codehaus.groovy.eclipse.codeassist.processors.ProposalProviderRegistry;
 import org.codehaus.groovy.eclipse.core.GroovyCore;
 import org.codehaus.groovy.eclipse.core.ISourceBuffer;
@@ -50,6 +54,11 @@ import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
 import org.codehaus.jdt.groovy.model.ModuleNodeMapper.ModuleNodeInfo;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.groovy.search.ITypeResolver;
@@ -59,11 +68,21 @@ import org.eclipse.jdt.ui.text.java.ContentAssistInvocationContext;
 import org.eclipse.jdt.ui.text.java.IJavaCompletionProposalComputer;
 import org.eclipse.jdt.ui.text.java.JavaContentAssistInvocationContext;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
 import org.eclipse.jface.text.contentassist.ICompletionProposal;
 import org.eclipse.jface.text.contentassist.IContextInformation;
 
 public class GroovyCompletionProposalComputer implements IJavaCompletionProposalComputer {
 
+    /**
+     * System property for the time, in milliseconds, that proposals from type, constructor and package searches may take before
+     * the popup is shown without them. Zero or less, the default, waits for the searches to finish.
+     */
+    public static final String SEARCH_BUDGET_PROPERTY = "greclipse.contentassist.searchBudget";
+    private static final int DEFAULT_SEARCH_BUDGET = 0;
+
+    private ProposalSearch pendingSearch;
+
     private static final Map<ContentAssistLocation, List<IGroovyCompletionProcessorFactory>> LOCATION_FACTORIES;
     static {
         Map<ContentAssistLocation, List<IGroovyCompletionProcessorFactory>> locationFactories =
@@ -198,23 +217,7 @@ public class GroovyCompletionProposalComputer implements IJavaCompletionProposal
         if (assistContext != null) {
             List<IGroovyCompletionProcessorFactory> factories = LOCATION_FACTORIES.get(assistContext.location);
             if (factories != null) {
-                SearchableEnvironment nameEnvironment = createSearchableEnvironment(javaContext);
-                try {
-                    for (IGroovyCompletionProcessorFactory factory : factories) {
-                        IGroovyCompletionProcessor processor =
-                            factory.createProcessor(assistContext, javaContext, nameEnvironment);
-                        if (processor != null) {
-                            if (processor instanceof ITypeResolver) {
-                                ((ITypeResolver) processor).setResolverInformation(moduleInfo.module, moduleInfo.resolver);
-                            }
-                            proposals.addAll(processor.generateProposals(monitor));
-                        }
-                    }
-                } finally {
-                    if (nameEnvironment != null) {
-                        nameEnvironment.cleanup();
-                    }
-                }
+                proposals.addAll(generateProposals(factories, assistContext, javaContext, moduleInfo, monitor));
             }
 
             // extra filtering and sorting provided by third parties
@@ -242,6 +245,191 @@ public class GroovyCompletionProposalComputer implements IJavaCompletionProposal
         return proposals;
     }
 
+    /**
+     * Runs the processors of the given factories. Processors that search the name environment (types, constructors, packages)
+     * search in a background job while the others run on the calling thread; what the search found is turned into proposals
+     * on the calling thread, since that uses the module's resolver. Search results that are not in by the end of the
+     * search budget are left out so the popup is not held up, unless the other processors came up empty and the search is the
+     * only source of proposals. Left out results are kept, also after the session ends, and handed out if content assist is
+     * invoked again at the same place in the same document. A search for any other place is stale and is cancelled.
+     */
+    private List<ICompletionProposal> generateProposals(List<IGroovyCompletionProcessorFactory> factories,
+            ContentAssistContext assistContext, JavaContentAssistInvocationContext javaContext, ModuleNodeInfo moduleInfo, IProgressMonitor monitor) {
+        long start = System.currentTimeMillis();
+        List<Object> searchKey = createSearchKey(javaContext);
+        ProposalSearch search = takeProposalSearch(searchKey);
+
+        SearchableEnvironment nameEnvironment = createSearchableEnvironment(javaContext);
+        IGroovyCompletionProcessor[] processors = new IGroovyCompletionProcessor[factories.size()];
+        try {
+            for (int i = 0, n = processors.length; i < n; i += 1) {
+                processors[i] = factories.get(i).createProcessor(assistContext, javaContext, nameEnvironment);
+                if (processors[i] instanceof ITypeResolver) {
+                    ((ITypeResolver) processors[i]).setResolverInformation(moduleInfo.module, moduleInfo.resolver);
+                }
+            }
+            if (search == null) {
+                search = new ProposalSearch(searchKey, processors, nameEnvironment);
+                if (search.isEmpty()) {
+                    search = null;
+                } else {
+                    search.schedule();
+                    nameEnvironment = null; // the search cleans it up when done
+                }
+            }
+        } finally {
+            if (nameEnvironment != null) {
+                nameEnvironment.cleanup();
+            }
+        }
+
+        boolean searchOnly = true;
+        List<ICompletionProposal>[] results = new List[processors.length];
+        for (int i = 0, n = processors.length; i < n; i += 1) {
+            if (processors[i] != null && !(processors[i] instanceof ISearchCompletionProcessor)) {
+                results[i] = processors[i].generateProposals(monitor);
+                if (results[i] != null && !results[i].isEmpty()) {
+                    searchOnly = false;
+                }
+            }
+        }
+
+        if (search != null) {
+            int budget = Integer.getInteger(SEARCH_BUDGET_PROPERTY, DEFAULT_SEARCH_BUDGET);
+            if (search.await(budget <= 0 || searchOnly ? -1 : Math.max(0, start + budget - System.currentTimeMillis()))) {
+                search.processResults(results);
+            } else {
+                if (GroovyLogManager.manager.hasLoggers()) {
+                    GroovyLogManager.manager.log(TraceCategory.CONTENT_ASSIST,
+                        "Type search exceeded " + budget + "ms; proposals kept for next invocation");
+                }
+                putProposalSearch(search);
+            }
+        }
+
+        List<ICompletionProposal> proposals = new ArrayList<ICompletionProposal>();
+        for (List<ICompletionProposal> result : results) {
+            if (result != null) {
+                proposals.addAll(result);
+            }
+        }
+        return proposals;
+    }
+
+    private static List<Object> createSearchKey(JavaContentAssistInvocationContext javaContext) {
+        IDocument document = javaContext.getDocument();
+        long stamp = (document instanceof IDocumentExtension4) ? ((IDocumentExtension4) document).getModificationStamp() : IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+        return Arrays.<Object>asList(javaContext.getCompilationUnit(), javaContext.getInvocationOffset(), stamp);
+    }
+
+    /**
+     * Returns the unfinished search left by the previous invocation if it is for the same place, else cancels it.
+     */
+    private synchronized ProposalSearch takeProposalSearch(List<Object> searchKey) {
+        ProposalSearch search = pendingSearch;
+        pendingSearch = null;
+        if (search != null && !search.key.equals(searchKey)) {
+            search.cancel();
+            search = null;
+        }
+        return search;
+    }
+
+    private synchronized void putProposalSearch(ProposalSearch search) {
+        if (pendingSearch != null && pendingSearch != search) {
+            pendingSearch.cancel();
+        }
+        pendingSearch = search;
+    }
+
+    /**
+     * Runs the searches of the processors that search the name environment. They share the environment, so they run one after
+     * another. The environment is cleaned up once the job is done, whether it ran or was cancelled before it could.
+     */
+    private static class ProposalSearch extends Job {
+        final List<Object> key;
+        private final ISearchCompletionProcessor[] processors;
+        private final GroovyProposalTypeSearchRequestor[] requestors;
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        ProposalSearch(List<Object> key, IGroovyCompletionProcessor[] processors, final SearchableEnvironment nameEnvironment) {
+            super("Groovy type search");
+            this.key = key;
+            this.processors = new ISearchCompletionProcessor[processors.length];
+            for (int i = 0, n = processors.length; i < n; i += 1) {
+                if (processors[i] instanceof ISearchCompletionProcessor) {
+                    this.processors[i] = (ISearchCompletionProcessor) processors[i];
+                }
+            }
+            this.requestors = new GroovyProposalTypeSearchRequestor[processors.length];
+            setSystem(true);
+            setPriority(INTERACTIVE);
+            addJobChangeListener(new JobChangeAdapter() {
+                @Override
+                public void done(IJobChangeEvent event) {
+                    if (nameEnvironment != null) {
+                        nameEnvironment.cleanup();
+                    }
+                    finished.countDown();
+                }
+            });
+        }
+
+        boolean isEmpty() {
+            for (IGroovyCompletionProcessor processor : processors) {
+                if (processor != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        protected IStatus run(IProgressMonitor monitor) {
+            for (int i = 0, n = processors.length; i < n; i += 1) {
+                if (monitor.isCanceled()) {
+                    return Status.CANCEL_STATUS;
+                }
+                if (processors[i] != null) {
+                    requestors[i] = processors[i].search(monitor);
+                }
+            }
+            return Status.OK_STATUS;
+        }
+
+        /**
+         * @param millis time to wait; negative to wait until the search is done
+         * @return {@code true} if the search is done
+         */
+        boolean await(long millis) {
+            try {
+                if (millis < 0) {
+                    finished.await();
+                    return true;
+                }
+                return finished.await(millis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        /**
+         * Turns what the search found into proposals; call on the content assist thread once the search is done.
+         */
+        void processResults(List<ICompletionProposal>[] target) {
+            IStatus result = getResult();
+            if (result == null || !result.isOK()) {
+                return;
+            }
+            for (int i = 0, n = Math.min(processors.length, target.length); i < n; i += 1) {
+                if (processors[i] != null) {
+                    target[i] = processors[i].processSearchResults(requestors[i]);
+                }
+            }
+        }
+    }
+
     // visible for testing
     public ContentAssistContext createContentAssistContext(GroovyCompilationUnit gunit, int invocationOffset, IDocument document) {
         String fullCompletionText = findCompletionText(document, invocationOffset);
@@ -327,5 +515,7 @@ public class GroovyCompletionProposalComputer implements IJavaCompletionProposal
     }
 
     public void sessionEnded() {
+        // a pending search is kept; the popup usually filters rather than recomputes, so its results are only handed out
+        // if content assist is invoked again at the same place, and the next invocation anywhere else cancels it
     }
 }
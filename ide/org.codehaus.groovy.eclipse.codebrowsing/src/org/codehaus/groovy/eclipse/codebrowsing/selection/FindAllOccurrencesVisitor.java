@@ -79,8 +79,10 @@ public class FindAllOccurrencesVisitor extends ClassCodeVisitorSupport {
 
         @Override
         public boolean previsit(IASTFragment fragment) {
-            IASTFragment matched = fragment.findMatchingSubFragment(toFind);
-            if (matched.kind() != ASTFragmentKind.EMPTY) {
+            // every match starts with the associated expressions being the same, so differing hashes rule one out
+            IASTFragment matched = (toFindHash != null && ASTFragmentKind.isExpressionKind(fragment) &&
+                hash.hash(fragment.getAssociatedExpression()) != toFindHash.intValue()) ? null : fragment.findMatchingSubFragment(toFind);
+            if (matched != null && matched.kind() != ASTFragmentKind.EMPTY) {
                 // prevent double matching, which may occur in binary fragments when searching for a simple expression fragment
                 if (occurrences.size() == 0 ||
                         occurrences.get(occurrences.size()-1).getStart() != matched.getStart()) {
@@ -124,6 +126,10 @@ public class FindAllOccurrencesVisitor extends ClassCodeVisitorSupport {
 
     private IASTFragment toFind;
 
+    private Integer toFindHash;
+
+    private StructuralHash hash;
+
     private List<IASTFragment> occurrences;
 
     private ModuleNode module;
@@ -143,6 +149,7 @@ public class FindAllOccurrencesVisitor extends ClassCodeVisitorSupport {
     public FindAllOccurrencesVisitor(ModuleNode module, AnnotatedNode limitTo) {
         this.limitTo = limitTo;
         this.module = module;
+        this.hash = StructuralHash.forModule(module);
         this.factory = new ASTFragmentFactory();
         this.fragmentMatcher = new FragmentMatcherVisitor();
         this.associatedExpressionMatcher = new AssociatedExpressionMatcher();
@@ -150,6 +157,7 @@ public class FindAllOccurrencesVisitor extends ClassCodeVisitorSupport {
 
     public List<IASTFragment> findOccurrences(IASTFragment fragment) {
         this.toFind = fragment;
+        this.toFindHash = ASTFragmentKind.isExpressionKind(fragment) ? hash.hash(fragment.getAssociatedExpression()) : null;
         this.occurrences = new ArrayList<IASTFragment>();
 
         if (limitTo == null) {
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.codebrowsing.selection;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.ModuleNode;
+import org.codehaus.groovy.ast.expr.ArrayExpression;
+import org.codehaus.groovy.ast.expr.BinaryExpression;
+import org.codehaus.groovy.ast.expr.BitwiseNegationExpression;
+import org.codehaus.groovy.ast.expr.BooleanExpression;
+import org.codehaus.groovy.ast.expr.CastExpression;
+import org.codehaus.groovy.ast.expr.ClassExpression;
+import org.codehaus.groovy.ast.expr.ConstantExpression;
+import org.codehaus.groovy.ast.expr.ConstructorCallExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.FieldExpression;
+import org.codehaus.groovy.ast.expr.GStringExpression;
+import org.codehaus.groovy.ast.expr.ListExpression;
+import org.codehaus.groovy.ast.expr.MapExpression;
+import org.codehaus.groovy.ast.expr.MethodCallExpression;
+import org.codehaus.groovy.ast.expr.MethodPointerExpression;
+import org.codehaus.groovy.ast.expr.PostfixExpression;
+import org.codehaus.groovy.ast.expr.PrefixExpression;
+import org.codehaus.groovy.ast.expr.PropertyExpression;
+import org.codehaus.groovy.ast.expr.RangeExpression;
+import org.codehaus.groovy.ast.expr.SpreadExpression;
+import org.codehaus.groovy.ast.expr.SpreadMapExpression;
+import org.codehaus.groovy.ast.expr.StaticMethodCallExpression;
+import org.codehaus.groovy.ast.expr.TernaryExpression;
+import org.codehaus.groovy.ast.expr.TupleExpression;
+import org.codehaus.groovy.ast.expr.UnaryMinusExpression;
+import org.codehaus.groovy.ast.expr.UnaryPlusExpression;
+import org.codehaus.groovy.ast.expr.VariableExpression;
+import org.codehaus.groovy.eclipse.codebrowsing.fragments.ASTFragmentKind;
+import org.codehaus.groovy.eclipse.codebrowsing.fragments.BinaryExpressionFragment;
+import org.codehaus.groovy.eclipse.codebrowsing.fragments.EnclosingASTNodeFragment;
+import org.codehaus.groovy.eclipse.codebrowsing.fragments.IASTFragment;
+import org.codehaus.groovy.eclipse.codebrowsing.fragments.MethodCallFragment;
+import org.codehaus.groovy.eclipse.codebrowsing.fragments.PropertyExpressionFragment;
+import org.codehaus.groovy.eclipse.codebrowsing.fragments.SimpleExpressionASTFragment;
+
+/**
+ * Bottom-up hash of the structure of expressions, consistent with
+ * {@link IsSameExpression}: expressions that are the same have the same hash.
+ * Expressions with different hashes therefore need not be compared at all, and
+ * {@link IsSameExpression} only has to confirm the candidates that share a hash.
+ * <p>
+ * The hash of each expression is computed once and kept for the life of its
+ * module; use {@link #forModule(ModuleNode)} to share them between searches.
+ * Fragments are hashed the same way, consistent with
+ * {@link IASTFragment#matches(IASTFragment)}.
+ */
+public class StructuralHash {
+
+    /**
+     * @return the hashes of the expressions of the given module, created the
+     *         first time they are asked for
+     */
+    public static StructuralHash forModule(ModuleNode module) {
+        if (module == null) {
+            return new StructuralHash();
+        }
+        synchronized (module) {
+            StructuralHash hash = (StructuralHash) module.getNodeMetaData(StructuralHash.class);
+            if (hash == null) {
+                hash = new StructuralHash();
+                module.setNodeMetaData(StructuralHash.class, hash);
+            }
+            return hash;
+        }
+    }
+
+    private final Map<Expression, Integer> hashes = new IdentityHashMap<Expression, Integer>();
+
+    public synchronized int hash(Expression expression) {
+        if (expression == null) {
+            return 0;
+        }
+        Integer hash = hashes.get(expression);
+        if (hash == null) {
+            hash = compute(expression);
+            hashes.put(expression, hash);
+        }
+        return hash;
+    }
+
+    /**
+     * @return a hash that is the same for fragments that match each other
+     */
+    public synchronized int hash(IASTFragment fragment) {
+        if (fragment == null) {
+            return 0;
+        }
+        if (fragment.kind() == ASTFragmentKind.EMPTY) {
+            return combine(ASTFragmentKind.class);
+        } else if (fragment instanceof EnclosingASTNodeFragment) {
+            // matched by identity of the node
+            return combine(fragment.getClass(), fragment.kind().ordinal(), System.identityHashCode(fragment.getAssociatedNode()));
+        } else if (fragment instanceof SimpleExpressionASTFragment) {
+            return combine(fragment.getClass(), hash(fragment.getAssociatedExpression()));
+        } else if (fragment instanceof PropertyExpressionFragment) {
+            PropertyExpressionFragment p = (PropertyExpressionFragment) fragment;
+            return combine(p.getClass(), p.kind().ordinal(), hash(p.getAssociatedExpression()), hash(p.getNext()));
+        } else if (fragment instanceof BinaryExpressionFragment) {
+            BinaryExpressionFragment b = (BinaryExpressionFragment) fragment;
+            return combine(b.getClass(), nameHash(b.getToken().getText()), hash(b.getAssociatedExpression()), hash(b.getNext()));
+        } else if (fragment instanceof MethodCallFragment) {
+            // the rest of the chain is not compared, only whether there is one
+            MethodCallFragment m = (MethodCallFragment) fragment;
+            return combine(m.getClass(), hash(m.getAssociatedExpression()), hash(m.getArguments()), m.hasNext() ? 1 : 0);
+        }
+        return combine(fragment.getClass());
+    }
+
+    private int compute(Expression e) {
+        // constants and class expressions may be the same as each other (see IsSameExpression.handleSpecialCases)
+        if (e instanceof ConstantExpression) {
+            return combine(ConstantExpression.class, nameHash(e.getText()));
+        } else if (e instanceof ClassExpression) {
+            return combine(ConstantExpression.class, nameHash(e.getType()));
+        }
+
+        Class<?> kind = e.getClass();
+        if (e instanceof VariableExpression) {
+            return combine(kind, nameHash(((VariableExpression) e).getName()));
+        } else if (e instanceof BinaryExpression) {
+            BinaryExpression b = (BinaryExpression) e;
+            return combine(kind, b.getOperation().getType(), hash(b.getLeftExpression()), hash(b.getRightExpression()));
+        } else if (e instanceof PropertyExpression) {
+            // also AttributeExpression
+            PropertyExpression p = (PropertyExpression) e;
+            return combine(kind, hash(p.getObjectExpression()), hash(p.getProperty()));
+        } else if (e instanceof MethodCallExpression) {
+            MethodCallExpression m = (MethodCallExpression) e;
+            return combine(kind, hash(m.getObjectExpression()), hash(m.getMethod()), hash(m.getArguments()));
+        } else if (e instanceof StaticMethodCallExpression) {
+            StaticMethodCallExpression s = (StaticMethodCallExpression) e;
+            return combine(kind, nameHash(s.getType()), nameHash(s.getMethod()), hash(s.getArguments()));
+        } else if (e instanceof ConstructorCallExpression) {
+            ConstructorCallExpression c = (ConstructorCallExpression) e;
+            return combine(kind, nameHash(c.getType()), hash(c.getArguments()));
+        } else if (e instanceof CastExpression) {
+            CastExpression c = (CastExpression) e;
+            return combine(kind, nameHash(c.getType()), hash(c.getExpression()));
+        } else if (e instanceof FieldExpression) {
+            FieldExpression f = (FieldExpression) e;
+            return combine(kind, nameHash(f.getField().getDeclaringClass()), nameHash(f.getFieldName()));
+        } else if (e instanceof MethodPointerExpression) {
+            MethodPointerExpression m = (MethodPointerExpression) e;
+            return combine(kind, hash(m.getExpression()), hash(m.getMethodName()));
+        } else if (e instanceof TernaryExpression) {
+            // also ElvisOperatorExpression
+            TernaryExpression t = (TernaryExpression) e;
+            return combine(kind, hash(t.getBooleanExpression()), hash(t.getTrueExpression()), hash(t.getFalseExpression()));
+        } else if (e instanceof RangeExpression) {
+            RangeExpression r = (RangeExpression) e;
+            return combine(kind, hash(r.getFrom()), hash(r.getTo()));
+        } else if (e instanceof TupleExpression) {
+            // also ArgumentListExpression
+            return combine(kind, hash(((TupleExpression) e).getExpressions()));
+        } else if (e instanceof ListExpression) {
+            // also ClosureListExpression
+            return combine(kind, hash(((ListExpression) e).getExpressions()));
+        } else if (e instanceof MapExpression) {
+            // entries are never the same, so only their number counts
+            return combine(kind, ((MapExpression) e).getMapEntryExpressions().size());
+        } else if (e instanceof ArrayExpression) {
+            ArrayExpression a = (ArrayExpression) e;
+            return combine(kind, hash(a.getExpressions()), hash(a.getSizeExpression()));
+        } else if (e instanceof GStringExpression) {
+            GStringExpression g = (GStringExpression) e;
+            return combine(kind, hash(g.getStrings()), hash(g.getValues()));
+        } else if (e instanceof BooleanExpression) {
+            // also NotExpression
+            return combine(kind, hash(((BooleanExpression) e).getExpression()));
+        } else if (e instanceof PrefixExpression) {
+            // operations are compared by identity, so they cannot be hashed
+            return combine(kind, hash(((PrefixExpression) e).getExpression()));
+        } else if (e instanceof PostfixExpression) {
+            return combine(kind, hash(((PostfixExpression) e).getExpression()));
+        } else if (e instanceof BitwiseNegationExpression) {
+            return combine(kind, hash(((BitwiseNegationExpression) e).getExpression()));
+        } else if (e instanceof UnaryMinusExpression) {
+            return combine(kind, hash(((UnaryMinusExpression) e).getExpression()));
+        } else if (e instanceof UnaryPlusExpression) {
+            return combine(kind, hash(((UnaryPlusExpression) e).getExpression()));
+        } else if (e instanceof SpreadExpression) {
+            return combine(kind, hash(((SpreadExpression) e).getExpression()));
+        } else if (e instanceof SpreadMapExpression) {
+            return combine(kind, hash(((SpreadMapExpression) e).getExpression()));
+        }
+        // closures, empty expressions and the rest
+        return combine(kind);
+    }
+
+    private int hash(List<? extends Expression> expressions) {
+        if (expressions == null) {
+            return 0;
+        }
+        int result = expressions.size();
+        for (Expression expression : expressions) {
+            result = 31 * result + hash(expression);
+        }
+        return result;
+    }
+
+    private static int nameHash(Object name) {
+        return name == null ? 0 : name.hashCode();
+    }
+
+    private static int nameHash(ClassNode type) {
+        return type == null ? 0 : type.getName().hashCode();
+    }
+
+    private static int combine(Class<?> kind, int... parts) {
+        int result = kind.getName().hashCode();
+        for (int part : parts) {
+            result = 31 * result + part;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2009-2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.eclipse.core.launchers;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.codehaus.groovy.eclipse.core.GroovyCore;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.debug.core.ILaunchConfiguration;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaModelMarker;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.launching.JavaLaunchDelegate;
+
+/**
+ * Launches a groovy script.  When the builder has already compiled the script
+ * and its class file is up to date, the class is run directly instead of
+ * having groovy.ui.GroovyMain compile the script again in the target VM.
+ */
+public class GroovyScriptLaunchDelegate extends JavaLaunchDelegate {
+
+    /**
+     * Fully-qualified name of the script type; same as AbstractGroovyLaunchShortcut.GROOVY_TYPE_TO_RUN.
+     */
+    public static final String ATTR_TYPE_TO_RUN = "org.codehaus.groovy.eclipse.launch.runType";
+
+    /**
+     * Boolean attribute; if {@code true} the compiled script class is run when it is up to date.
+     */
+    public static final String ATTR_RUN_COMPILED = "org.codehaus.groovy.eclipse.launch.runCompiled";
+
+    private static final Pattern RUN_SCRIPT = Pattern.compile("--main\\s+groovy\\.ui\\.GroovyMain\\s+(\"[^\"]*\"|\\S+)");
+
+    @Override
+    public String getProgramArguments(ILaunchConfiguration configuration) throws CoreException {
+        String arguments = super.getProgramArguments(configuration);
+        if (configuration.getAttribute(ATTR_RUN_COMPILED, false)) {
+            Matcher matcher = RUN_SCRIPT.matcher(arguments);
+            if (matcher.find()) {
+                String scriptPath = matcher.group(1);
+                if (scriptPath.startsWith("\"")) {
+                    scriptPath = scriptPath.substring(1, scriptPath.length() - 1);
+                }
+                try {
+                    String className = findCompiledScript(configuration, scriptPath);
+                    if (className != null) {
+                        return arguments.substring(0, matcher.start()) + "--main " + className + arguments.substring(matcher.end());
+                    }
+                } catch (Exception e) {
+                    GroovyCore.logException("Could not determine if " + scriptPath + " has been compiled", e);
+                }
+            }
+        }
+        return arguments;
+    }
+
+    /**
+     * @return the name of the script's class if its class file is up to date, otherwise {@code null}
+     */
+    protected String findCompiledScript(ILaunchConfiguration configuration, String scriptPath) throws CoreException {
+        String typeName = configuration.getAttribute(ATTR_TYPE_TO_RUN, "");
+        IJavaProject javaProject = getJavaProject(configuration);
+        if (typeName.length() == 0 || javaProject == null) {
+            return null;
+        }
+        IType type = javaProject.findType(typeName);
+        if (type == null || type.isBinary() || type.getDeclaringType() != null) {
+            return null;
+        }
+
+        ICompilationUnit unit = type.getCompilationUnit();
+        IResource source = unit.getResource();
+        if (!(source instanceof IFile) || source.getLocation() == null ||
+                !source.getLocation().toOSString().equals(scriptPath) || unit.hasUnsavedChanges()) {
+            return null;
+        }
+        // the class file may be missing or incomplete if the script did not compile cleanly
+        if (source.findMaxProblemSeverity(IJavaModelMarker.JAVA_MODEL_PROBLEM_MARKER, true, IResource.DEPTH_ZERO) >= IMarker.SEVERITY_ERROR) {
+            return null;
+        }
+
+        IPackageFragmentRoot root = (IPackageFragmentRoot) unit.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+        IClasspathEntry entry = root.getRawClasspathEntry();
+        IPath output = entry.getOutputLocation();
+        if (output == null) {
+            output = javaProject.getOutputLocation();
+        }
+        IFile classFile = ResourcesPlugin.getWorkspace().getRoot().getFile(output.append(typeName.replace('.', '/') + ".class"));
+        if (!classFile.exists() || classFile.getLocalTimeStamp() < source.getLocalTimeStamp()) {
+            return null;
+        }
+        return typeName;
+    }
+}
@@ -102,4 +102,7 @@ public interface PreferenceConstants {
     public static final String GROOVY_SCRIPT_SCRIPT_LOC = "script_loc";
 
     public static final String GROOVY_SCRIPT_ECLIPSE_HOME = "eclipse_home";
+
+    // run the compiled class of a script (when it is up to date) instead of the script source
+    public static final String GROOVY_SCRIPT_RUN_COMPILED = "groovy.scripts.runcompiled";
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,10 @@
 package org.codehaus.groovy.eclipse.core.search;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.codehaus.jdt.groovy.model.GroovyNature;
 import org.eclipse.core.resources.IResource;
@@ -46,6 +49,10 @@ import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.search.IJavaSearchConstants;
 import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.FieldDeclarationMatch;
+import org.eclipse.jdt.core.search.FieldReferenceMatch;
+import org.eclipse.jdt.core.search.MethodDeclarationMatch;
+import org.eclipse.jdt.core.search.MethodReferenceMatch;
 import org.eclipse.jdt.core.search.SearchEngine;
 import org.eclipse.jdt.core.search.SearchMatch;
 import org.eclipse.jdt.core.search.SearchParticipant;
@@ -342,6 +349,131 @@ public class SyntheticAccessorSearchRequestor {
         }
     }
 
+    /**
+     * Collects the results of a combined search, grouping the matches by the
+     * resource that contains them as they arrive.  Matches against the search
+     * target itself are kept separate from matches against its synthetic
+     * accessors (or synthetic property).
+     */
+    public static class GroupedMatches {
+        private final Map<IResource, List<SearchMatch>> targetMatches = new LinkedHashMap<IResource, List<SearchMatch>>();
+        private final Map<IResource, List<SearchMatch>> syntheticMatches = new LinkedHashMap<IResource, List<SearchMatch>>();
+        private final List<SearchMatch> binaryMatches = new ArrayList<SearchMatch>();
+
+        void add(SearchMatch match, boolean isTargetMatch) {
+            IResource resource = match.getResource();
+            if (resource == null) {
+                // likely a binary match
+                binaryMatches.add(match);
+                return;
+            }
+            Map<IResource, List<SearchMatch>> groups = isTargetMatch ? targetMatches : syntheticMatches;
+            List<SearchMatch> group = groups.get(resource);
+            if (group == null) {
+                group = new ArrayList<SearchMatch>();
+                groups.put(resource, group);
+            }
+            group.add(match);
+        }
+
+        /**
+         * @return matches against the search target, grouped by resource
+         */
+        public Map<IResource, List<SearchMatch>> getTargetMatches() {
+            return Collections.unmodifiableMap(targetMatches);
+        }
+
+        /**
+         * @return matches against the synthetic accessors or synthetic property
+         *         of the search target, grouped by resource
+         */
+        public Map<IResource, List<SearchMatch>> getSyntheticMatches() {
+            return Collections.unmodifiableMap(syntheticMatches);
+        }
+
+        /**
+         * @return matches that have no corresponding resource
+         */
+        public List<SearchMatch> getBinaryMatches() {
+            return Collections.unmodifiableList(binaryMatches);
+        }
+
+        /**
+         * @return all synthetic matches, including binary ones, in the order
+         *         they were reported
+         */
+        public List<SearchMatch> getAllSyntheticMatches() {
+            List<SearchMatch> all = new ArrayList<SearchMatch>();
+            for (List<SearchMatch> group : syntheticMatches.values()) {
+                all.addAll(group);
+            }
+            all.addAll(binaryMatches);
+            return all;
+        }
+    }
+
+    private class GroupingRequestor extends SearchRequestor {
+        private final GroupedMatches results;
+        private final int targetType;
+
+        public GroupingRequestor(GroupedMatches results, int targetType) {
+            this.results = results;
+            this.targetType = targetType;
+        }
+
+        @Override
+        public void acceptSearchMatch(SearchMatch match) throws CoreException {
+            results.add(match, isTargetMatch(match));
+        }
+
+        /**
+         * Synthetic members of a field are methods and synthetic members of a
+         * method are fields, so the kind of match tells them apart.
+         */
+        private boolean isTargetMatch(SearchMatch match) {
+            if (targetType == IJavaElement.FIELD) {
+                return match instanceof FieldReferenceMatch || match instanceof FieldDeclarationMatch;
+            } else if (targetType == IJavaElement.METHOD) {
+                return match instanceof MethodReferenceMatch || match instanceof MethodDeclarationMatch;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Finds references to the given element and all of its synthetic accessors
+     * (or synthetic property) in a single search pass, so that each candidate
+     * file is located and inferred only once.
+     *
+     * @param includeTarget if true, references to the element itself are also
+     *        searched for; otherwise only synthetic references are found
+     * @return the matches grouped by resource, or an empty result if the
+     *         element is not interesting
+     */
+    public GroupedMatches findGroupedMatches(IJavaElement element, boolean includeTarget, IJavaSearchScope scope,
+            IProgressMonitor monitor) throws CoreException {
+        GroupedMatches results = new GroupedMatches();
+        if (!isInteresting(element)) {
+            return results;
+        }
+
+        SearchPattern pattern = createPattern(element);
+        if (includeTarget) {
+            SearchPattern targetPattern = SearchPattern.createPattern(element, IJavaSearchConstants.REFERENCES);
+            if (targetPattern != null) {
+                pattern = (pattern == null) ? targetPattern : SearchPattern.createOrPattern(targetPattern, pattern);
+            }
+        }
+        if (pattern == null) {
+            return results;
+        }
+
+        SearchEngine engine = new SearchEngine();
+        engine.search(pattern, new SearchParticipant[] { new JavaSearchParticipant() }, scope,
+                new GroupingRequestor(results, element.getElementType()), monitor);
+        return results;
+    }
+
     public void findSyntheticMatches(IJavaElement element, ISearchRequestor uiRequestor, IProgressMonitor monitor)
             throws CoreException {
         // findSyntheticMatches(element, IJavaSearchConstants.REFERENCES, new
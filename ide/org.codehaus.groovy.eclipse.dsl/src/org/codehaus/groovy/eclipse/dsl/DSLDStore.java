@@ -24,10 +24,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.codehaus.groovy.ast.ClassNode;
 import org.codehaus.groovy.eclipse.GroovyLogManager;
 import org.codehaus.groovy.eclipse.TraceCategory;
+import org.codehaus.groovy.eclipse.dsl.contributions.ContributionGroup;
 import org.codehaus.groovy.eclipse.dsl.contributions.IContributionElement;
 import org.codehaus.groovy.eclipse.dsl.contributions.IContributionGroup;
+import org.codehaus.groovy.eclipse.dsl.pointcuts.BindingSet;
 import org.codehaus.groovy.eclipse.dsl.pointcuts.GroovyDSLDContext;
 import org.codehaus.groovy.eclipse.dsl.pointcuts.IPointcut;
 import org.eclipse.core.resources.IFile;
@@ -48,6 +51,19 @@ public class DSLDStore {
     /** Maps keys (such as script names) to the pointcuts they produce. */
     private final Map<IStorage, Set<IPointcut>> keyContextMap =
         new HashMap<IStorage, Set<IPointcut>>();
+    /**
+     * Contributions of pure groups found so far; only sub-stores keep them,
+     * since they live no longer than a single inferencing session.
+     */
+    private final Map<ContributionKey, MemoizedContributions> memo;
+
+    public DSLDStore() {
+        this(false);
+    }
+
+    private DSLDStore(boolean memoize) {
+        memo = memoize ? new HashMap<ContributionKey, MemoizedContributions>() : null;
+    }
 
     public void addContributionGroup(IPointcut pointcut, IContributionGroup contribution) {
         synchronized (pointcutContributionMap) {
@@ -100,13 +116,15 @@ public class DSLDStore {
      * Creates a new {@link DSLDStore} based on the pattern passed in
      * only includes {@link IPointcut}s that match the pattern.
      * Sub-stores are meant to be short-lived and are not purged when a
-     * script changes.
+     * script changes.  They remember the contributions of pure groups
+     * (see {@link ContributionGroup#isPure()}), so each group is run once
+     * per type and set of bindings.
      *
      * @param patern the pattern to match against
      * @return a new {@link DSLDStore} containing only matches against the pattern
      */
     public DSLDStore createSubStore(GroovyDSLDContext pattern) {
-        DSLDStore subStore = new DSLDStore();
+        DSLDStore subStore = new DSLDStore(true);
         synchronized (pointcutContributionMap) {
             for (Map.Entry<IPointcut, List<IContributionGroup>> entry : pointcutContributionMap.entrySet()) {
                 if (entry.getKey().fastMatch(pattern)) {
@@ -151,7 +169,7 @@ public class DSLDStore {
                     Collection<?> results = pointcut.matches(pattern, pattern.getCurrentType());
                     if (results != null) {
                         for (IContributionGroup group : entry.getValue()) {
-                            elts.addAll(group.getContributions(pattern, pattern.getCurrentBinding()));
+                            elts.addAll(getContributions(group, pattern));
                         }
                     }
                 }
@@ -160,6 +178,94 @@ public class DSLDStore {
         return elts;
     }
 
+    private List<IContributionElement> getContributions(IContributionGroup group, GroovyDSLDContext pattern) {
+        BindingSet matches = pattern.getCurrentBinding();
+        if (memo == null) {
+            return group.getContributions(pattern, matches);
+        }
+
+        ContributionKey key = new ContributionKey(group, pattern, matches);
+        MemoizedContributions memoized = memo.get(key);
+        if (memoized != null) {
+            // replay the delegate type change of the original run
+            if (memoized.targetType != pattern.getCurrentType()) {
+                pattern.setTargetType(memoized.targetType);
+            }
+            return memoized.contributions;
+        }
+
+        List<IContributionElement> contributions = group.getContributions(pattern, matches);
+        if (group instanceof ContributionGroup && ((ContributionGroup) group).isPure()) {
+            memo.put(key.freeze(), new MemoizedContributions(contributions, pattern.getCurrentType()));
+        }
+        return contributions;
+    }
+
+    private static final class ContributionKey {
+        private final IContributionGroup group;
+        private final ClassNode type;
+        private final boolean isStatic;
+        private final boolean isPrimaryNode;
+        private Map<String, Collection<Object>> bindings;
+        private final int hash;
+
+        ContributionKey(IContributionGroup group, GroovyDSLDContext pattern, BindingSet matches) {
+            this.group = group;
+            this.type = typeKey(pattern.getCurrentType());
+            this.isStatic = pattern.isStatic();
+            this.isPrimaryNode = pattern.isPrimaryNode();
+            this.bindings = matches.getBindings();
+            this.hash = 31 * (31 * (31 * System.identityHashCode(group) + System.identityHashCode(type)) +
+                (isStatic ? 2 : 0) + (isPrimaryNode ? 1 : 0)) + bindings.hashCode();
+        }
+
+        /**
+         * Parameterized types share their redirect, but not their contributions.
+         */
+        private static ClassNode typeKey(ClassNode type) {
+            if (type == null || type.getGenericsTypes() != null) {
+                return type;
+            }
+            return type.redirect();
+        }
+
+        /**
+         * Detaches the key from the binding set it was created from.
+         */
+        ContributionKey freeze() {
+            bindings = new HashMap<String, Collection<Object>>(bindings);
+            return this;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ContributionKey)) {
+                return false;
+            }
+            ContributionKey that = (ContributionKey) obj;
+            return group == that.group && type == that.type && isStatic == that.isStatic &&
+                isPrimaryNode == that.isPrimaryNode && bindings.equals(that.bindings);
+        }
+    }
+
+    private static final class MemoizedContributions {
+        final List<IContributionElement> contributions;
+        final ClassNode targetType;
+
+        MemoizedContributions(List<IContributionElement> contributions, ClassNode targetType) {
+            this.contributions = contributions;
+            this.targetType = targetType;
+        }
+    }
+
     public IStorage[] getAllContextKeys() {
         synchronized (keyContextMap) {
             return keyContextMap.keySet().toArray(new IStorage[0]);
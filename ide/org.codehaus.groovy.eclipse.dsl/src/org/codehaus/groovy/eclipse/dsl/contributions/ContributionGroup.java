@@ -61,5 +61,17 @@ public class ContributionGroup extends GroovyObjectSupport implements IContribut
         return currentContributions;
     }
 
-
+    /**
+     * A group is pure when its contributions depend only on the current type,
+     * its static-ness, whether it is a primary node and the bindings of the
+     * matched pointcut.  Results of pure groups may be reused for the rest of
+     * an inferencing session instead of being recomputed.  Groups that are not
+     * a {@link ContributionGroup} are never reused.
+     * <p>
+     * Must be asked after {@link #getContributions(GroovyDSLDContext, BindingSet)}
+     * since some groups only find out whether they are pure when they run.
+     */
+    public boolean isPure() {
+        return true;
+    }
 }
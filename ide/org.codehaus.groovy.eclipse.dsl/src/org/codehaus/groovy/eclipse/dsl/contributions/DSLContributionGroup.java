@@ -85,6 +85,13 @@ public class DSLContributionGroup extends ContributionGroup {
 
     private boolean isPrimaryExpression;
 
+    /**
+     * Set once the closure has looked at the scope of the current expression
+     * (the wormhole, the current or enclosing node) or changed it (the delegate
+     * type).  From then on its results are never reused.
+     */
+    private volatile boolean usesScope;
+
     public DSLContributionGroup(@SuppressWarnings("rawtypes") Closure contributionClosure) {
         this.contributionClosure = contributionClosure;
 
@@ -128,14 +135,25 @@ public class DSLContributionGroup extends ContributionGroup {
         }
     }
 
+    /**
+     * The closure is pure until it has been seen to use the current scope.
+     */
+    @Override
+    public boolean isPure() {
+        return !usesScope;
+    }
+
 
     @Override
     public Object getProperty(String property) {
         if ("wormhole".equals(property)) {
+            usesScope = true;
             return wormhole;
         } else if ("currentNode".equals(property)) {
+            usesScope = true;
             return scope.getCurrentNode();
         } else if ("enclosingNode".equals(property)) {
+            usesScope = true;
             return scope.getEnclosingNode();
         } else if ("currentType".equals(property)) {
             return currentType;
@@ -148,6 +166,7 @@ public class DSLContributionGroup extends ContributionGroup {
     void setDelegateType(Object arg) {
         ClassNode delegate = asClassNode(arg);
         if (delegate != null) {
+            usesScope = true;
             // also need to set targetType, but only if primary expression
             scope.addVariable("delegate", delegate, VariableScope.CLOSURE_CLASS_NODE);
             scope.addVariable("getDelegate", delegate, VariableScope.CLOSURE_CLASS_NODE);
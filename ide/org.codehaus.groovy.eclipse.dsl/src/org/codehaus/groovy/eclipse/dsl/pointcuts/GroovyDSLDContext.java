@@ -11,7 +11,11 @@
 package org.codehaus.groovy.eclipse.dsl.pointcuts;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.codehaus.groovy.ast.ClassNode;
@@ -128,8 +132,13 @@ public class GroovyDSLDContext {
         return unit.getJavaProject().getProject().getDescription().getNatureIds();
     }
 
-    /** cached type hierarchy for checking type matches (consider caching more) */
-    private Set<ClassNode> cachedHierarchy;
+    /**
+     * Type hierarchies seen during this inferencing session, keyed by the
+     * redirect of their type.  Each maps the names of the type and all of its
+     * super types to their nodes, in hierarchy order.
+     */
+    private final Map<ClassNode, Map<String, ClassNode>> cachedHierarchies =
+        new IdentityHashMap<ClassNode, Map<String, ClassNode>>();
 
     private boolean isStatic;
 
@@ -140,7 +149,6 @@ public class GroovyDSLDContext {
      * @param targetType
      */
     public void setTargetType(ClassNode targetType) {
-        cachedHierarchy = null;
         this.targetType = targetType;
     }
 
@@ -203,18 +211,45 @@ public class GroovyDSLDContext {
             return true;
         }
 
-        if (cachedHierarchy == null) {
-            // use linked hash set because order is important
-            cachedHierarchy = new LinkedHashSet<ClassNode>();
-            getAllSupers(toCheck, cachedHierarchy);
-        }
+        return getHierarchyByName(toCheck).containsKey(typeName);
+    }
 
-        for (ClassNode node : cachedHierarchy) {
-            if (typeName.equals(node.getName())) {
-                return true;
+    /**
+     * @return the type and all of its super types, in hierarchy order;
+     *         computed once per type for the life of this context
+     */
+    public Collection<ClassNode> getHierarchy(ClassNode type) {
+        return getHierarchyByName(type).values();
+    }
+
+    /**
+     * @return the type or the super type with the given name, or null if the
+     *         type is not a sub type of it
+     */
+    public ClassNode findSuperType(ClassNode type, String typeName) {
+        return getHierarchyByName(type).get(typeName);
+    }
+
+    private Map<String, ClassNode> getHierarchyByName(ClassNode type) {
+        ClassNode key = type.redirect();
+        synchronized (cachedHierarchies) {
+            Map<String, ClassNode> hierarchy = cachedHierarchies.get(key);
+            if (hierarchy == null) {
+                // use linked hash set because order is important
+                Set<ClassNode> supers = new LinkedHashSet<ClassNode>();
+                getAllSupers(type, supers);
+                hierarchy = new LinkedHashMap<String, ClassNode>(supers.size() * 2);
+                for (ClassNode node : supers) {
+                    String name = node.getName();
+                    if (!hierarchy.containsKey(name)) {
+                        hierarchy.put(name, node);
+                    }
+                }
+                hierarchy = Collections.unmodifiableMap(hierarchy);
+                cachedHierarchies.put(key, hierarchy);
             }
+            return hierarchy;
         }
-        return false;
     }
 
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,14 +16,12 @@
 package org.codehaus.groovy.eclipse.dsl.pointcuts.impl;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.LinkedHashSet;
-import java.util.Map;
-import java.util.Set;
 
 import org.codehaus.groovy.ast.ClassNode;
 import org.codehaus.groovy.eclipse.dsl.pointcuts.GroovyDSLDContext;
+import org.codehaus.groovy.eclipse.dsl.pointcuts.IPointcut;
 import org.eclipse.core.resources.IStorage;
 
 /**
@@ -36,29 +34,41 @@ import org.eclipse.core.resources.IStorage;
  */
 public class SubTypePointcut extends FilteringPointcut<ClassNode> {
 
-    private Map<ClassNode, Set<ClassNode>> cachedHierarchies = new HashMap<ClassNode, Set<ClassNode>>();
-
     public SubTypePointcut(IStorage containerIdentifier, String pointcutName) {
         super(containerIdentifier, pointcutName, ClassNode.class);
     }
 
+    @Override
+    public Collection<?> matches(GroovyDSLDContext pattern, Object toMatch) {
+        Object first = getFirstArgument();
+        if (toMatch instanceof ClassNode && !(first instanceof IPointcut)) {
+            String firstArg = asString(first);
+            if (firstArg != null) {
+                // look up the super type by name instead of filtering the whole hierarchy
+                ClassNode superType = pattern.findSuperType((ClassNode) toMatch, firstArg);
+                return superType == null ? null : Collections.singletonList(superType);
+            }
+        }
+        return super.matches(pattern, toMatch);
+    }
+
     /**
      * Converts toMatch to a collection of property nodes.  Might be null or empty list
      * In either of these cases, this is considered a non-match
      * @param toMatch the object to explode
      */
     @Override
-    protected Collection<ClassNode> explodeObject(Object toMatch) {
+    protected Collection<ClassNode> explodeObject(Object toMatch, GroovyDSLDContext pattern) {
         if (toMatch instanceof Collection) {
             Collection<ClassNode> classes = new LinkedHashSet<ClassNode>();
             for (Object obj : (Collection<?>) toMatch) {
                 if (obj instanceof ClassNode) {
-                    classes.addAll(getAllSupers((ClassNode) obj));
+                    classes.addAll(pattern.getHierarchy((ClassNode) obj));
                 }
             }
             return classes;
         } else if (toMatch instanceof ClassNode) {
-            return new LinkedHashSet<ClassNode>(getAllSupers(((ClassNode) toMatch)));
+            return new LinkedHashSet<ClassNode>(pattern.getHierarchy((ClassNode) toMatch));
         }
         return null;
     }
@@ -71,27 +81,4 @@ public class SubTypePointcut extends FilteringPointcut<ClassNode> {
             return null;
         }
     }
-
-    private Set<ClassNode> getAllSupers(ClassNode type) {
-        Set<ClassNode> cached = cachedHierarchies.get(type);
-        if (cached == null) {
-            cached = new HashSet<ClassNode>();
-            internalGetAllSupers(type, cached);
-            cachedHierarchies.put(type, cached);
-        }
-        return cached;
-    }
-
-    private void internalGetAllSupers(ClassNode type, Set<ClassNode> set) {
-        if (type == null) {
-            return;
-        }
-        set.add(type);
-        internalGetAllSupers(type.getSuperClass(), set);
-        for (ClassNode inter : type.getAllInterfaces()) {
-            if (! inter.getName().equals(type.getName())) {
-                internalGetAllSupers(inter, set);
-            }
-        }
-    }
 }
@@ -3,6 +3,8 @@ package org.codehaus.groovy.eclipse.refactoring.core.rename;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -10,7 +12,6 @@ import java.util.Map.Entry;
 import java.util.Set;
 
 import org.codehaus.groovy.eclipse.core.GroovyCore;
-import org.codehaus.groovy.eclipse.core.search.ISearchRequestor;
 import org.codehaus.groovy.eclipse.core.search.SyntheticAccessorSearchRequestor;
 import org.codehaus.jdt.groovy.model.GroovyNature;
 import org.eclipse.core.resources.IFile;
@@ -31,7 +32,9 @@ import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.SourceRange;
 import org.eclipse.jdt.core.refactoring.CompilationUnitChange;
+import org.eclipse.jdt.core.search.SearchEngine;
 import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.groovy.core.util.ReflectionUtils;
 import org.eclipse.jdt.internal.corext.refactoring.Checks;
 import org.eclipse.jdt.internal.corext.refactoring.RefactoringCoreMessages;
 import org.eclipse.jdt.internal.corext.refactoring.SearchResultGroup;
@@ -78,15 +81,30 @@ public class SyntheticAccessorsRenameParticipant extends RenameParticipant {
         RefactoringStatus status = new RefactoringStatus();
 
         try {
+            Map<IResource, List<SearchMatch>> groups;
+            Set<IResource> checkedResources = new HashSet<IResource>();
             if (shouldUpdateReferences()) {
-                matches = findExtraReferences(SubMonitor.convert(pm, "Finding synthetic Groovy references", 10));
+                // the processor has already searched for the target's references and checked the files that contain them
+                SearchResultGroup[] processorGroups = getProcessorReferences();
+                if (processorGroups != null) {
+                    for (SearchResultGroup group : processorGroups) {
+                        checkedResources.add(group.getResource());
+                    }
+                }
+                // if they cannot be shared, find them in the same pass as the synthetic references
+                SyntheticAccessorSearchRequestor.GroupedMatches results = findExtraReferences(processorGroups == null,
+                        SubMonitor.convert(pm, "Finding synthetic Groovy references", 10));
+                checkedResources.addAll(results.getTargetMatches().keySet());
+                matches = results.getAllSyntheticMatches();
+                groups = results.getSyntheticMatches();
             } else {
                 matches = Collections.emptyList();
+                groups = Collections.emptyMap();
             }
             checkForBinaryRefs(matches, status);
-            SearchResultGroup[] grouped = convert(matches);
+            SearchResultGroup[] grouped = convert(groups, matches);
             Checks.excludeCompilationUnits(grouped, status);
-            status.merge(Checks.checkCompileErrorsInAffectedFiles(grouped));
+            status.merge(Checks.checkCompileErrorsInAffectedFiles(uncheckedGroups(grouped, checkedResources)));
             checkForPotentialRefs(matches, status);
         } catch (CoreException e) {
             GroovyCore.logException(e.getLocalizedMessage(), e);
@@ -108,6 +126,21 @@ public class SyntheticAccessorsRenameParticipant extends RenameParticipant {
         return true;
     }
 
+    /**
+     * @return the groups of references to the rename target found by the
+     *         processor's own search, or null if they are not available
+     */
+    private SearchResultGroup[] getProcessorReferences() {
+        RefactoringProcessor processor = getProcessor();
+        Object references = null;
+        if (processor instanceof RenameFieldProcessor) {
+            references = ReflectionUtils.getPrivateField(RenameFieldProcessor.class, "fReferences", processor);
+        } else if (processor instanceof RenameMethodProcessor) {
+            references = ReflectionUtils.getPrivateField(RenameMethodProcessor.class, "fOccurrences", processor);
+        }
+        return references instanceof SearchResultGroup[] ? (SearchResultGroup[]) references : null;
+    }
+
     private void checkForPotentialRefs(List<SearchMatch> toCheck, RefactoringStatus status) {
         for (SearchMatch match : toCheck) {
             if (match.getAccuracy() == SearchMatch.A_INACCURATE) {
@@ -157,27 +190,43 @@ public class SyntheticAccessorsRenameParticipant extends RenameParticipant {
 
     }
 
-    private SearchResultGroup[] convert(List<SearchMatch> toGroup) {
-        Map<IResource, List<SearchMatch>> groups = new HashMap<IResource, List<SearchMatch>>(toGroup.size());
-        for (SearchMatch searchMatch : toGroup) {
-            if (searchMatch.getResource() == null) {
-                // likely a binary match. These are handled elsewhere
-                continue;
+    /**
+     * Converts the per-resource groups gathered during the search, dropping
+     * any match that was filtered out afterwards (eg- binary references).
+     */
+    private SearchResultGroup[] convert(Map<IResource, List<SearchMatch>> groups, List<SearchMatch> retained) {
+        Map<SearchMatch, Boolean> keep = new IdentityHashMap<SearchMatch, Boolean>(retained.size());
+        for (SearchMatch searchMatch : retained) {
+            keep.put(searchMatch, Boolean.TRUE);
+        }
+
+        List<SearchResultGroup> results = new ArrayList<SearchResultGroup>(groups.size());
+        for (Entry<IResource, List<SearchMatch>> group : groups.entrySet()) {
+            List<SearchMatch> kept = new ArrayList<SearchMatch>(group.getValue().size());
+            for (SearchMatch searchMatch : group.getValue()) {
+                if (keep.containsKey(searchMatch)) {
+                    kept.add(searchMatch);
+                }
             }
-            List<SearchMatch> group = groups.get(searchMatch.getResource());
-            if (group == null) {
-                group = new ArrayList<SearchMatch>();
-                groups.put(searchMatch.getResource(), group);
+            if (!kept.isEmpty()) {
+                results.add(new SearchResultGroup(group.getKey(), kept.toArray(new SearchMatch[kept.size()])));
             }
-            group.add(searchMatch);
         }
+        return results.toArray(new SearchResultGroup[results.size()]);
+    }
 
-        SearchResultGroup[] results = new SearchResultGroup[groups.size()];
-        int i = 0;
-        for (Entry<IResource, List<SearchMatch>> group : groups.entrySet()) {
-            results[i++] = new SearchResultGroup(group.getKey(), group.getValue().toArray(new SearchMatch[0]));
+    /**
+     * @return the groups whose files have not already been checked for
+     *         compile errors on behalf of the target's own references
+     */
+    private SearchResultGroup[] uncheckedGroups(SearchResultGroup[] groups, Set<IResource> checkedResources) {
+        List<SearchResultGroup> unchecked = new ArrayList<SearchResultGroup>(groups.length);
+        for (SearchResultGroup group : groups) {
+            if (!checkedResources.contains(group.getResource())) {
+                unchecked.add(group);
+            }
         }
-        return results;
+        return unchecked.toArray(new SearchResultGroup[unchecked.size()]);
     }
 
     @Override
@@ -271,16 +320,10 @@ public class SyntheticAccessorsRenameParticipant extends RenameParticipant {
         }
     }
 
-    private List<SearchMatch> findExtraReferences(IProgressMonitor pm) throws CoreException {
-        SyntheticAccessorSearchRequestor synthRequestor = new SyntheticAccessorSearchRequestor();
-
-        final List<SearchMatch> matches = new ArrayList<SearchMatch>();
-        synthRequestor.findSyntheticMatches(renameTarget, new ISearchRequestor() {
-            public void acceptMatch(SearchMatch match) {
-                matches.add(match);
-            }
-        }, SubMonitor.convert(pm, "Find synthetic accessors", 10));
-        return matches;
+    private SyntheticAccessorSearchRequestor.GroupedMatches findExtraReferences(boolean includeTarget, IProgressMonitor pm)
+            throws CoreException {
+        return new SyntheticAccessorSearchRequestor().findGroupedMatches(renameTarget, includeTarget,
+                SearchEngine.createWorkspaceScope(), SubMonitor.convert(pm, "Find synthetic accessors", 10));
     }
 
     private String findMatchName(SearchMatch searchMatch, Set<String> keySet) throws JavaModelException {
@@ -15,6 +15,11 @@
  */
 package org.codehaus.groovy.eclipse.debug.ui;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.codehaus.groovy.ast.ASTNode;
 import org.codehaus.groovy.ast.ClassNode;
 import org.codehaus.groovy.ast.FieldNode;
@@ -36,40 +41,43 @@ import org.codehaus.groovy.eclipse.core.search.LexicalClassVisitor;
  */
 public class ValidBreakpointLocationFinder {
 
-    private class VisitCompleted extends RuntimeException {
-        private static final long serialVersionUID = 1L;
-    }
-
-    private ASTNode lastValid = null;
-
-    private int startLine;
+    private final int startLine;
 
     public ValidBreakpointLocationFinder(int startLine) {
         this.startLine = startLine;
     }
 
-    private void validateNode(ASTNode node) throws VisitCompleted {
-
-        // can't set a breakpoint at these locations
-        if (node.getLineNumber() == -1 || node instanceof Statement || node instanceof ClosureExpression
-                || node instanceof ClassNode || /* node instanceof MethodNode || */node instanceof FieldNode) {
-            return;
-        }
+    public ASTNode findValidBreakpointLocation(ModuleNode module) {
+        return getLocations(module).find(startLine);
+    }
 
-        if (node.getLineNumber() == startLine) {
-            lastValid = node;
-            // keep on searching until the line is over
-        } else if (node.getLineNumber() > startLine) {
-            if (lastValid == null) {
-                lastValid = node;
+    /**
+     * The candidate locations of a module are collected once and kept with the
+     * module node, so validating many breakpoints of the same file (eg- after a
+     * reconcile) does not walk the module for each one.
+     */
+    private static Locations getLocations(ModuleNode module) {
+        synchronized (module) {
+            Locations locations = (Locations) module.getNodeMetaData(Locations.class);
+            if (locations == null) {
+                locations = new Locations(module);
+                module.setNodeMetaData(Locations.class, locations);
             }
-            throw new VisitCompleted();
+            return locations;
         }
     }
 
-    public ASTNode findValidBreakpointLocation(ModuleNode module) {
-        LexicalClassVisitor visitor = new LexicalClassVisitor(module);
-        try {
+    /**
+     * Nodes where a breakpoint can be set, in lexical order.
+     */
+    private static class Locations {
+        private final int[] lines;
+        private final ASTNode[] nodes;
+        private final Map<Integer, ASTNode> found = new HashMap<Integer, ASTNode>();
+
+        Locations(ModuleNode module) {
+            List<ASTNode> valid = new ArrayList<ASTNode>();
+            LexicalClassVisitor visitor = new LexicalClassVisitor(module);
             boolean skipNext = false;
             while (visitor.hasNextNode()) {
                 ASTNode node = visitor.getNextNode();
@@ -85,11 +93,42 @@ public class ValidBreakpointLocationFinder {
                     // variable expression in a declaration expression with no
                     // initializer
                     skipNext = false;
-                } else {
-                    validateNode(node);
+                } else if (isValid(node)) {
+                    valid.add(node);
                 }
             }
-        } catch (VisitCompleted vc) {}
-        return lastValid;
+            nodes = valid.toArray(new ASTNode[valid.size()]);
+            lines = new int[nodes.length];
+            for (int i = 0, n = nodes.length; i < n; i += 1) {
+                lines[i] = nodes[i].getLineNumber();
+            }
+        }
+
+        synchronized ASTNode find(int startLine) {
+            if (found.containsKey(startLine)) {
+                return found.get(startLine);
+            }
+            // the last location on the line, or the first location following it
+            ASTNode lastValid = null;
+            for (int i = 0, n = lines.length; i < n; i += 1) {
+                if (lines[i] == startLine) {
+                    lastValid = nodes[i];
+                    // keep on searching until the line is over
+                } else if (lines[i] > startLine) {
+                    if (lastValid == null) {
+                        lastValid = nodes[i];
+                    }
+                    break;
+                }
+            }
+            found.put(startLine, lastValid);
+            return lastValid;
+        }
+
+        private static boolean isValid(ASTNode node) {
+            // can't set a breakpoint at these locations
+            return !(node.getLineNumber() == -1 || node instanceof Statement || node instanceof ClosureExpression
+                || node instanceof ClassNode || /* node instanceof MethodNode || */node instanceof FieldNode);
+        }
     }
 }
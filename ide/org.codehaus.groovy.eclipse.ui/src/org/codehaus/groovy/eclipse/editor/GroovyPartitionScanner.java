@@ -28,6 +28,8 @@ import org.codehaus.groovy.eclipse.GroovyPlugin;
 import org.codehaus.groovy.eclipse.core.preferences.PreferenceConstants;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.jface.preference.PreferenceConverter;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.TextAttribute;
 import org.eclipse.jface.text.rules.EndOfLineRule;
 import org.eclipse.jface.text.rules.ICharacterScanner;
@@ -44,6 +46,22 @@ import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.RGB;
 
+/**
+ * Partitions Groovy source into comments, strings and multiline strings.
+ * <p>
+ * The partitions are those of the rules from {@link #createRules(boolean)}, in
+ * their order of precedence, but they are found by a single pass over the
+ * document rather than by trying each rule at each character: the text is read
+ * through a small window, and the code between partitions comes back as one
+ * token instead of one token per character.
+ * <p>
+ * When the partitioner resumes scanning inside a multiline string or comment
+ * after an edit, the partition itself serves as the checkpoint for the state of
+ * the scanner: the delimiter is read from its start, and the search for the
+ * closing delimiter picks up at the edited line rather than at the start of the
+ * partition. Damage after an edit is then limited to the partitions that do
+ * change, since the partitioner stops at the first one that comes out the same.
+ */
 public class GroovyPartitionScanner extends RuleBasedPartitionScanner {
 
     public final static String GROOVY_MULTILINE_STRINGS= "__groovy_multiline_string"; //$NON-NLS-1$
@@ -99,6 +117,39 @@ public class GroovyPartitionScanner extends RuleBasedPartitionScanner {
         }
     }
 
+    private static final int WINDOW_SIZE = 2048;
+
+    private final IToken multiLineComment = new Token(JAVA_MULTI_LINE_COMMENT);
+    private final IToken multiLineString = new Token(GROOVY_MULTILINE_STRINGS);
+    private final IToken singleLineString = new Token(JAVA_STRING);
+    private final IToken singleLineComment = new Token(JAVA_SINGLE_LINE_COMMENT);
+    private final IToken javaDoc = new Token(JAVA_DOC);
+    private final IToken code = new Token(null);
+
+    private IDocument document;
+    private int rangeEnd;
+    private int position;
+    private int tokenStart;
+    private int tokenEnd;
+
+    /** the content type and start of the partition to resume, or null */
+    private String resumeType;
+    private int resumeStart;
+    private int resumeFrom;
+
+    /** the partition found at the end of a run of code, to return next */
+    private IToken pending;
+    private int pendingStart = -1;
+    private int pendingEnd;
+
+    /** found by {@link #match(int)} */
+    private IToken matchToken;
+    private int matchEnd;
+
+    private final char[] window = new char[WINDOW_SIZE];
+    private int windowStart;
+    private int windowEnd;
+
     /**
      * Creates the partitioner and sets up the appropriate rules.
      */
@@ -113,6 +164,235 @@ public class GroovyPartitionScanner extends RuleBasedPartitionScanner {
         setPredicateRules(result);
     }
 
+    @Override
+    public void setRange(IDocument document, int offset, int length) {
+        setPartialRange(document, offset, length, null, -1);
+    }
+
+    @Override
+    public void setPartialRange(IDocument document, int offset, int length, String contentType, int partitionOffset) {
+        super.setPartialRange(document, offset, length, contentType, partitionOffset);
+        this.document = document;
+        this.rangeEnd = offset + length;
+        this.windowStart = this.windowEnd = 0;
+        this.pending = null;
+        this.pendingStart = -1;
+        this.resumeType = null;
+        if (partitionOffset > -1 && partitionOffset < offset) {
+            // like the rule-based scanner, code is scanned again from the end of the previous partition
+            this.position = partitionOffset;
+            if (contentType != null && !IDocument.DEFAULT_CONTENT_TYPE.equals(contentType)) {
+                this.resumeType = contentType;
+                this.resumeStart = partitionOffset;
+                this.resumeFrom = offset;
+            }
+        } else {
+            this.position = offset;
+        }
+    }
+
+    @Override
+    public int getTokenOffset() {
+        return tokenStart;
+    }
+
+    @Override
+    public int getTokenLength() {
+        return tokenEnd - tokenStart;
+    }
+
+    @Override
+    public IToken nextToken() {
+        if (resumeType != null) {
+            IToken token = resume();
+            if (token != null) {
+                return token;
+            }
+        }
+
+        tokenStart = position;
+        if (pendingStart == position) {
+            pendingStart = -1;
+            return token(position, pendingEnd, pending);
+        }
+        if (charAt(position) == -1) {
+            return token(position, position, Token.EOF);
+        }
+        if (match(position)) {
+            return token(position, matchEnd, matchToken);
+        }
+        // code runs up to the next partition
+        int offset = position + 1;
+        for (int c; (c = charAt(offset)) != -1; offset += 1) {
+            if ((c == '/' || c == '"' || c == '\'') && match(offset)) {
+                pending = matchToken;
+                pendingStart = offset;
+                pendingEnd = matchEnd;
+                break;
+            }
+        }
+        return token(position, offset, code);
+    }
+
+    private IToken token(int start, int end, IToken token) {
+        tokenStart = start;
+        tokenEnd = end;
+        position = end;
+        return token;
+    }
+
+    /**
+     * Finishes the partition that scanning resumes in, looking for its closing
+     * delimiter from the line of the edit on. The text before that line is as it
+     * was, so it holds no closing delimiter; one may only end just before it.
+     *
+     * @return the partition's token, or null if it has to be scanned again from its start
+     */
+    private IToken resume() {
+        String type = resumeType;
+        int start = resumeStart;
+        resumeType = null;
+
+        int end = -1;
+        IToken token = null;
+        if (GROOVY_MULTILINE_STRINGS.equals(type)) {
+            if (startsWith(start, "\'\'\'")) {
+                end = findEnd(Math.max(start + 3, resumeFrom - 2), "\'\'\'", false);
+            } else if (startsWith(start, "\"\"\"")) {
+                end = findEnd(Math.max(start + 3, resumeFrom - 2), "\"\"\"", false);
+            }
+            token = multiLineString;
+        } else if (JAVA_DOC.equals(type) && startsWith(start, "/**")) {
+            end = findEnd(Math.max(start + 3, resumeFrom - 1), "*/", true);
+            token = javaDoc;
+        } else if (JAVA_MULTI_LINE_COMMENT.equals(type) && startsWith(start, "/*")) {
+            end = findEnd(Math.max(start + 2, resumeFrom - 1), "*/", true);
+            token = multiLineComment;
+        }
+        if (end < 0) {
+            return null;
+        }
+        return token(start, end, token);
+    }
+
+    /**
+     * Checks for a partition at the given offset, trying the rules of
+     * {@link #createRules(boolean)} in order. Sets {@link #matchToken} and
+     * {@link #matchEnd} if one matches.
+     */
+    private boolean match(int offset) {
+        int c = charAt(offset);
+        int end = -1;
+        if (c == '/') {
+            int next = charAt(offset + 1);
+            if (next == '/') {
+                matchToken = singleLineComment;
+                end = findEndOfLine(offset + 2, (char) 0, true);
+            } else if (next == '*') {
+                if (isEmptyComment(offset)) {
+                    matchToken = multiLineComment;
+                    end = offset + 4;
+                } else if (charAt(offset + 2) == '*') {
+                    matchToken = javaDoc;
+                    end = findEnd(offset + 3, "*/", true);
+                } else {
+                    matchToken = multiLineComment;
+                    end = findEnd(offset + 2, "*/", true);
+                }
+            }
+        } else if (c == '\'' || c == '"') {
+            if (charAt(offset + 1) == c && charAt(offset + 2) == c) {
+                String delimiter = (c == '"' ? "\"\"\"" : "\'\'\'");
+                matchToken = multiLineString;
+                end = findEnd(offset + 3, delimiter, false);
+            }
+            if (end < 0) {
+                // GRECLIPSE-1111 do not eagerly match these kinds of multiline strings
+                matchToken = singleLineString;
+                end = findEndOfLine(offset + 1, (char) c, false);
+            }
+        }
+        matchEnd = end;
+        return end >= 0;
+    }
+
+    /**
+     * @return true if the run of '/' and '*' at the given offset is exactly the empty comment <code>/**&#47;</code>
+     */
+    private boolean isEmptyComment(int offset) {
+        if (charAt(offset + 2) != '*' || charAt(offset + 3) != '/') {
+            return false;
+        }
+        int c = charAt(offset + 4);
+        return c != '*' && c != '/';
+    }
+
+    /**
+     * Looks for the end of a single line comment or string, which ends with the
+     * given quote (if any) or with the end of the line, including its
+     * delimiter. A backslash in a string escapes the character that follows.
+     *
+     * @return the offset after the end, or -1 if the end of the range comes first and is not allowed
+     */
+    private int findEndOfLine(int offset, char quote, boolean endsAtEOF) {
+        for (int c; (c = charAt(offset)) != -1; offset += 1) {
+            if (quote != 0 && c == '\\') {
+                offset += 1;
+            } else if (quote != 0 && c == quote) {
+                return offset + 1;
+            } else if (c == '\n') {
+                return offset + 1;
+            } else if (c == '\r') {
+                return charAt(offset + 1) == '\n' ? offset + 2 : offset + 1;
+            }
+        }
+        return endsAtEOF ? rangeEnd : -1;
+    }
+
+    /**
+     * @return the offset after the first occurrence of the delimiter at or after
+     *         the given offset; the end of the range if there is none but that is
+     *         allowed, or else -1
+     */
+    private int findEnd(int offset, String delimiter, boolean endsAtEOF) {
+        char first = delimiter.charAt(0);
+        for (int c; (c = charAt(offset)) != -1; offset += 1) {
+            if (c == first && startsWith(offset, delimiter)) {
+                return offset + delimiter.length();
+            }
+        }
+        return endsAtEOF ? rangeEnd : -1;
+    }
+
+    private boolean startsWith(int offset, String sequence) {
+        for (int i = 0, n = sequence.length(); i < n; i += 1) {
+            if (charAt(offset + i) != sequence.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the character at the given offset, or -1 outside of the range
+     */
+    private int charAt(int offset) {
+        if (offset >= rangeEnd || offset < 0) {
+            return -1;
+        }
+        if (offset < windowStart || offset >= windowEnd) {
+            int length = Math.min(WINDOW_SIZE, rangeEnd - offset);
+            try {
+                document.get(offset, length).getChars(0, length, window, 0);
+            } catch (BadLocationException e) {
+                return -1;
+            }
+            windowStart = offset;
+            windowEnd = offset + length;
+        }
+        return window[offset - windowStart];
+    }
+
     public static List<IRule> createRules(boolean withColor) {
         IPreferenceStore store = GroovyPlugin.getDefault().getPreferenceStore();
 
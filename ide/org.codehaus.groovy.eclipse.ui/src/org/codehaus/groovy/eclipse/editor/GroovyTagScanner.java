@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,14 +16,14 @@
 package org.codehaus.groovy.eclipse.editor;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.codehaus.groovy.eclipse.GroovyPlugin;
 import org.codehaus.groovy.eclipse.core.preferences.PreferenceConstants;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.jdt.internal.ui.text.AbstractJavaScanner;
-import org.eclipse.jdt.internal.ui.text.CombinedWordRule;
-import org.eclipse.jdt.internal.ui.text.CombinedWordRule.WordMatcher;
 import org.eclipse.jdt.internal.ui.text.JavaWhitespaceDetector;
 import org.eclipse.jdt.internal.ui.text.JavaWordDetector;
 import org.eclipse.jdt.ui.text.IColorManager;
@@ -34,7 +34,6 @@ import org.eclipse.jface.text.rules.IWhitespaceDetector;
 import org.eclipse.jface.text.rules.IWordDetector;
 import org.eclipse.jface.text.rules.SingleLineRule;
 import org.eclipse.jface.text.rules.Token;
-import org.eclipse.jface.text.rules.WhitespaceRule;
 
 /**
  * A code scanner for Groovy files.
@@ -48,14 +47,14 @@ public class GroovyTagScanner extends AbstractJavaScanner {
 
     /**
      * Rule to detect java operators.
+     * <p>
+     * No longer part of the scanner's own rules, which find operators through
+     * {@link CodeRule}; kept for sub-types that add it to their rules.
      *
      * @since 3.0
      */
     protected class OperatorRule implements IRule {
 
-        /** Java operators */
-        private final char[] JAVA_OPERATORS = { ';', '(', ')', '{', '}', '.', '=', '/', '\\', '+', '-', '*', '[', ']', '<', '>', ':', '?', '!', ',', '|', '&', '^', '%', '~' };
-
         /** Token to return for this rule */
         private final IToken fToken;
 
@@ -77,11 +76,7 @@ public class GroovyTagScanner extends AbstractJavaScanner {
          *         <code>false</code> otherwise.
          */
         public boolean isOperator(char character) {
-            for (int index = 0; index < JAVA_OPERATORS.length; index++) {
-                if (JAVA_OPERATORS[index] == character)
-                    return true;
-            }
-            return false;
+            return hasClass(character, OPERATOR);
         }
 
         /*
@@ -106,61 +101,221 @@ public class GroovyTagScanner extends AbstractJavaScanner {
     }
 
     /**
-     * Rule to detect java brackets.
-     *
-     * @since 3.3
+     * Scans everything the scanner knows about by itself in one rule: the first
+     * character is read once and its class, looked up in {@link #CHARACTER_CLASSES},
+     * decides between whitespace, character literal, annotation, brackets,
+     * operators and words. Brackets and operators are runs of characters of their
+     * class. Words are read into a reused buffer and looked up without creating
+     * strings: first in {@link #BUILT_IN_WORDS}, then in the table of additional
+     * Groovy keywords and GJDK words. Where a word is in more than one list, the
+     * Java keywords come first, then the Java types, the Groovy keywords and the
+     * GJDK words, and <code>return</code> last.
      */
-    private static final class BracketRule implements IRule {
+    private static final class CodeRule implements IRule {
+
+        private final IRule fCharacterRule;
+        private final IRule fAnnotationRule;
+        private final IToken fBracketToken;
+        private final IToken fOperatorToken;
+        private final IToken fWordToken;
+        /** tokens for the kinds of words, by kind */
+        private final IToken[] fWordTokens;
+        /** additional Groovy keywords and GJDK words, or null if there are none */
+        private final WordTable fAdditionalWords;
+
+        private char[] fBuffer = new char[32];
+
+        CodeRule(IRule characterRule, IRule annotationRule, IToken bracketToken, IToken operatorToken, IToken wordToken,
+                IToken[] wordTokens, WordTable additionalWords) {
+            fCharacterRule = characterRule;
+            fAnnotationRule = annotationRule;
+            fBracketToken = bracketToken;
+            fOperatorToken = operatorToken;
+            fWordToken = wordToken;
+            fWordTokens = wordTokens;
+            fAdditionalWords = additionalWords;
+        }
+
+        public IToken evaluate(ICharacterScanner scanner) {
+            int character = scanner.read();
+            if (character == '\'') {
+                scanner.unread();
+                return fCharacterRule.evaluate(scanner);
+            }
+            if (character == '@') {
+                scanner.unread();
+                return fAnnotationRule.evaluate(scanner);
+            }
+            char c = (char) character;
+            if (hasClass(c, WHITESPACE)) {
+                return readRun(scanner, WHITESPACE, Token.WHITESPACE);
+            }
+            if (hasClass(c, BRACKET)) {
+                return readRun(scanner, BRACKET, fBracketToken);
+            }
+            if (hasClass(c, OPERATOR)) {
+                return readRun(scanner, OPERATOR, fOperatorToken);
+            }
+            if (hasClass(c, WORD_START)) {
+                return readWord(scanner, c);
+            }
+            scanner.unread();
+            return Token.UNDEFINED;
+        }
+
+        private IToken readRun(ICharacterScanner scanner, int characterClass, IToken token) {
+            while (hasClass((char) scanner.read(), characterClass)) {
+                // do nothing
+            }
+            scanner.unread();
+            return token;
+        }
 
-        /** Java brackets */
-        private final char[] JAVA_BRACKETS = { '(', ')', '{', '}', '[', ']' };
+        private IToken readWord(ICharacterScanner scanner, char first) {
+            char[] buffer = fBuffer;
+            buffer[0] = first;
+            int length = 1;
+            char c;
+            while (hasClass(c = (char) scanner.read(), WORD_PART)) {
+                if (length == buffer.length) {
+                    System.arraycopy(buffer, 0, buffer = fBuffer = new char[length * 2], 0, length);
+                }
+                buffer[length++] = c;
+            }
+            scanner.unread();
 
-        /** Token to return for this rule */
-        private final IToken fToken;
+            int kind = BUILT_IN_WORDS.get(buffer, length);
+            if (kind != NOT_A_WORD && kind < GJDK_WORD) {
+                return fWordTokens[kind];
+            }
+            if (fAdditionalWords != null) {
+                int additional = fAdditionalWords.get(buffer, length);
+                if (additional != NOT_A_WORD) {
+                    return fWordTokens[additional];
+                }
+            }
+            return kind == RETURN_WORD ? fWordTokens[kind] : fWordToken;
+        }
+    }
+
+    /**
+     * Table of words, as an open-addressed hash table that is looked up with
+     * characters from a buffer. Hashing takes the length and the first and last
+     * two characters, and the multiplier is chosen when the table is built so
+     * that, wherever possible, no two words share a slot: a lookup then
+     * compares against at most one word before it finds an empty slot.
+     */
+    static final class WordTable {
+
+        private final char[][] fWords;
+        private final byte[] fKinds;
+        private final int fMultiplier;
+        private final int fShift;
 
         /**
-         * Creates a new bracket rule.
-         *
-         * @param token Token to use for this rule
+         * @param words the words and their kinds; a word already in the table
+         *            keeps its first kind
          */
-        public BracketRule(IToken token) {
-            fToken = token;
+        WordTable(String[] words, byte[] kinds) {
+            List<char[]> unique = new ArrayList<char[]>(words.length);
+            List<Byte> uniqueKinds = new ArrayList<Byte>(words.length);
+            outer: for (int i = 0; i < words.length; i += 1) {
+                char[] word = words[i].toCharArray();
+                if (word.length == 0) {
+                    continue;
+                }
+                for (char[] other : unique) {
+                    if (Arrays.equals(word, other)) {
+                        continue outer;
+                    }
+                }
+                unique.add(word);
+                uniqueKinds.add(kinds[i]);
+            }
+
+            int bits = 4;
+            while ((1 << bits) < unique.size() * 2) {
+                bits += 1;
+            }
+            int multiplier = findMultiplier(unique, bits);
+            if (multiplier == 0) {
+                bits += 1;
+                multiplier = findMultiplier(unique, bits);
+                if (multiplier == 0) {
+                    multiplier = 0x9E3779B1; // collisions are resolved by probing
+                }
+            }
+            fMultiplier = multiplier;
+            fShift = 32 - bits;
+            fWords = new char[1 << bits][];
+            fKinds = new byte[1 << bits];
+            for (int i = 0, n = unique.size(); i < n; i += 1) {
+                char[] word = unique.get(i);
+                int mask = fWords.length - 1;
+                int index = slot(word, word.length);
+                while (fWords[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                fWords[index] = word;
+                fKinds[index] = uniqueKinds.get(i);
+            }
         }
 
         /**
-         * Is this character a bracket character?
-         *
-         * @param character Character to determine whether it is a bracket
-         *            character
-         * @return <code>true</code> iff the character is a bracket,
-         *         <code>false</code> otherwise.
+         * @return the kind of the word in the first <code>length</code>
+         *         characters of the buffer, or {@link #NOT_A_WORD}
          */
-        public boolean isBracket(char character) {
-            for (int index = 0; index < JAVA_BRACKETS.length; index++) {
-                if (JAVA_BRACKETS[index] == character)
-                    return true;
+        int get(char[] buffer, int length) {
+            int mask = fWords.length - 1;
+            for (int index = slot(buffer, length); fWords[index] != null; index = (index + 1) & mask) {
+                char[] word = fWords[index];
+                if (word.length == length && equals(word, buffer, length)) {
+                    return fKinds[index];
+                }
             }
-            return false;
+            return NOT_A_WORD;
         }
 
-        /*
-         * @see
-         * org.eclipse.jface.text.rules.IRule#evaluate(org.eclipse.jface.text
-         * .rules.ICharacterScanner)
-         */
-        public IToken evaluate(ICharacterScanner scanner) {
+        private int slot(char[] buffer, int length) {
+            return (hash(buffer, length) * fMultiplier) >>> fShift;
+        }
 
-            int character = scanner.read();
-            if (isBracket((char) character)) {
-                do {
-                    character = scanner.read();
-                } while (isBracket((char) character));
-                scanner.unread();
-                return fToken;
-            } else {
-                scanner.unread();
-                return Token.UNDEFINED;
+        private static int findMultiplier(List<char[]> words, int bits) {
+            int[] hashes = new int[words.size()];
+            for (int i = 0; i < hashes.length; i += 1) {
+                hashes[i] = hash(words.get(i), words.get(i).length);
             }
+            boolean[] taken = new boolean[1 << bits];
+            search: for (int multiplier = 1; multiplier < (1 << 14); multiplier += 2) {
+                Arrays.fill(taken, false);
+                for (int hash : hashes) {
+                    int index = (hash * multiplier) >>> (32 - bits);
+                    if (taken[index]) {
+                        continue search;
+                    }
+                    taken[index] = true;
+                }
+                return multiplier;
+            }
+            return 0;
+        }
+
+        private static int hash(char[] word, int length) {
+            int hash = length;
+            hash = 31 * hash + word[0];
+            hash = 31 * hash + word[length > 1 ? 1 : 0];
+            hash = 31 * hash + word[length - 1];
+            hash = 31 * hash + word[length > 1 ? length - 2 : 0];
+            return hash;
+        }
+
+        private static boolean equals(char[] word, char[] buffer, int length) {
+            for (int i = 0; i < length; i += 1) {
+                if (word[i] != buffer[i]) {
+                    return false;
+                }
+            }
+            return true;
         }
     }
 
@@ -422,6 +577,88 @@ public class GroovyTagScanner extends AbstractJavaScanner {
     };
     private static final String   returnKeyword = "return";
 
+    // kinds of words; also the order in which a word that is in more than one list is taken
+    private static final byte NOT_A_WORD = 0;
+    private static final byte JAVA_KEYWORD = 1;
+    private static final byte JAVA_TYPE = 2;
+    private static final byte GROOVY_KEYWORD = 3;
+    private static final byte GJDK_WORD = 4;
+    private static final byte RETURN_WORD = 5;
+
+    /** the Java keywords and types, the Groovy keywords and <code>return</code>, by kind */
+    private static final WordTable BUILT_IN_WORDS;
+    static {
+        List<String> words = new ArrayList<String>();
+        List<Byte> kinds = new ArrayList<Byte>();
+        addWords(words, kinds, Arrays.asList(keywords), JAVA_KEYWORD);
+        addWords(words, kinds, Arrays.asList(types), JAVA_TYPE);
+        addWords(words, kinds, Arrays.asList(groovyKeywords), GROOVY_KEYWORD);
+        addWords(words, kinds, Collections.singletonList(returnKeyword), RETURN_WORD);
+        BUILT_IN_WORDS = newWordTable(words, kinds);
+    }
+
+    // classes of characters; a character may be of more than one
+    private static final int WHITESPACE = 1;
+    private static final int BRACKET = 2;
+    private static final int OPERATOR = 4;
+    private static final int WORD_START = 8;
+    private static final int WORD_PART = 16;
+
+    /** classes of the ASCII characters; others are classified as they are scanned */
+    private static final byte[] CHARACTER_CLASSES = new byte[128];
+    static {
+        for (char c = 0; c < CHARACTER_CLASSES.length; c += 1) {
+            CHARACTER_CLASSES[c] = (byte) classify(c);
+        }
+        for (char c : new char[] { '(', ')', '{', '}', '[', ']' }) {
+            CHARACTER_CLASSES[c] |= BRACKET;
+        }
+        for (char c : new char[] { ';', '(', ')', '{', '}', '.', '=', '/', '\\', '+', '-', '*', '[', ']', '<', '>', ':', '?', '!', ',', '|', '&', '^', '%', '~' }) {
+            CHARACTER_CLASSES[c] |= OPERATOR;
+        }
+    }
+
+    /**
+     * Classes a character as {@link JavaWhitespaceDetector} and {@link JavaWordDetector} would.
+     */
+    private static int classify(char c) {
+        int characterClass = 0;
+        if (Character.isWhitespace(c)) {
+            characterClass |= WHITESPACE;
+        }
+        if (Character.isJavaIdentifierStart(c)) {
+            characterClass |= WORD_START;
+        }
+        if (Character.isJavaIdentifierPart(c)) {
+            characterClass |= WORD_PART;
+        }
+        return characterClass;
+    }
+
+    private static boolean hasClass(char c, int characterClass) {
+        if (c < CHARACTER_CLASSES.length) {
+            return (CHARACTER_CLASSES[c] & characterClass) != 0;
+        }
+        return (classify(c) & characterClass) != 0;
+    }
+
+    private static void addWords(List<String> words, List<Byte> kinds, List<String> toAdd, byte kind) {
+        if (toAdd != null) {
+            for (String word : toAdd) {
+                words.add(word);
+                kinds.add(kind);
+            }
+        }
+    }
+
+    private static WordTable newWordTable(List<String> words, List<Byte> kinds) {
+        byte[] kindArray = new byte[kinds.size()];
+        for (int i = 0; i < kindArray.length; i += 1) {
+            kindArray[i] = kinds.get(i);
+        }
+        return new WordTable(words.toArray(new String[words.size()]), kindArray);
+    }
+
     private static final String[] fgTokenProperties = {
         PreferenceConstants.GROOVY_EDITOR_DEFAULT_COLOR,
         PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_GJDK_COLOR,
@@ -490,79 +727,31 @@ public class GroovyTagScanner extends AbstractJavaScanner {
             rules.addAll(initialAdditionalRules);
         }
 
-        // Add rule for character constants.
-        Token token = getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_STRINGS_COLOR);
-        rules.add(new SingleLineRule("'", "'", token, '\\')); //$NON-NLS-2$ //$NON-NLS-1$
-
-        // Add generic whitespace rule.
-        rules.add(new WhitespaceRule(new JavaWhitespaceDetector()));
-
-        // Add JLS3 rule for /@\s*interface/
+        // character constants, whitespace, annotations (including JLS3 /@\s*interface/), brackets, operators and all words
+        IRule characterRule = new SingleLineRule("'", "'", getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_STRINGS_COLOR), '\\'); //$NON-NLS-2$ //$NON-NLS-1$
         AnnotationRule atInterfaceRule = new AnnotationRule(
                 getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_ANNOTATION_COLOR),
                 getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_ANNOTATION_COLOR));
-        rules.add(atInterfaceRule);
-
-        // combined rule for all keywords
-        JavaWordDetector wordDetector = new JavaWordDetector();
-        token = getToken(PreferenceConstants.GROOVY_EDITOR_DEFAULT_COLOR);
-        CombinedWordRule combinedWordRule = new CombinedWordRule(wordDetector, token);
-
-        // Java keywords
-        WordMatcher javaKeywordsMatcher = new WordMatcher();
-        token = getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_JAVAKEYWORDS_COLOR);
-        for (int i = 0; i < keywords.length; i++) {
-            javaKeywordsMatcher.addWord(keywords[i], token);
-        }
-        combinedWordRule.addWordMatcher(javaKeywordsMatcher);
-
-        // Java types
-        WordMatcher javaTypesMatcher = new WordMatcher();
-        token = getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_JAVATYPES_COLOR);
-        for (int i = 0; i < types.length; i++) {
-            javaTypesMatcher.addWord(types[i], token);
-        }
-        combinedWordRule.addWordMatcher(javaTypesMatcher);
-
-        // Groovy Keywords, including additional keywords
-        WordMatcher groovyKeywordsMatcher = new WordMatcher();
-        token = getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_GROOVYKEYWORDS_COLOR);
-        for (int i = 0; i < groovyKeywords.length; i++) {
-            groovyKeywordsMatcher.addWord(groovyKeywords[i], token);
-        }
-        if (additionalGroovyKeywords != null) {
-            for (String additional : additionalGroovyKeywords) {
-                groovyKeywordsMatcher.addWord(additional, token);
-            }
-        }
-        combinedWordRule.addWordMatcher(groovyKeywordsMatcher);
-
-        // additional GJDK words
-        WordMatcher gjdkWordsMatcher = new WordMatcher();
-        token = getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_GJDK_COLOR);
-        if (additionalGJDKWords != null) {
-            for (String additional : additionalGJDKWords) {
-                gjdkWordsMatcher.addWord(additional, token);
-            }
-        }
-        combinedWordRule.addWordMatcher(gjdkWordsMatcher);
-
-        // Add rule for brackets
-        // this rule must come before the operator rule
-        token = getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_BRACKET_COLOR);
-        rules.add(new BracketRule(token));
-
-        // Add rule for operators
-        token = getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_OPERATOR_COLOR);
-        rules.add(new OperatorRule(token));
-
-        // Add word rule for keyword 'return'.
-        CombinedWordRule.WordMatcher returnWordRule = new CombinedWordRule.WordMatcher();
-        token = getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_RETURN_COLOR);
-        returnWordRule.addWord(returnKeyword, token);
-        combinedWordRule.addWordMatcher(returnWordRule);
 
-        rules.add(combinedWordRule);
+        IToken[] wordTokens = new IToken[RETURN_WORD + 1];
+        wordTokens[JAVA_KEYWORD] = getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_JAVAKEYWORDS_COLOR);
+        wordTokens[JAVA_TYPE] = getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_JAVATYPES_COLOR);
+        wordTokens[GROOVY_KEYWORD] = getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_GROOVYKEYWORDS_COLOR);
+        wordTokens[GJDK_WORD] = getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_GJDK_COLOR);
+        wordTokens[RETURN_WORD] = getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_RETURN_COLOR);
+
+        // additional Groovy keywords come before additional GJDK words
+        List<String> words = new ArrayList<String>();
+        List<Byte> kinds = new ArrayList<Byte>();
+        addWords(words, kinds, additionalGroovyKeywords, GROOVY_KEYWORD);
+        addWords(words, kinds, additionalGJDKWords, GJDK_WORD);
+        WordTable additionalWords = words.isEmpty() ? null : newWordTable(words, kinds);
+
+        rules.add(new CodeRule(characterRule, atInterfaceRule,
+                getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_BRACKET_COLOR),
+                getToken(PreferenceConstants.GROOVY_EDITOR_HIGHLIGHT_OPERATOR_COLOR),
+                getToken(PreferenceConstants.GROOVY_EDITOR_DEFAULT_COLOR),
+                wordTokens, additionalWords));
 
         // additional rules
         if (additionalRules != null) {
@@ -27,6 +27,7 @@ import java.util.TreeSet;
 
 import org.codehaus.groovy.eclipse.GroovyPlugin;
 import org.codehaus.groovy.eclipse.core.GroovyCore;
+import org.codehaus.groovy.eclipse.core.launchers.GroovyScriptLaunchDelegate;
 import org.codehaus.groovy.eclipse.core.model.GroovyProjectFacade;
 import org.codehaus.groovy.eclipse.core.preferences.PreferenceConstants;
 import org.codehaus.groovy.eclipse.core.util.ListUtil;
@@ -198,6 +199,8 @@ public abstract class AbstractGroovyLaunchShortcut  implements ILaunchShortcut {
             workingConfig.setAttribute(
                     IJavaLaunchConfigurationConstants.ATTR_CLASSPATH, Arrays.asList(
                             JavaRuntime.computeDefaultRuntimeClassPath(javaProject)));
+            workingConfig.setAttribute(GroovyScriptLaunchDelegate.ATTR_RUN_COMPILED,
+                    GroovyPlugin.getDefault().getPreferenceStore().getBoolean(PreferenceConstants.GROOVY_SCRIPT_RUN_COMPILED));
             ILaunchConfiguration config = workingConfig.doSave();
             DebugUITools.launch(config, mode);
         } catch (CoreException e) {
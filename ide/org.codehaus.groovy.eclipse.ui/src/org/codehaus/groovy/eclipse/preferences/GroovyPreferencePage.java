@@ -122,6 +122,8 @@ public class GroovyPreferencePage extends FieldEditorOverlayPage implements IWor
                 { "Script location", PreferenceConstants.GROOVY_SCRIPT_SCRIPT_LOC },
                 { "Eclipse home", PreferenceConstants.GROOVY_SCRIPT_ECLIPSE_HOME } },
                 getFieldEditorParent()));
+        addField(new BooleanFieldEditor(PreferenceConstants.GROOVY_SCRIPT_RUN_COMPILED,
+                "Run scripts from their compiled classes when up to date", getFieldEditorParent()));
 
         // legacy projects
         ConvertLegacyProject convert = new ConvertLegacyProject();
@@ -84,6 +84,7 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
         store.setDefault(PreferenceConstants.GROOVY_CONTENT_PARAMETER_GUESSING, true);
 
         store.setDefault(PreferenceConstants.GROOVY_SCRIPT_DEFAULT_WORKING_DIRECTORY, PreferenceConstants.GROOVY_SCRIPT_PROJECT_HOME);
+        store.setDefault(PreferenceConstants.GROOVY_SCRIPT_RUN_COMPILED, true);
 
         // Debug
         store.setDefault(PreferenceConstants.GROOVY_DEBUG_FILTER_STACK, true);
@@ -145,6 +146,7 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
         store.setValue(PreferenceConstants.GROOVY_CONTENT_PARAMETER_GUESSING, true);
 
         store.setValue(PreferenceConstants.GROOVY_SCRIPT_DEFAULT_WORKING_DIRECTORY, "proj_home");
+        store.setValue(PreferenceConstants.GROOVY_SCRIPT_RUN_COMPILED, true);
 
         // Compile
         Activator.getDefault().setPreference(null, Activator.GROOVY_SCRIPT_FILTERS, Activator.DEFAULT_GROOVY_SCRIPT_FILTER);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,11 +17,17 @@ package org.codehaus.groovy.eclipse.refactoring.actions;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.codehaus.groovy.eclipse.GroovyPlugin;
 import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.ISourceRange;
@@ -44,6 +50,13 @@ import org.eclipse.text.edits.TextEdit;
 
 public class GroovyImportsCleanUp extends AbstractGroovyCleanUp {
 
+    /** Type search shared by all units when cleaning up more than one. */
+    private TypeSearch typeSearch;
+
+    /** Unresolved references found while prefetching, by unit; these do not hold on to the units' modules. */
+    private final Map<ICompilationUnit, OrganizeGroovyImports.UnresolvedReferences> unresolvedReferences =
+        new HashMap<ICompilationUnit, OrganizeGroovyImports.UnresolvedReferences>();
+
     private ImportsCleanUp javaCleanUp = new ImportsCleanUp(Collections.singletonMap(CleanUpConstants.ORGANIZE_IMPORTS, CleanUpOptions.TRUE));
 
     public CleanUpRequirements getRequirements() {
@@ -64,6 +77,9 @@ public class GroovyImportsCleanUp extends AbstractGroovyCleanUp {
                 otherUnits.add(unit);
             }*/
         }
+        if (groovyUnits.size() > 1) {
+            prefetchMissingTypes(project, groovyUnits, monitor);
+        }
         RefactoringStatus groovyStatus = super.checkPreConditions(project, groovyUnits.toArray(new ICompilationUnit[groovyUnits.size()]), monitor);
         //RefactoringStatus otherStatus = javaCleanUp.checkPreConditions(project, otherUnits.toArray(new ICompilationUnit[otherUnits.size()]), monitor);
                 javaCleanUp.checkPreConditions(project, new ICompilationUnit[0], monitor);
@@ -71,6 +87,9 @@ public class GroovyImportsCleanUp extends AbstractGroovyCleanUp {
     }
 
     public RefactoringStatus checkPostConditions(IProgressMonitor monitor) throws CoreException {
+        // all fixes have been created; drop the prefetched types and references
+        typeSearch = null;
+        unresolvedReferences.clear();
         return javaCleanUp.checkPostConditions(monitor);
     }
 
@@ -89,6 +108,10 @@ public class GroovyImportsCleanUp extends AbstractGroovyCleanUp {
         };
 
         OrganizeGroovyImports op = new OrganizeGroovyImports((GroovyCompilationUnit) unit, query);
+        if (typeSearch != null) {
+            op.setTypeSearch(typeSearch);
+            op.setUnresolvedReferences(unresolvedReferences.remove(unit));
+        }
         final TextEdit edit = op.calculateMissingImports();
         if (status == null) {
             status = new RefactoringStatus();
@@ -105,6 +128,36 @@ public class GroovyImportsCleanUp extends AbstractGroovyCleanUp {
         return new ImportsFix(edit, unit, FixMessages.ImportsFix_OrganizeImports_Description);
     }
 
+    /**
+     * Collects the unresolved type names of all the units up front so that they
+     * can be looked up with a single type name search instead of one per unit.
+     * The unresolved references of each unit are kept for {@link #createFix}.
+     */
+    private void prefetchMissingTypes(IJavaProject project, List<ICompilationUnit> units, IProgressMonitor monitor) {
+        Set<String> missingTypeNames = new HashSet<String>();
+        for (ICompilationUnit unit : units) {
+            if (monitor != null && monitor.isCanceled()) {
+                return;
+            }
+            OrganizeGroovyImports.UnresolvedReferences references = new OrganizeGroovyImports((GroovyCompilationUnit) unit, null).findUnresolvedReferences();
+            if (references != null) {
+                unresolvedReferences.put(unit, references);
+                missingTypeNames.addAll(references.getMissingTypeNames());
+            }
+        }
+        if (typeSearch == null) {
+            typeSearch = new TypeSearch();
+        }
+        if (!missingTypeNames.isEmpty()) {
+            try {
+                typeSearch.prefetchTypes(project, missingTypeNames, new NullProgressMonitor());
+            } catch (Exception e) {
+                // each unit will search for its own types instead
+                GroovyPlugin.getDefault().logError("Exception thrown when resolving missing types for " + project.getElementName(), e);
+            }
+        }
+    }
+
     private static String getLocationString(ICompilationUnit unit) {
         return BasicElementLabels.getPathLabel(unit.getPath(), false);
     }
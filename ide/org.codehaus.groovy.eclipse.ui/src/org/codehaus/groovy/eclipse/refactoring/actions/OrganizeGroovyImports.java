@@ -18,7 +18,9 @@ package org.codehaus.groovy.eclipse.refactoring.actions;
 import static org.eclipse.jdt.groovy.core.util.GroovyUtils.getBaseType;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -40,6 +42,7 @@ import org.codehaus.groovy.ast.GroovyClassVisitor;
 import org.codehaus.groovy.ast.ImportNode;
 import org.codehaus.groovy.ast.ImportNodeCompatibilityWrapper;
 import org.codehaus.groovy.ast.MethodNode;
+import org.codehaus.groovy.ast.ModuleNode;
 import org.codehaus.groovy.ast.Parameter;
 import org.codehaus.groovy.ast.expr.AnnotationConstantExpression;
 import org.codehaus.groovy.ast.expr.CastExpression;
@@ -423,6 +426,8 @@ public class OrganizeGroovyImports {
     private final GroovyCompilationUnit unit;
     private Map<String, UnresolvedTypeData> missingTypes;
     private Map<String, ImportNode> importsSlatedForRemoval;
+    private TypeSearch typeSearch = new TypeSearch();
+    private UnresolvedReferences unresolvedReferences;
 
     public OrganizeGroovyImports(GroovyCompilationUnit unit, IChooseImportQuery query) {
         this(unit, query, null);
@@ -434,6 +439,97 @@ public class OrganizeGroovyImports {
         this.monitor = SubMonitor.convert(monitor, "Organize import statements", 7);
     }
 
+    /**
+     * Shares a type search (and its prefetched matches) with other organize
+     * import operations.
+     */
+    void setTypeSearch(TypeSearch typeSearch) {
+        this.typeSearch = typeSearch;
+    }
+
+    /**
+     * The result of visiting a module for its unresolved type references, kept
+     * so that the module need not be visited again when imports are calculated.
+     * Only names and source ranges are kept, not the module itself, so that
+     * many of these can be held at once.
+     */
+    static class UnresolvedReferences {
+        private final String source;
+        private final Map<String, UnresolvedTypeData> missingTypes;
+        private final Set<String> importsSlatedForRemoval;
+
+        UnresolvedReferences(String source, Map<String, UnresolvedTypeData> missingTypes, Set<String> importsSlatedForRemoval) {
+            this.source = source;
+            this.missingTypes = missingTypes;
+            this.importsSlatedForRemoval = importsSlatedForRemoval;
+        }
+
+        /**
+         * @return true if the unit's source is still the one the references were found in
+         */
+        boolean isCurrent(GroovyCompilationUnit unit) {
+            try {
+                return source.equals(unit.getSource());
+            } catch (JavaModelException e) {
+                return false;
+            }
+        }
+
+        /**
+         * @return the simple names of the unresolved types, some of which may turn
+         *         out to be imported already; only meant for {@link TypeSearch#prefetchTypes}
+         */
+        Set<String> getMissingTypeNames() {
+            return Collections.unmodifiableSet(missingTypes.keySet());
+        }
+    }
+
+    /**
+     * Finds the types referenced by the compilation unit that are not resolved.
+     * The result can be handed back through {@link #setUnresolvedReferences}.
+     *
+     * @return the unresolved references or null if the unit could not be visited
+     */
+    UnresolvedReferences findUnresolvedReferences() {
+        String source;
+        try {
+            source = unit.getSource();
+        } catch (JavaModelException e) {
+            GroovyPlugin.getDefault().logError("Exception thrown when finding missing types for " + unit.getElementName(), e);
+            return null;
+        }
+        ModuleNodeInfo info = unit.getModuleInfo(true);
+        if (source == null || info.isEmpty() || isUnclean(info, unit)) {
+            return null;
+        }
+
+        missingTypes = new HashMap<String, UnresolvedTypeData>();
+        importsSlatedForRemoval = new HashMap<String, ImportNode>();
+        try {
+            slateImports(new ImportNodeCompatibilityWrapper(info.module).getAllImportNodes(), CodeStyleConfiguration.createImportRewrite(unit, true));
+            for (ClassNode clazz : (Iterable<ClassNode>) info.module.getClasses()) {
+                GroovyClassVisitor visitor = new FindUnresolvedReferencesVisitor();
+                visitor.visitClass(clazz);
+            }
+            return new UnresolvedReferences(source, missingTypes, new HashSet<String>(importsSlatedForRemoval.keySet()));
+        } catch (Exception e) {
+            GroovyPlugin.getDefault().logError("Exception thrown when finding missing types for " + unit.getElementName(), e);
+            return null;
+        } finally {
+            importsSlatedForRemoval = null;
+            missingTypes = null;
+        }
+    }
+
+    /**
+     * Reuses the result of {@link #findUnresolvedReferences} in place of
+     * visiting the module again, as long as the unit's source has not changed
+     * since.
+     */
+    void setUnresolvedReferences(UnresolvedReferences unresolvedReferences) {
+        this.unresolvedReferences = unresolvedReferences;
+    }
+
     public boolean calculateAndApplyMissingImports() throws JavaModelException {
         TextEdit edit = calculateMissingImports();
         if (edit != null) {
@@ -466,45 +562,22 @@ public class OrganizeGroovyImports {
             // However, this leads to GRECLIPSE-1390 where imports are no longer reordered and sorted.
             Iterable<ImportNode> allImports = new ImportNodeCompatibilityWrapper(info.module).getAllImportNodes();
             ImportRewrite rewriter = CodeStyleConfiguration.createImportRewrite(unit, !isSafeToReorganize(allImports));
-
-            for (ImportNode imp : allImports) {
-                if (imp.isStar()) {
-                    if (!imp.isStatic()) {
-                        rewriter.addImport(imp.getPackageName() + "*");
-                    } else {
-                        rewriter.addStaticImport(imp.getClassName().replace('$', '.'), "*", true);
-                    }
-                    // GRECLIPSE-929: ensure that on-demand (i.e. star) imports are never removed
-                } else {
-                    String className = imp.getClassName().replace('$', '.');
-                    if (!imp.isStatic()) {
-                        if (!isAliased(imp)) {
-                            rewriter.addImport(className);
-                            importsSlatedForRemoval.put(className, imp);
-                        } else {
-                            String alias = className + " as " + imp.getAlias();
-                            rewriter.addImport(alias);
-                            importsSlatedForRemoval.put(alias, imp);
-                        }
-                    } else {
-                        if (!isAliased(imp)) {
-                            rewriter.addStaticImport(className, imp.getFieldName(), true);
-                            importsSlatedForRemoval.put(className + '.' + imp.getFieldName(), imp);
-                        } else {
-                            rewriter.addStaticImport(className, imp.getFieldName() + " as " + imp.getAlias(), true);
-                            importsSlatedForRemoval.put(className + '.' + imp.getFieldName() + " as " + imp.getAlias(), imp);
-                        }
-                    }
-                }
-            }
+            slateImports(allImports, rewriter);
 
             monitor.worked(1);
 
             // scan for imports that are not referenced
-            for (ClassNode clazz : (Iterable<ClassNode>) info.module.getClasses()) {
-                GroovyClassVisitor visitor = new FindUnresolvedReferencesVisitor();
-                visitor.visitClass(clazz); // modifies missingTypes and importsSlatedForRemoval
+            if (unresolvedReferences != null && unresolvedReferences.isCurrent(unit)) {
+                // the same source slates the same imports; keep slated only those that were not referenced
+                missingTypes = unresolvedReferences.missingTypes;
+                importsSlatedForRemoval.keySet().retainAll(unresolvedReferences.importsSlatedForRemoval);
+            } else {
+                for (ClassNode clazz : (Iterable<ClassNode>) info.module.getClasses()) {
+                    GroovyClassVisitor visitor = new FindUnresolvedReferencesVisitor();
+                    visitor.visitClass(clazz); // modifies missingTypes and importsSlatedForRemoval
+                }
             }
+            unresolvedReferences = null;
 
             monitor.worked(4);
 
@@ -541,7 +614,7 @@ public class OrganizeGroovyImports {
 
             // deal with the missing types
             if (!missingTypes.isEmpty()) {
-                pruneMissingTypes(allImports);
+                pruneMissingTypes(info.module, allImports);
                 if (!missingTypes.isEmpty()) {
                     monitor.subTask("Resolve missing types");
                     monitor.setWorkRemaining(missingTypes.size() + 1);
@@ -572,6 +645,43 @@ public class OrganizeGroovyImports {
         }
     }
 
+    /**
+     * Adds the existing imports to the rewriter, so that they are kept, and
+     * slates them for removal until a reference to them is found.
+     */
+    private void slateImports(Iterable<ImportNode> allImports, ImportRewrite rewriter) {
+        for (ImportNode imp : allImports) {
+            if (imp.isStar()) {
+                if (!imp.isStatic()) {
+                    rewriter.addImport(imp.getPackageName() + "*");
+                } else {
+                    rewriter.addStaticImport(imp.getClassName().replace('$', '.'), "*", true);
+                }
+                // GRECLIPSE-929: ensure that on-demand (i.e. star) imports are never removed
+            } else {
+                String className = imp.getClassName().replace('$', '.');
+                if (!imp.isStatic()) {
+                    if (!isAliased(imp)) {
+                        rewriter.addImport(className);
+                        importsSlatedForRemoval.put(className, imp);
+                    } else {
+                        String alias = className + " as " + imp.getAlias();
+                        rewriter.addImport(alias);
+                        importsSlatedForRemoval.put(alias, imp);
+                    }
+                } else {
+                    if (!isAliased(imp)) {
+                        rewriter.addStaticImport(className, imp.getFieldName(), true);
+                        importsSlatedForRemoval.put(className + '.' + imp.getFieldName(), imp);
+                    } else {
+                        rewriter.addStaticImport(className, imp.getFieldName() + " as " + imp.getAlias(), true);
+                        importsSlatedForRemoval.put(className + '.' + imp.getFieldName() + " as " + imp.getAlias(), imp);
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * There are cases where a type is seen as unresolved but can be found
      * amongst the imports of the module or within the default imports.
@@ -580,12 +690,12 @@ public class OrganizeGroovyImports {
      * params have been satisfied correctly.  Another involves annotation
      * types that have not been identified correctly as annotations.
      */
-    private void pruneMissingTypes(Iterable<ImportNode> imports) throws JavaModelException {
+    private void pruneMissingTypes(ModuleNode module, Iterable<ImportNode> imports) throws JavaModelException {
         Set<String> starImports = new LinkedHashSet<String>();
         Set<String> typeImports = new LinkedHashSet<String>();
 
-        if (unit.getModuleNode().getPackageName() != null) {
-            starImports.add(unit.getModuleNode().getPackageName());
+        if (module.getPackageName() != null) {
+            starImports.add(module.getPackageName());
         } else {
             starImports.add("");
         }
@@ -627,7 +737,7 @@ public class OrganizeGroovyImports {
 
     private IType[] resolveMissingTypes(IProgressMonitor monitor) throws JavaModelException {
         // fill in all the potential matches
-        new TypeSearch().searchForTypes(unit, missingTypes, monitor);
+        typeSearch.searchForTypes(unit, missingTypes, monitor);
 
         List<TypeNameMatch> missingTypesNoChoiceRequired = new ArrayList<TypeNameMatch>();
         List<TypeNameMatch[]> missingTypesChoiceRequired = new ArrayList<TypeNameMatch[]>();
@@ -16,9 +16,14 @@
 package org.codehaus.groovy.eclipse.refactoring.actions;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.codehaus.groovy.eclipse.core.GroovyCore;
 import org.codehaus.jdt.groovy.model.GroovyCompilationUnit;
@@ -26,6 +31,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.ISourceRange;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.search.IJavaSearchConstants;
@@ -65,6 +71,40 @@ public class TypeSearch {
         }
     }
 
+    /**
+     * Matches of earlier searches, by project and then by simple type name.
+     */
+    private final Map<IJavaProject, Map<String, List<TypeNameMatch>>> prefetched =
+        new HashMap<IJavaProject, Map<String, List<TypeNameMatch>>>();
+
+    /**
+     * Looks for all of the given simple type names in one search and keeps the
+     * matches for subsequent calls to {@link #searchForTypes}.  Used when the
+     * imports of many compilation units are organized together.
+     */
+    public void prefetchTypes(IJavaProject project, Set<String> simpleNames, IProgressMonitor monitor) throws JavaModelException, OperationCanceledException {
+        Map<String, List<TypeNameMatch>> known = prefetched.get(project);
+        if (known == null) {
+            known = new HashMap<String, List<TypeNameMatch>>();
+            prefetched.put(project, known);
+        }
+        Map<String, List<TypeNameMatch>> found = new LinkedHashMap<String, List<TypeNameMatch>>();
+        for (String simpleName : simpleNames) {
+            if (!known.containsKey(simpleName)) {
+                found.put(simpleName, new ArrayList<TypeNameMatch>(2));
+            }
+        }
+        if (!found.isEmpty()) {
+            for (TypeNameMatch match : searchAllTypeNames(project, found.keySet(), monitor)) {
+                List<TypeNameMatch> matches = found.get(match.getSimpleTypeName());
+                if (matches != null) {
+                    matches.add(match);
+                }
+            }
+            known.putAll(found);
+        }
+    }
+
     /**
      * Use a SearchEngine to look for the types.
      * <p>
@@ -73,16 +113,22 @@ public class TypeSearch {
      * @see OrganizeImportsOperation.TypeReferenceProcessor#process(org.eclipse.core.runtime.IProgressMonitor)
      */
     public void searchForTypes(GroovyCompilationUnit unit, Map<String, UnresolvedTypeData> missingTypes, IProgressMonitor monitor) throws JavaModelException, OperationCanceledException {
-        char[][] allTypes = new char[missingTypes.size()][];
-        int i = 0;
-        for (String simpleName : missingTypes.keySet()) {
-            allTypes[i++] = simpleName.toCharArray();
-        }
         final List<TypeNameMatch> typesFound = new ArrayList<TypeNameMatch>();
-        TypeNameMatchCollector collector = new TypeNameMatchCollector(typesFound);
-        IJavaSearchScope scope = SearchEngine.createJavaSearchScope(new IJavaElement[] {unit.getJavaProject()});
-        int policy = (monitor == null ? IJavaSearchConstants.CANCEL_IF_NOT_READY_TO_SEARCH : IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH);
-        new SearchEngine().searchAllTypeNames(null, allTypes, scope, collector, policy, monitor);
+
+        List<String> unknownTypes = new ArrayList<String>(missingTypes.keySet());
+        Map<String, List<TypeNameMatch>> known = prefetched.get(unit.getJavaProject());
+        if (known != null) {
+            for (Iterator<String> it = unknownTypes.iterator(); it.hasNext();) {
+                List<TypeNameMatch> matches = known.get(it.next());
+                if (matches != null) {
+                    typesFound.addAll(matches);
+                    it.remove();
+                }
+            }
+        }
+        if (!unknownTypes.isEmpty()) {
+            typesFound.addAll(searchAllTypeNames(unit.getJavaProject(), unknownTypes, monitor));
+        }
 
         for (TypeNameMatch match : typesFound) {
             UnresolvedTypeData data = missingTypes.get(match.getSimpleTypeName());
@@ -96,6 +142,20 @@ public class TypeSearch {
         }
     }
 
+    private static List<TypeNameMatch> searchAllTypeNames(IJavaProject project, Collection<String> simpleNames, IProgressMonitor monitor) throws JavaModelException {
+        char[][] allTypes = new char[simpleNames.size()][];
+        int i = 0;
+        for (String simpleName : simpleNames) {
+            allTypes[i++] = simpleName.toCharArray();
+        }
+        final List<TypeNameMatch> typesFound = new ArrayList<TypeNameMatch>();
+        TypeNameMatchCollector collector = new TypeNameMatchCollector(typesFound);
+        IJavaSearchScope scope = SearchEngine.createJavaSearchScope(new IJavaElement[] {project});
+        int policy = (monitor == null ? IJavaSearchConstants.CANCEL_IF_NOT_READY_TO_SEARCH : IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH);
+        new SearchEngine().searchAllTypeNames(null, allTypes, scope, collector, policy, monitor);
+        return typesFound;
+    }
+
     /**
      * If looking for an annotation, then filter out non-annoations, otherwise everything is acceptable.
      */
@@ -596,7 +596,11 @@ protected Compiler newCompiler() {
 	CompilerOptions options = newCompiler.options;
 	// temporary code to allow the compiler to revert to a single thread
 	String setting = System.getProperty("jdt.compiler.useSingleThread"); //$NON-NLS-1$
-	newCompiler.useSingleThread = setting != null && setting.equals("true"); //$NON-NLS-1$
+	// GROOVY edit
+	//newCompiler.useSingleThread = setting != null && setting.equals("true"); //$NON-NLS-1$
+	newCompiler.useSingleThread = (setting != null && setting.equals("true")) || //$NON-NLS-1$
+		(options.buildGroovyFiles == 2 && Boolean.getBoolean("greclipse.compiler.useSingleThread")); //$NON-NLS-1$
+	// GROOVY end
 
 	// enable the compiler reference info support
 	options.produceReferenceInfo = true;
@@ -3899,7 +3899,11 @@ public void performCompilation() {
 	this.batchCompiler.remainingIterations = this.maxRepetition-this.currentRepetition/*remaining iterations including this one*/;
 	// temporary code to allow the compiler to revert to a single thread
 	String setting = System.getProperty("jdt.compiler.useSingleThread"); //$NON-NLS-1$
-	this.batchCompiler.useSingleThread = setting != null && setting.equals("true"); //$NON-NLS-1$
+	// GROOVY edit
+	//this.batchCompiler.useSingleThread = setting != null && setting.equals("true"); //$NON-NLS-1$
+	this.batchCompiler.useSingleThread = (setting != null && setting.equals("true")) || //$NON-NLS-1$
+		(this.compilerOptions.buildGroovyFiles == 2 && Boolean.getBoolean("greclipse.compiler.useSingleThread")); //$NON-NLS-1$
+	// GROOVY end
 
 	if (this.compilerOptions.complianceLevel >= ClassFileConstants.JDK1_6
 			&& this.compilerOptions.processAnnotations) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,6 +38,7 @@ import org.eclipse.jdt.internal.core.BinaryType;
 import org.eclipse.jdt.internal.core.ClassFile;
 import org.eclipse.jdt.internal.core.CompilationUnit;
 import org.eclipse.jdt.internal.core.JavaProject;
+import org.eclipse.jdt.internal.core.Openable;
 import org.eclipse.jdt.internal.core.PackageFragment;
 import org.eclipse.jdt.internal.core.search.indexing.IndexingParser;
 import org.eclipse.jdt.internal.core.search.matching.ImportMatchLocatorParser;
@@ -151,4 +152,12 @@ class DefaultLanguageSupport implements LanguageSupport {
 	public ISupplementalIndexer getSupplementalIndexer() {
 		return new NoopIndexer();
 	}
+
+	public void parseAhead(Parser parser, Openable[] openables, IProgressMonitor monitor) {
+		// nop
+	}
+
+	public int[][] groupUnits(ICompilationUnit[] units, IProgressMonitor monitor) {
+		return null;
+	}
 }
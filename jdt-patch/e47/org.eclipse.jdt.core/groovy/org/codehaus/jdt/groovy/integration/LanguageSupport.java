@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,6 +38,7 @@ import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
 import org.eclipse.jdt.internal.core.BinaryType;
 import org.eclipse.jdt.internal.core.ClassFile;
 import org.eclipse.jdt.internal.core.CompilationUnit;
+import org.eclipse.jdt.internal.core.Openable;
 import org.eclipse.jdt.internal.core.PackageFragment;
 import org.eclipse.jdt.internal.core.search.indexing.IndexingParser;
 import org.eclipse.jdt.internal.core.search.matching.ImportMatchLocatorParser;
@@ -154,4 +155,24 @@ public interface LanguageSupport {
 	 * @return the supplemental indexer that provides extra indexing for interesting binary files
 	 */
 	ISupplementalIndexer getSupplementalIndexer();
+
+	/**
+	 * Gives the language support a chance to parse the units of the given openables that
+	 * are not open, before the type hierarchy resolver asks the parser for them one by one.
+	 * @param parser the parser the hierarchy resolver will use
+	 * @param openables the compilation units and class files of the hierarchy, by unit index;
+	 *        null for those that the resolver may resolve, which must be parsed as usual
+	 * @param monitor the progress monitor of the resolver, may be null
+	 */
+	void parseAhead(Parser parser, Openable[] openables, IProgressMonitor monitor);
+
+	/**
+	 * Divides the source files of a full build into groups to compile one after the other,
+	 * so that the units of a group only refer to types of that group and the groups before it.
+	 * @param units the source files of the build
+	 * @param monitor the progress monitor of the build, may be null
+	 * @return the indexes into units of each group, in the order to compile them,
+	 * or null if the units should be compiled all at once
+	 */
+	int[][] groupUnits(ICompilationUnit[] units, IProgressMonitor monitor);
 }
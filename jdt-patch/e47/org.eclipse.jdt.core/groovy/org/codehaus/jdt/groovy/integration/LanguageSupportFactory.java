@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2016 the original author or authors.
+ * Copyright 2009-2017 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,6 +39,7 @@ import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
 import org.eclipse.jdt.internal.core.BinaryType;
 import org.eclipse.jdt.internal.core.ClassFile;
 import org.eclipse.jdt.internal.core.CompilationUnit;
+import org.eclipse.jdt.internal.core.Openable;
 import org.eclipse.jdt.internal.core.PackageFragment;
 import org.eclipse.jdt.internal.core.search.indexing.IndexingParser;
 import org.eclipse.jdt.internal.core.search.matching.ImportMatchLocatorParser;
@@ -219,4 +220,12 @@ public class LanguageSupportFactory {
 	public static ISupplementalIndexer getSupplementalIndexer() {
 		return getLanguageSupport().getSupplementalIndexer();
 	}
+
+	public static void parseAhead(Parser parser, Openable[] openables, IProgressMonitor monitor) {
+		getLanguageSupport().parseAhead(parser, openables, monitor);
+	}
+
+	public static int[][] groupUnits(ICompilationUnit[] units, IProgressMonitor monitor) {
+		return getLanguageSupport().groupUnits(units, monitor);
+	}
 }
@@ -317,8 +317,12 @@ protected void compile(SourceFile[] units) {
 	this.compiledAllAtOnce = MAX_AT_ONCE == 0 || unitsLength <= MAX_AT_ONCE;
 	// GROOVY add
 	// currently can't easily fault in files from the other group.  Easier to do this than fix that right now.
+	// A full build may instead be split into groups that never need to fault in the files of a later group.
+	int[][] groups = null;
 	if (this.compiler != null && this.compiler.options != null && this.compiler.options.buildGroovyFiles == 2) {
-		this.compiledAllAtOnce = true;
+		if (this instanceof BatchImageBuilder)
+			groups = LanguageSupportFactory.groupUnits(units, this.notifier.monitor);
+		this.compiledAllAtOnce = (groups == null);
 	}
 	// GROOVY end
 	if (this.compiledAllAtOnce) {
@@ -327,6 +331,10 @@ protected void compile(SourceFile[] units) {
 			for (int i = 0; i < unitsLength; i++)
 				System.out.println("About to compile " + units[i].typeLocator()); //$NON-NLS-1$
 		compile(units, null, true);
+	// GROOVY add
+	} else if (groups != null) {
+		compileInGroups(units, groups);
+	// GROOVY end
 	} else {
 		SourceFile[] remainingUnits = new SourceFile[unitsLength]; // copy of units, removing units when about to compile
 		System.arraycopy(units, 0, remainingUnits, 0, unitsLength);
@@ -367,6 +375,48 @@ protected void compile(SourceFile[] units) {
 	}
 }
 
+// GROOVY add
+/*
+ * Compiles the units group by group, in the given order. A group only refers to the types of its own units and of
+ * the groups before it, whose class files have been written by then; the compiler is reset after each group, so the
+ * groovy state of a group is let go before the next one starts. The units still to come are passed along as
+ * additional units, as above, in case a group does need one of them after all.
+ */
+private void compileInGroups(SourceFile[] units, int[][] groups) {
+	int unitsLength = units.length;
+	SourceFile[] remainingUnits = new SourceFile[unitsLength]; // units in the order of their groups, removing units when about to compile
+	int[] groupEnds = new int[groups.length];
+	for (int g = 0, remainingIndex = 0; g < groups.length; g++) {
+		for (int i = 0, l = groups[g].length; i < l; i++)
+			remainingUnits[remainingIndex++] = units[groups[g][i]];
+		groupEnds[g] = remainingIndex;
+	}
+	int remainingIndex = 0;
+	for (int g = 0; g < groups.length; g++) {
+		boolean compilingFirstGroup = (g == 0);
+		SourceFile[] toCompile = new SourceFile[groupEnds[g] - remainingIndex];
+		int count = 0;
+		while (remainingIndex < groupEnds[g]) {
+			// it may have already been compiled when it was referenced by another unit
+			SourceFile unit = remainingUnits[remainingIndex];
+			if (unit != null && (compilingFirstGroup || this.workQueue.isWaiting(unit))) {
+				if (JavaBuilder.DEBUG)
+					System.out.println("About to compile #" + remainingIndex + " in group " + g + " : " + unit.typeLocator()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				toCompile[count++] = unit;
+			}
+			remainingUnits[remainingIndex++] = null;
+		}
+		if (count < toCompile.length)
+			System.arraycopy(toCompile, 0, toCompile = new SourceFile[count], 0, count);
+		if (!compilingFirstGroup)
+			for (int a = remainingIndex; a < unitsLength; a++)
+				if (remainingUnits[a] != null && this.workQueue.isCompiled(remainingUnits[a]))
+					remainingUnits[a] = null; // use the class file for this source file since its been compiled
+		compile(toCompile, remainingUnits, compilingFirstGroup);
+	}
+}
+// GROOVY end
+
 protected void compile(SourceFile[] units, SourceFile[] additionalUnits, boolean compilingFirstGroup) {
 	if (units.length == 0) return;
 	this.notifier.aboutToCompile(units[0]); // just to change the message
@@ -570,7 +620,11 @@ protected Compiler newCompiler() {
 	CompilerOptions options = newCompiler.options;
 	// temporary code to allow the compiler to revert to a single thread
 	String setting = System.getProperty("jdt.compiler.useSingleThread"); //$NON-NLS-1$
-	newCompiler.useSingleThread = setting != null && setting.equals("true"); //$NON-NLS-1$
+	// GROOVY edit
+	//newCompiler.useSingleThread = setting != null && setting.equals("true"); //$NON-NLS-1$
+	newCompiler.useSingleThread = (setting != null && setting.equals("true")) || //$NON-NLS-1$
+		(options.buildGroovyFiles == 2 && Boolean.getBoolean("greclipse.compiler.useSingleThread")); //$NON-NLS-1$
+	// GROOVY end
 
 	// enable the compiler reference info support
 	options.produceReferenceInfo = true;
@@ -682,6 +682,20 @@ public void resolve(Openable[] openables, HashSet localTypes, IProgressMonitor m
 		//Parser parser = new Parser(this.lookupEnvironment.problemReporter, true);
 		Parser parser = LanguageSupportFactory.getParser(this, this.lookupEnvironment.globalOptions, this.lookupEnvironment.problemReporter, true, 1);
 		// GROOVY end
+		// GROOVY add -- units that are parsed from file below can be parsed ahead by the language support (in parallel)
+		// if they are not resolved (see containsLocalType below); on a region every unit may be resolved
+		if (localTypes != null) {
+			Openable[] supertypeOnly = new Openable[openablesLength];
+			for (int i = 0; i < openablesLength; i++) {
+				if (openables[i] instanceof org.eclipse.jdt.core.ICompilationUnit
+						&& !((org.eclipse.jdt.core.ICompilationUnit) openables[i]).isWorkingCopy()
+						&& !localTypes.contains(openables[i].getPath().toString())) {
+					supertypeOnly[i] = openables[i];
+				}
+			}
+			LanguageSupportFactory.parseAhead(parser, supertypeOnly, subMonitor);
+		}
+		// GROOVY end
 		final boolean isJava8 = this.options.sourceLevel >= ClassFileConstants.JDK1_8;
 		for (int i = 0; i < openablesLength; i++) {
 			Openable openable = openables[i];